@@ -19,8 +19,9 @@ type Bot struct {
 	DelayConfig DelayConfig // 딜레이 설정
 	TargetSeats []Seat      // 목표 좌석 목록 (우선순위순)
 	logger      *zap.Logger
-	httpClient  *client.HTTPClient // HTTP 클라이언트
-	waitChannel <-chan struct{}    // 매치 시작 대기 채널
+	httpClient  *client.HTTPClient       // HTTP 클라이언트
+	joinBatcher *client.QueueJoinBatcher // 대기열 일괄 진입 배처 (nil이면 개별 진입)
+	waitChannel <-chan struct{}          // 매치 시작 대기 채널
 	startTime   time.Time
 }
 
@@ -33,13 +34,14 @@ type Seat struct {
 }
 
 // 새로운 봇을 생성
-func NewBot(userID int64, matchID int64, level Level, httpClient *client.HTTPClient, waitChannel <-chan struct{}, logger *zap.Logger) *Bot {
+func NewBot(userID int64, matchID int64, level Level, httpClient *client.HTTPClient, joinBatcher *client.QueueJoinBatcher, waitChannel <-chan struct{}, logger *zap.Logger) *Bot {
 	return &Bot{
 		UserID:      userID,
 		MatchID:     matchID,
 		Level:       level,
 		DelayConfig: level.GetDelayConfig(),
 		httpClient:  httpClient,
+		joinBatcher: joinBatcher,
 		waitChannel: waitChannel,
 		logger:      logger,
 	}
@@ -114,7 +116,12 @@ func (b *Bot) selectDay(ctx context.Context) error {
 			Duration:  durationSec,
 		}
 
-		_, err := b.httpClient.JoinQueue(ctx, b.MatchID, req, b.UserID)
+		var err error
+		if b.joinBatcher != nil {
+			err = b.joinBatcher.Join(ctx, b.UserID, req)
+		} else {
+			_, err = b.httpClient.JoinQueue(ctx, b.MatchID, req, b.UserID)
+		}
 		if err != nil {
 			return fmt.Errorf("요일 선택 실패: %w", err)
 		}
@@ -46,6 +46,17 @@ func (c *HTTPClient) JoinQueue(ctx context.Context, matchId int64, req *DaySelec
 	return &resp, nil
 }
 
+// JoinQueueBulk 봇 일괄 대기열 진입 API 호출
+func (c *HTTPClient) JoinQueueBulk(ctx context.Context, matchId int64, req *BulkJoinRequest) (*BulkJoinResponse, error) {
+	endpoint := fmt.Sprintf("/ticketing/queue/%d/bots", matchId)
+
+	var resp BulkJoinResponse
+	if err := c.post(ctx, endpoint, req, &resp); err != nil {
+		return nil, err
+	}
+	return &resp, nil
+}
+
 // ValidateCaptcha 봇 캡챠 검증 API 호출
 func (c *HTTPClient) ValidateCaptcha(ctx context.Context, req *ValidateCaptchaRequest) error {
 	endpoint := "/ticketing/captcha/validate/bot"
@@ -0,0 +1,123 @@
+package client
+
+import (
+	"context"
+	"sync"
+	"time"
+
+	"bot-server/logger"
+
+	"go.uber.org/zap"
+)
+
+// QueueJoinBatcher 봇의 대기열 진입 요청을 짧은 구간(window) 단위로 모아
+// 일괄 진입 API 한 번으로 보낸다.
+// 봇마다 요일 선택 딜레이가 달라 도착 시점은 유지하되(window 오차 이내),
+// 봇 수만큼 HTTP 요청을 보내지 않도록 한다.
+type QueueJoinBatcher struct {
+	client   *HTTPClient
+	matchId  int64
+	window   time.Duration
+	maxBatch int
+
+	mu      sync.Mutex
+	pending []pendingJoin
+	timer   *time.Timer
+}
+
+type pendingJoin struct {
+	item BotEnqueueItem
+	done chan error
+}
+
+// 새로운 배처를 생성 (매치당 1개)
+func NewQueueJoinBatcher(client *HTTPClient, matchId int64, window time.Duration, maxBatch int) *QueueJoinBatcher {
+	return &QueueJoinBatcher{
+		client:   client,
+		matchId:  matchId,
+		window:   window,
+		maxBatch: maxBatch,
+	}
+}
+
+// Join 봇 1명을 배치에 넣고, 배치가 전송될 때까지 대기
+func (b *QueueJoinBatcher) Join(ctx context.Context, userId int64, req *DaySelectRequest) error {
+	done := make(chan error, 1)
+	p := pendingJoin{
+		item: BotEnqueueItem{BotId: userId, ClickMiss: req.ClickMiss, Duration: req.Duration},
+		done: done,
+	}
+
+	b.mu.Lock()
+	b.pending = append(b.pending, p)
+	if len(b.pending) >= b.maxBatch {
+		// 가득 차면 즉시 전송
+		batch := b.takeLocked()
+		b.mu.Unlock()
+		go b.flush(batch)
+	} else {
+		if b.timer == nil {
+			b.timer = time.AfterFunc(b.window, b.flushPending)
+		}
+		b.mu.Unlock()
+	}
+
+	select {
+	case err := <-done:
+		return err
+	case <-ctx.Done():
+		return ctx.Err()
+	}
+}
+
+func (b *QueueJoinBatcher) flushPending() {
+	b.mu.Lock()
+	batch := b.takeLocked()
+	b.mu.Unlock()
+	b.flush(batch)
+}
+
+// mu를 잡은 상태에서 호출
+func (b *QueueJoinBatcher) takeLocked() []pendingJoin {
+	batch := b.pending
+	b.pending = nil
+	if b.timer != nil {
+		b.timer.Stop()
+		b.timer = nil
+	}
+	return batch
+}
+
+func (b *QueueJoinBatcher) flush(batch []pendingJoin) {
+	if len(batch) == 0 {
+		return
+	}
+
+	items := make([]BotEnqueueItem, len(batch))
+	for i, p := range batch {
+		items[i] = p.item
+	}
+
+	ctx, cancel := context.WithTimeout(context.Background(), 30*time.Second)
+	defer cancel()
+
+	resp, err := b.client.JoinQueueBulk(ctx, b.matchId, &BulkJoinRequest{Bots: items})
+	if err != nil {
+		logger.Warn("봇 일괄 대기열 진입 실패",
+			zap.Int64("match_id", b.matchId),
+			zap.Int("count", len(items)),
+			zap.Error(err),
+		)
+	} else {
+		logger.Debug("봇 일괄 대기열 진입",
+			zap.Int64("match_id", b.matchId),
+			zap.Int("count", len(items)),
+			zap.Int64("added", resp.Added),
+			zap.Int64("total", resp.Total),
+		)
+	}
+
+	for _, p := range batch {
+		p.done <- err
+	}
+}
@@ -44,3 +44,15 @@ type SeatConfirmRequest struct {
 	SeatSelectTryCount       int     `json:"seatSelectTryCount"`
 	SeatSelectClickMissCount int     `json:"seatSelectClickMissCount"`
 }
+
+// 봇 일괄 대기열 진입 요청의 봇 1명
+type BotEnqueueItem struct {
+	BotId     int64   `json:"botId"`
+	ClickMiss int     `json:"clickMiss"`
+	Duration  float64 `json:"duration"` // 초 단위 (s)
+}
+
+// 봇 일괄 대기열 진입 요청
+type BulkJoinRequest struct {
+	Bots []BotEnqueueItem `json:"bots"`
+}
@@ -13,6 +13,14 @@ type DaySelectResponse struct {
 	TotalNum       int    `json:"totalNum"`
 }
 
+//===봇 일괄 대기열 진입 응답===
+type BulkJoinResponse struct {
+	MatchId   int64 `json:"matchId"`
+	Requested int   `json:"requested"`
+	Added     int64 `json:"added"`
+	Total     int64 `json:"total"`
+}
+
 //===섹션 내 좌석 상태 응답 ===
 type SectionStatusResponse struct {
 	SectionId string `json:"sectionId"`
@@ -14,10 +14,19 @@ import (
 
 // BotDequeuedEvent Kafka에서 수신하는 봇 대기열 이탈 이벤트
 type BotDequeuedEvent struct {
-	RoomID  int64 `json:"roomId"`
-	MatchID int64 `json:"matchId"`
-	UserID  int64 `json:"userId"`
-	Ts      int64 `json:"ts"`
+	RoomID  int64   `json:"roomId"`
+	MatchID int64   `json:"matchId"`
+	UserID  int64   `json:"userId"`
+	UserIDs []int64 `json:"userIds"` // 매치 단위 배치 이벤트
+	Ts      int64   `json:"ts"`
+}
+
+// BotIDs 배치 이벤트면 userIds, 단건 이벤트면 userId를 반환
+func (e BotDequeuedEvent) BotIDs() []int64 {
+	if len(e.UserIDs) > 0 {
+		return e.UserIDs
+	}
+	return []int64{e.UserID}
 }
 
 // MatchService 인터페이스 (순환 import 방지)
@@ -107,14 +116,17 @@ func (h *consumerGroupHandler) ConsumeClaim(session sarama.ConsumerGroupSession,
 			continue
 		}
 
+		botIDs := event.BotIDs()
 		h.logger.Info("봇 대기열 이탈 이벤트 수신",
 			zap.Int64("match_id", event.MatchID),
-			zap.Int64("user_id", event.UserID),
+			zap.Int("bot_count", len(botIDs)),
 			zap.Int64("ts", event.Ts),
 		)
 
 		// 매치 서비스에 개별 봇 시작 신호 전달
-		h.matchService.SignalBotStart(event.MatchID, event.UserID)
+		for _, userID := range botIDs {
+			h.matchService.SignalBotStart(event.MatchID, userID)
+		}
 
 		// 오프셋 커밋
 		session.MarkMessage(message, "")
@@ -15,6 +15,12 @@ import (
 	"go.uber.org/zap"
 )
 
+// 봇 대기열 일괄 진입: 이 구간 동안 모인 봇을 한 번에 보냄 (최대 queueJoinMaxBatch명)
+const (
+	queueJoinWindow   = 50 * time.Millisecond
+	queueJoinMaxBatch = 500
+)
+
 // 매치 서비스
 type Service struct {
 	matches      map[int64]*MatchContext
@@ -128,6 +134,9 @@ func (s *Service) runMatch(matchCtx *MatchContext) error {
 		zap.Int("count", matchCtx.BotCount),
 	)
 
+	// 대기열 진입은 짧은 구간 단위로 모아 일괄 진입 API로 전송
+	joinBatcher := client.NewQueueJoinBatcher(s.httpClient, matchCtx.MatchID, queueJoinWindow, queueJoinMaxBatch)
+
 	// 1. 봇 인스턴스 생성 (각 봇은 -1, -2, -3, ... 형식의 음수 userId 사용)
 	bots := make([]*bot.Bot, matchCtx.BotCount)
 	for i := 0; i < matchCtx.BotCount; i++ {
@@ -143,7 +152,7 @@ func (s *Service) runMatch(matchCtx *MatchContext) error {
 		channelKey := getBotWaitChannelKey(matchCtx.MatchID, userID)
 		s.waitChannels.Store(channelKey, waitChannel)
 
-		bots[i] = bot.NewBot(userID, matchCtx.MatchID, botLevel, s.httpClient, waitChannel, botLogger)
+		bots[i] = bot.NewBot(userID, matchCtx.MatchID, botLevel, s.httpClient, joinBatcher, waitChannel, botLogger)
 	}
 
 	// 2. 봇들에게 목표 좌석 할당 (레벨별 우선순위)
@@ -0,0 +1,14 @@
+package com.tickget.replay;
+
+/**
+ * 녹화된 대기열 진입 1건
+ *
+ * @param offsetMs   매치 첫 진입으로부터 경과 시간(ms)
+ * @param playerType "user" / "robot"
+ */
+public record Arrival(long offsetMs, String playerType, long playerId, int clickMiss, float duration) {
+
+    public boolean isBot() {
+        return playerId < 0;
+    }
+}
@@ -0,0 +1,61 @@
+package com.tickget.replay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 단계별(enqueue / queue-wait / hold / confirm) 지연 및 결과 코드 집계
+ */
+public class LatencyRecorder {
+
+    // 단계별 지연(µs)
+    private final Map<String, List<Long>> samples = new ConcurrentSkipListMap<>();
+    // 단계별 결과 (HTTP 상태 코드 또는 오류 이름) 횟수
+    private final Map<String, Map<String, LongAdder>> outcomes = new ConcurrentSkipListMap<>();
+
+    public void record(String phase, long elapsedNanos, String outcome) {
+        List<Long> list = samples.computeIfAbsent(phase, p -> new ArrayList<>());
+        synchronized (list) {
+            list.add(elapsedNanos / 1_000);
+        }
+        outcomes.computeIfAbsent(phase, p -> new ConcurrentHashMap<>())
+                .computeIfAbsent(outcome, o -> new LongAdder())
+                .increment();
+    }
+
+    public List<PhaseSummary> summarize() {
+        List<PhaseSummary> result = new ArrayList<>();
+        samples.forEach((phase, list) -> {
+            long[] sorted;
+            synchronized (list) {
+                sorted = list.stream().mapToLong(Long::longValue).toArray();
+            }
+            Arrays.sort(sorted);
+
+            StringBuilder codes = new StringBuilder();
+            outcomes.getOrDefault(phase, Map.of()).forEach((code, count) ->
+                    codes.append(codes.isEmpty() ? "" : " ").append(code).append('=').append(count.sum()));
+
+            result.add(new PhaseSummary(phase, sorted.length,
+                    percentileMs(sorted, 0.50), percentileMs(sorted, 0.90), percentileMs(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1000.0,
+                    codes.toString()));
+        });
+        return result;
+    }
+
+    // nearest-rank 방식
+    private static double percentileMs(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))] / 1000.0;
+    }
+
+    public record PhaseSummary(String phase, int count, double p50Ms, double p90Ms, double p99Ms,
+                               double maxMs, String outcomes) {}
+}
@@ -0,0 +1,210 @@
+package com.tickget.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 도착 곡선을 따라 가상 사용자를 띄워 ticketing-server를 호출한다.
+ *
+ * 사용자 1명 = 가상 스레드 1개
+ *   1) POST /ticketing/queue/{matchId}                 → enqueue
+ *   2) GET  /ticketing/queue/{matchId}/status 폴링     → queue-wait (DEQUEUED까지, pollAfterMs 준수)
+ *   3) POST /ticketing/matches/{matchId}/hold          → hold
+ *   4) POST /ticketing/matches/{matchId}/seats/confirm → confirm (hold 성공 + 녹화 매치에 confirm 기록이 있을 때)
+ *      본문에는 user_stats에 녹화된 통계를 그대로 보낸다 (UserStatsReader)
+ * 봇은 대기열 상태를 남기지 않고 bot-server가 이후 단계를 처리하므로 enqueue만 재현한다.
+ */
+@Slf4j
+@Component
+public class ReplayDriver {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final long DEFAULT_POLL_MS = 1000;
+
+    private final ObjectMapper mapper;
+    private final HttpClient http;
+    private final String baseUrl;
+    private final boolean holdAndConfirm;
+    private final long dequeueTimeoutMs;
+    private final long sectionId;
+    private final int seatRows;
+    private final int seatCols;
+    private final String seatGrade;
+
+    public ReplayDriver(ObjectMapper mapper,
+                        @Value("${replay.base-url:http://localhost:8080}") String baseUrl,
+                        @Value("${replay.hold-and-confirm:true}") boolean holdAndConfirm,
+                        @Value("${replay.dequeue-timeout-ms:600000}") long dequeueTimeoutMs,
+                        @Value("${replay.seat.section-id:1}") long sectionId,
+                        @Value("${replay.seat.rows:20}") int seatRows,
+                        @Value("${replay.seat.cols:30}") int seatCols,
+                        @Value("${replay.seat.grade:R석}") String seatGrade) {
+        this.mapper = mapper;
+        this.baseUrl = baseUrl;
+        this.holdAndConfirm = holdAndConfirm;
+        this.dequeueTimeoutMs = dequeueTimeoutMs;
+        this.sectionId = sectionId;
+        this.seatRows = Math.max(1, seatRows);
+        this.seatCols = Math.max(1, seatCols);
+        this.seatGrade = seatGrade;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(REQUEST_TIMEOUT)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public LatencyRecorder replay(long matchId, List<Arrival> arrivals,
+                                  Map<Long, UserStatsReader.RecordedConfirm> confirms, double speed) {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long startedAt = System.nanoTime();
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < arrivals.size(); i++) {
+                Arrival arrival = arrivals.get(i);
+                int seatIndex = i;
+
+                // 녹화된 도착 시점까지 대기 (배속 적용)
+                long dueAt = startedAt + (long) (arrival.offsetMs() / speed * 1_000_000L);
+                long waitNanos = dueAt - System.nanoTime();
+                if (waitNanos > 0) LockSupport.parkNanos(waitNanos);
+
+                users.execute(() -> runUser(matchId, arrival, confirms.get(arrival.playerId()), seatIndex, recorder));
+
+                if ((i + 1) % 1000 == 0) {
+                    log.info("재현 진행: {}/{} ({}ms 경과)", i + 1, arrivals.size(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                }
+            }
+            // try-with-resources 종료 시 모든 가상 사용자가 끝날 때까지 대기
+        }
+        return recorder;
+    }
+
+    private void runUser(long matchId, Arrival arrival, UserStatsReader.RecordedConfirm confirm,
+                         int seatIndex, LatencyRecorder recorder) {
+        try {
+            // 1) enqueue
+            HttpResponse<String> enqueued = timed(recorder, "enqueue", post(
+                    "/ticketing/queue/" + matchId, arrival.playerId(),
+                    Map.of("clickMiss", arrival.clickMiss(), "duration", arrival.duration())));
+            if (enqueued == null || enqueued.statusCode() != 200) return;
+            if (arrival.isBot() || !holdAndConfirm) return;
+
+            // 2) DEQUEUED까지 대기
+            if (!awaitDequeued(matchId, arrival.playerId(), recorder)) return;
+
+            // 3) hold (사용자마다 좌석 범위 안에서 순서대로 배정, 좌석 수보다 많으면 경합 발생)
+            int seat = seatIndex % (seatRows * seatCols);
+            HttpResponse<String> held = timed(recorder, "hold", post(
+                    "/ticketing/matches/" + matchId + "/hold", arrival.playerId(),
+                    Map.of("userId", arrival.playerId(),
+                            "seats", List.of(Map.of(
+                                    "sectionId", sectionId,
+                                    "row", seat / seatCols + 1,
+                                    "col", seat % seatCols + 1,
+                                    "grade", seatGrade)))));
+            if (held == null || held.statusCode() != 200) return;
+
+            // 4) confirm (녹화 매치에서 confirm 하지 않은 사용자는 선점만 하고 만료되도록 둔다)
+            if (confirm == null) return;
+            timed(recorder, "confirm", post(
+                    "/ticketing/matches/" + matchId + "/seats/confirm", arrival.playerId(),
+                    Map.of("userId", arrival.playerId(),
+                            "dateSelectTime", confirm.dateSelectTime(),
+                            "dateMissCount", confirm.dateMissCount(),
+                            "seccodeSelectTime", confirm.seccodeSelectTime(),
+                            "seccodeBackspaceCount", confirm.seccodeBackspaceCount(),
+                            "seccodeTryCount", confirm.seccodeTryCount(),
+                            "seatSelectTime", confirm.seatSelectTime(),
+                            "seatSelectTryCount", confirm.seatSelectTryCount(),
+                            "seatSelectClickMissCount", confirm.seatSelectClickMissCount())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean awaitDequeued(long matchId, long userId, LatencyRecorder recorder) throws InterruptedException {
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(dequeueTimeoutMs);
+
+        while (System.nanoTime() < deadline) {
+            HttpResponse<String> res;
+            try {
+                res = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/ticketing/queue/" + matchId + "/status"))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("X-User-Id", String.valueOf(userId))
+                        .GET()
+                        .build(), HttpResponse.BodyHandlers.ofString());
+            } catch (Exception e) {
+                if (e instanceof InterruptedException ie) throw ie;
+                recorder.record("queue-wait", System.nanoTime() - started, e.getClass().getSimpleName());
+                return false;
+            }
+
+            if (res.statusCode() != 200) {
+                // 404: 상태 없음 (이탈 정리 등)
+                recorder.record("queue-wait", System.nanoTime() - started, String.valueOf(res.statusCode()));
+                return false;
+            }
+
+            long pollAfterMs = DEFAULT_POLL_MS;
+            try {
+                JsonNode body = mapper.readTree(res.body());
+                if ("DEQUEUED".equals(body.path("status").asText())) {
+                    recorder.record("queue-wait", System.nanoTime() - started, "DEQUEUED");
+                    return true;
+                }
+                pollAfterMs = body.path("pollAfterMs").asLong(DEFAULT_POLL_MS);
+            } catch (Exception e) {
+                log.debug("상태 응답 파싱 실패: {}", e.getMessage());
+            }
+            Thread.sleep(Math.max(100, pollAfterMs));
+        }
+
+        recorder.record("queue-wait", System.nanoTime() - started, "TIMEOUT");
+        return false;
+    }
+
+    private HttpRequest post(String path, long userId, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .header("X-User-Id", String.valueOf(userId))
+                    .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException("요청 본문 직렬화 실패: " + path, e);
+        }
+    }
+
+    // 호출 지연과 결과 코드를 기록, 전송 실패 시 null
+    private HttpResponse<String> timed(LatencyRecorder recorder, String phase, HttpRequest request)
+            throws InterruptedException {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> res = http.send(request, HttpResponse.BodyHandlers.ofString());
+            recorder.record(phase, System.nanoTime() - started, String.valueOf(res.statusCode()));
+            return res;
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            recorder.record(phase, System.nanoTime() - started, e.getClass().getSimpleName());
+            return null;
+        }
+    }
+}
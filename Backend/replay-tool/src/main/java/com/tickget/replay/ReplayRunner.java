@@ -0,0 +1,74 @@
+package com.tickget.replay;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 녹화 매치 조회 → 재현 → 결과 출력
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReplayRunner implements ApplicationRunner {
+    private final UserLogReader userLogReader;
+    private final UserStatsReader userStatsReader;
+    private final ReplayDriver replayDriver;
+
+    @Value("${replay.source-match-id:}")
+    private Long sourceMatchId;
+
+    @Value("${replay.target-match-id:}")
+    private Long targetMatchId;
+
+    @Value("${replay.speed:1.0}")
+    private double speed;
+
+    @Value("${replay.hold-and-confirm:true}")
+    private boolean holdAndConfirm;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (sourceMatchId == null) {
+            log.error("❌ replay.source-match-id (REPLAY_SOURCE_MATCH_ID)가 필요합니다.");
+            return;
+        }
+        if (speed <= 0) {
+            log.error("❌ replay.speed는 0보다 커야 합니다: {}", speed);
+            return;
+        }
+        long matchId = targetMatchId != null ? targetMatchId : sourceMatchId;
+
+        List<Arrival> arrivals = userLogReader.readArrivals(sourceMatchId);
+        if (arrivals.isEmpty()) {
+            log.warn("⚠️ 재현할 진입 기록이 없습니다: matchId={}", sourceMatchId);
+            return;
+        }
+
+        // confirm 본문에 녹화된 통계를 그대로 보내기 위해 조회 (선점 / 확정을 재현할 때만)
+        Map<Long, UserStatsReader.RecordedConfirm> confirms = holdAndConfirm
+                ? userStatsReader.readConfirms(sourceMatchId)
+                : Map.of();
+
+        long recordedMs = arrivals.get(arrivals.size() - 1).offsetMs();
+        log.info("재현 시작: source={} target={} 인원={} 녹화 구간={}ms 배속={}x",
+                sourceMatchId, matchId, arrivals.size(), recordedMs, speed);
+
+        long started = System.currentTimeMillis();
+        LatencyRecorder recorder = replayDriver.replay(matchId, arrivals, confirms, speed);
+        long elapsed = System.currentTimeMillis() - started;
+
+        log.info("재현 완료: {}ms 소요", elapsed);
+        log.info(String.format("%-11s %8s %10s %10s %10s %10s  %s", "phase", "count", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)", "outcomes"));
+        for (LatencyRecorder.PhaseSummary s : recorder.summarize()) {
+            log.info(String.format("%-11s %8d %10.1f %10.1f %10.1f %10.1f  %s",
+                    s.phase(), s.count(), s.p50Ms(), s.p90Ms(), s.p99Ms(), s.maxMs(), s.outcomes()));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.tickget.replay;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * 녹화된 대기열 부하 재현 도구
+ *
+ * MongoDB user_log 에 쌓인 매치 하나의 도착 곡선을 그대로(또는 배속으로) 로컬 ticketing-server에 다시 보내고
+ * Enqueue / Hold / Confirm 지연 백분위를 출력한 뒤 종료한다.
+ *
+ * 실행 예: REPLAY_SOURCE_MATCH_ID=123 REPLAY_TARGET_MATCH_ID=7 REPLAY_SPEED=5 ./gradlew bootRun
+ */
+@SpringBootApplication
+public class ReplayToolApplication {
+
+    public static void main(String[] args) {
+        System.exit(SpringApplication.exit(SpringApplication.run(ReplayToolApplication.class, args)));
+    }
+}
@@ -0,0 +1,100 @@
+package com.tickget.replay;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * user_log 컬렉션에서 매치 하나의 도착 곡선을 읽는다.
+ *
+ * ticketing-server KakfaLogConsumer가 QueueLogDTO를 그대로 적재한 문서를 사용하며,
+ * 재진입(ALREADY_IN_QUEUE)은 제외하고 사용자별 첫 ENQUEUED만 시간순으로 반환한다.
+ * 봇 일괄 진입 로그(BULK_ENQUEUED)는 bots 배열을 문서 시각의 봇별 도착으로 펼친다. (배열 순서 = 진입 순서)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserLogReader {
+    private static final String COLLECTION = "user_log";
+    private static final String ENQUEUED = "ENQUEUED";
+    private static final String BULK_ENQUEUED = "BULK_ENQUEUED";
+
+    private final MongoTemplate mongoTemplate;
+
+    public List<Arrival> readArrivals(long matchId) {
+        Query query = Query.query(Criteria.where("matchId").is(matchId).and("status").in(ENQUEUED, BULK_ENQUEUED))
+                .with(Sort.by(Sort.Direction.ASC, "timeStamp"));
+        query.fields().include("status", "playerType", "playerId", "clickMiss", "duration", "timeStamp", "bots");
+
+        List<Document> docs = mongoTemplate.find(query, Document.class, COLLECTION);
+
+        List<Arrival> arrivals = new ArrayList<>(docs.size());
+        Set<Long> seen = new HashSet<>();
+        long firstAt = -1;
+        for (Document doc : docs) {
+            Date ts = doc.getDate("timeStamp");
+            if (ts == null) continue;
+            if (firstAt < 0) firstAt = ts.getTime();
+
+            if (BULK_ENQUEUED.equals(doc.getString("status"))) {
+                addBots(arrivals, seen, doc, ts.getTime() - firstAt);
+                continue;
+            }
+
+            String playerId = doc.getString("playerId");
+            if (playerId == null) continue;
+
+            long id;
+            try {
+                id = Long.parseLong(playerId);
+            } catch (NumberFormatException e) {
+                log.warn("⚠️ playerId 형식 오류, 건너뜀: {}", playerId);
+                continue;
+            }
+            if (!seen.add(id)) continue;
+
+            arrivals.add(new Arrival(
+                    ts.getTime() - firstAt,
+                    doc.getString("playerType"),
+                    id,
+                    number(doc.get("clickMiss")).intValue(),
+                    number(doc.get("duration")).floatValue()));
+        }
+
+        log.info("user_log 조회 완료: matchId={} 문서={} 재현 대상={}", matchId, docs.size(), arrivals.size());
+        return arrivals;
+    }
+
+    // 일괄 진입 문서 1건 → 봇별 도착 (같은 시각, 배열 순서 유지)
+    private static void addBots(List<Arrival> arrivals, Set<Long> seen, Document doc, long offsetMs) {
+        List<Document> bots = doc.getList("bots", Document.class);
+        if (bots == null) return;
+
+        for (Document bot : bots) {
+            Object botId = bot.get("botId");
+            if (!(botId instanceof Number id) || !seen.add(id.longValue())) continue;
+
+            arrivals.add(new Arrival(
+                    offsetMs,
+                    doc.getString("playerType"),
+                    id.longValue(),
+                    number(bot.get("clickMiss")).intValue(),
+                    number(bot.get("duration")).floatValue()));
+        }
+    }
+
+    private static Number number(Object value) {
+        return value instanceof Number n ? n : 0;
+    }
+}
@@ -0,0 +1,57 @@
+package com.tickget.replay;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * user_stats 테이블에서 녹화 매치의 confirm 통계를 읽는다.
+ *
+ * ticketing-server SeatConfirmationService가 confirm 요청 본문 그대로 저장한 값이므로,
+ * 재현 시 같은 값을 다시 보내면 재현 매치의 통계도 녹화 매치와 같은 분포가 된다.
+ * 녹화 매치에서 confirm 기록이 없는 사용자는 재현에서도 confirm 하지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserStatsReader {
+    private static final String QUERY = """
+            SELECT user_id, date_select_time, date_miss_count, seccode_select_time, seccode_backspace_count,
+                   seccode_try_count, seat_select_time, seat_select_try_count, seat_select_click_miss_count
+              FROM user_stats
+             WHERE match_id = ? AND is_success = TRUE
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Map<Long, RecordedConfirm> readConfirms(long matchId) {
+        Map<Long, RecordedConfirm> confirms = new HashMap<>();
+        jdbcTemplate.query(QUERY, rs -> {
+            // 사용자당 여러 건이면 첫 건만 사용
+            confirms.putIfAbsent(rs.getLong("user_id"), new RecordedConfirm(
+                    rs.getFloat("date_select_time"),
+                    rs.getInt("date_miss_count"),
+                    rs.getFloat("seccode_select_time"),
+                    rs.getInt("seccode_backspace_count"),
+                    rs.getInt("seccode_try_count"),
+                    rs.getFloat("seat_select_time"),
+                    rs.getInt("seat_select_try_count"),
+                    rs.getInt("seat_select_click_miss_count")));
+        }, matchId);
+
+        log.info("user_stats 조회 완료: matchId={} confirm 기록={}", matchId, confirms.size());
+        return confirms;
+    }
+
+    /**
+     * 녹화된 confirm 요청 통계 (SeatConfirmationRequest 필드와 같은 이름)
+     */
+    public record RecordedConfirm(float dateSelectTime, int dateMissCount,
+                                  float seccodeSelectTime, int seccodeBackspaceCount, int seccodeTryCount,
+                                  float seatSelectTime, int seatSelectTryCount, int seatSelectClickMissCount) {
+    }
+}
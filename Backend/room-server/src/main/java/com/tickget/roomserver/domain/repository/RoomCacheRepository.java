@@ -4,7 +4,6 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tickget.roomserver.dto.cache.DisconnectInfo;
 import com.tickget.roomserver.dto.cache.GlobalSessionInfo;
-import com.tickget.roomserver.dto.cache.QueueStatus;
 import com.tickget.roomserver.dto.cache.RoomInfoUpdate;
 import com.tickget.roomserver.dto.cache.RoomMember;
 import com.tickget.roomserver.dto.cache.RoomInfo;
@@ -13,15 +12,20 @@ import java.util.Collections;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.connection.RedisZSetCommands.ZAddArgs;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -402,31 +406,20 @@ public class RoomCacheRepository {
     }
 
 
-    //유저의 대기열 상태 조회
-    public QueueStatus getQueueStatus(Long matchId, Long userId) {
-        String queueKey = "queue:" + matchId + ":" + userId;
-
-        // Hash의 모든 필드 조회
-        Map<Object, Object> data = redisTemplate.opsForHash().entries(queueKey);
-
-        if (data.isEmpty()) {
-            return null;
+    // 웹소켓에 접속 중인 대기 사용자의 생존 신호 갱신 (대기열에 있는 사용자만: ZADD XX)
+    public void touchQueueHeartbeat(Long matchId, List<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
         }
 
-        try {
-            // Hash 데이터를 QueueStatus 객체로 변환
-            return QueueStatus.builder()
-                    .ahead(getLong(data, "ahead"))
-                    .behind(getLong(data, "behind"))
-                    .total(getLong(data, "total"))
-                    .lastUpdated(getLong(data, "lastUpdated"))
-                    .build();
+        byte[] key = ("queue:" + matchId + ":heartbeat").getBytes(StandardCharsets.UTF_8);
+        double now = System.currentTimeMillis();
+        Set<Tuple> tuples = userIds.stream()
+                .map(id -> Tuple.of(String.valueOf(id).getBytes(StandardCharsets.UTF_8), now))
+                .collect(Collectors.toSet());
 
-        } catch (Exception e) {
-            log.error("대기열 상태 변환 실패: matchId={}, userId={}, error={}",
-                    matchId, userId, e.getMessage());
-            return null;
-        }
+        redisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.zSetCommands().zAdd(key, tuples, ZAddArgs.ifExists()));
     }
 
     //재연결 정보 저장 (TTL 5초)
@@ -474,15 +467,4 @@ public class RoomCacheRepository {
 
 
 
-    private Long getLong(Map<Object, Object> data, String key) {
-        Object value = data.get(key);
-        if (value == null) return null;
-        try {
-            return Long.parseLong(value.toString());
-        } catch (NumberFormatException e) {
-            return null;
-        }
-    }
-
-
 }
@@ -14,5 +14,6 @@ public class QueueStatus {
     private Long behind;         // 뒤에 있는 사람 수
     private Long total;          // 전체 대기 인원
     private Long lastUpdated;    // 마지막 업데이트 시각
+    private Long etaSeconds;     // 예상 대기 시간(초), 소비 속도를 모르면 -1
 
 }
\ No newline at end of file
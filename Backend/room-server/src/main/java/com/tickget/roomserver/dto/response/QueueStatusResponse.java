@@ -0,0 +1,32 @@
+package com.tickget.roomserver.dto.response;
+
+import com.tickget.roomserver.dto.cache.QueueStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// ticketing-server 대기열 상태 일괄 조회 응답 (POST /ticketing/queue/{matchId}/statuses 의 원소)
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueStatusResponse {
+    private Long userId;
+    private String status;
+    private long positionAhead;
+    private long positionBehind;
+    private long totalNum;
+    private long etaSeconds;
+    private long lastUpdated;
+
+    public QueueStatus toQueueStatus() {
+        return QueueStatus.builder()
+                .ahead(positionAhead)
+                .behind(positionBehind)
+                .total(totalNum)
+                .lastUpdated(lastUpdated)
+                .etaSeconds(etaSeconds)
+                .build();
+    }
+}
@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Getter
 @Builder
 @NoArgsConstructor
@@ -15,6 +17,9 @@ public class UserDequeuedEvent {
     private Long roomId;
     private Long matchId;
 
+    // 매치 단위 배치 이벤트인 경우 빠져나간 유저 목록
+    private List<Long> userIds;
+
     @JsonProperty("ts")
     private Long timestamp;
 
@@ -26,4 +31,19 @@ public class UserDequeuedEvent {
                 .timestamp(System.currentTimeMillis())
                 .build();
     }
+
+    // 배치 이벤트를 유저 단위 이벤트로 분리
+    public List<UserDequeuedEvent> split() {
+        if (userIds == null || userIds.isEmpty()) {
+            return List.of(this);
+        }
+        return userIds.stream()
+                .map(id -> UserDequeuedEvent.builder()
+                        .userId(id)
+                        .roomId(roomId)
+                        .matchId(matchId)
+                        .timestamp(timestamp)
+                        .build())
+                .toList();
+    }
 }
\ No newline at end of file
@@ -79,6 +79,9 @@ public class RoomEventConsumer {
             topics = USER_DEQUEUED_TOPIC,
             containerFactory = "noTypeHeadersKafkaListenerContainerFactory")
     public void handleUserDequeuedEvent(UserDequeuedEvent event) {
-        roomEventHandler.processUserDequeued(event);
+        // 매치 단위 배치 이벤트는 유저별로 분리해서 처리
+        for (UserDequeuedEvent userEvent : event.split()) {
+            roomEventHandler.processUserDequeued(userEvent);
+        }
     }
 }
@@ -12,7 +12,6 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PreDestroy;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -27,7 +26,7 @@ import java.util.concurrent.TimeUnit;
  * 동작 방식:
  * 1. Redis에서 방의 전체 멤버 조회 (모든 서버의 유저 포함)
  * 2. 이 서버에 연결된 유저만 필터링 (hasSession 체크)
- * 3. 해당 유저들의 QueueStatus를 Redis에서 조회
+ * 3. 해당 유저들의 QueueStatus를 ticketing-server에서 일괄 조회 (순번 계산은 ticketing-server에서만 한다)
  * 4. 브로드캐스트
  */
 @Slf4j
@@ -37,6 +36,7 @@ public class RoomNotificationScheduler {
 
     private final WebSocketSessionManager sessionManager;
     private final RoomCacheRepository roomCacheRepository;
+    private final TicketingServiceClient ticketingServiceClient;
     private final SimpMessagingTemplate messagingTemplate;
 
     // roomId -> ScheduledFuture 매핑
@@ -107,25 +107,17 @@ public class RoomNotificationScheduler {
                 return;
             }
 
-            // 3. QueueStatus
-            Map<Long, QueueStatus> queueStatusMap = new HashMap<>();
-
-            for (RoomMember member : allMembers) {
-                Long userId = member.getUserId();
-
-                try {
-                    // Redis에서 해당 유저의 대기열 상태 조회
-                    QueueStatus queueStatus = roomCacheRepository.getQueueStatus(matchId, userId);
-
-                    if (queueStatus != null) {
-                        queueStatusMap.put(userId, queueStatus);
-                    }
-
-                } catch (Exception e) {
-                    log.error("유저별 대기열 상태 수집 중 오류: roomId={}, userId={}, error={}",
-                            roomId, userId, e.getMessage());
-                }
-            }
+            // 3. QueueStatus (ticketing-server에 멤버 전체를 한 번에 조회)
+            List<Long> userIds = allMembers.stream()
+                    .map(RoomMember::getUserId)
+                    .toList();
+            Map<Long, QueueStatus> queueStatusMap = ticketingServiceClient.getQueueStatuses(matchId, userIds);
+
+            // 이 서버에 웹소켓이 살아있는 대기 사용자는 생존 신호 갱신 (이탈 정리 대상에서 제외)
+            List<Long> connectedUserIds = queueStatusMap.keySet().stream()
+                    .filter(userId -> sessionManager.getByUserId(userId) != null)
+                    .toList();
+            roomCacheRepository.touchQueueHeartbeat(matchId, connectedUserIds);
 
             // 4. 수집된 대기열 정보가 있으면 브로드캐스트
             if (!queueStatusMap.isEmpty()) {
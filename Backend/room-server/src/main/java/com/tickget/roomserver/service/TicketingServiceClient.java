@@ -1,8 +1,10 @@
 package com.tickget.roomserver.service;
 
+import com.tickget.roomserver.dto.cache.QueueStatus;
 import com.tickget.roomserver.dto.request.CreateMatchRequest;
 import com.tickget.roomserver.dto.request.NotifyRoomLeftRequest;
 import com.tickget.roomserver.dto.response.MatchResponse;
+import com.tickget.roomserver.dto.response.QueueStatusResponse;
 import com.tickget.roomserver.exception.CreateMatchDeclinedException;
 import com.tickget.roomserver.exception.CreateMatchFailedException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -15,8 +17,13 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -45,6 +52,27 @@ public class TicketingServiceClient {
         }
     }
 
+    // 방 멤버들의 대기열 상태 일괄 조회 (순번 계산은 ticketing-server에서만 한다)
+    // 호출 실패 시 빈 Map: 이번 알림만 건너뛰고 다음 주기에 다시 조회
+    public Map<Long, QueueStatus> getQueueStatuses(Long matchId, List<Long> userIds) {
+        Map<Long, QueueStatus> result = new HashMap<>();
+        try {
+            QueueStatusResponse[] statuses = restTemplate.postForObject(
+                    ticketingServiceUrl + "/ticketing/queue/{matchId}/statuses",
+                    userIds,
+                    QueueStatusResponse[].class,
+                    matchId
+            );
+            if (statuses != null) {
+                for (QueueStatusResponse status : statuses) {
+                    result.put(status.getUserId(), status.toQueueStatus());
+                }
+            }
+        } catch (RestClientException e) {
+            log.warn("대기열 상태 조회 실패: matchId={}, error={}", matchId, e.getMessage());
+        }
+        return result;
+    }
 
     @CircuitBreaker(name ="ticketingService")
     @Retry(name="ticketingService", fallbackMethod = "createMatchFallBack")
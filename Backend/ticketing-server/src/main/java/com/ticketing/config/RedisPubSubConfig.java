@@ -0,0 +1,22 @@
+package com.ticketing.config;
+
+import com.ticketing.repository.MatchMetadataCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class RedisPubSubConfig {
+
+    // 매치 메타데이터 캐시 무효화 채널 구독
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       MatchMetadataCache matchMetadataCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(matchMetadataCache, new ChannelTopic(MatchMetadataCache.INVALIDATE_CHANNEL));
+        return container;
+    }
+}
@@ -1,6 +1,7 @@
 package com.ticketing.queue.DTO;
 
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.ticketing.queue.DTO.request.BotEnqueueItemDTO;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -8,6 +9,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.mongodb.core.mapping.Unwrapped;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Getter
@@ -32,6 +34,9 @@ public class QueueLogDTO {
     float duration;
     private LocalDateTime timeStamp;
 
+    // 봇 일괄 진입(BULK_ENQUEUED) 로그에만 사용: 실제로 들어간 봇 목록 (진입 순서)
+    private List<BotEnqueueItemDTO> bots;
+
     // 객체 생성 Builder
     public static QueueLogDTO of(String eventId, Long matchId, String playerType, String playerId, String status, long positionAhead, long positionBehind, Long totalNum, int clickMiss, float duration, LocalDateTime timeStamp){
         return QueueLogDTO.builder()
@@ -49,6 +54,20 @@ public class QueueLogDTO {
                 .build();
     }
 
+    // 봇 일괄 진입 로그 (playerId 없이 봇 목록을 그대로 남긴다)
+    public static QueueLogDTO ofBots(String eventId, Long matchId, String playerType, String status, long positionAhead, Long totalNum, List<BotEnqueueItemDTO> bots, LocalDateTime timeStamp){
+        return QueueLogDTO.builder()
+                .eventId(eventId)
+                .matchId(matchId)
+                .playerType(playerType)
+                .status(status)
+                .positionAhead(positionAhead)
+                .totalNum(totalNum)
+                .bots(bots)
+                .timeStamp(timeStamp)
+                .build();
+    }
+
     public void setEventId(String uuidString) {
         this.eventId = uuidString;
     }
@@ -0,0 +1,15 @@
+package com.ticketing.queue.DTO.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// 봇 일괄 진입 요청 (bot-server → ticketing-server)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BotBulkEnqueueRequestDTO {
+    private List<BotEnqueueItemDTO> bots;
+}
@@ -0,0 +1,15 @@
+package com.ticketing.queue.DTO.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 봇 일괄 진입 요청의 봇 1명
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BotEnqueueItemDTO {
+    private Long botId;      // 음수
+    private int clickMiss;
+    private float duration;
+}
@@ -0,0 +1,16 @@
+package com.ticketing.queue.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 봇 일괄 진입 결과
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BotBulkEnqueueResponseDTO {
+    private Long matchId;
+    private int requested;   // 요청된 봇 수 (중복/양수 ID 제외 전)
+    private long added;      // 새로 대기열에 들어간 봇 수
+    private long total;      // 진입 후 전체 대기 인원 (사람 + 봇)
+}
@@ -0,0 +1,30 @@
+package com.ticketing.queue.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 대기열 상태 조회 응답 (예상 대기 시간 포함)
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueStatusResponseDTO {
+    private Long matchId;
+    private Long userId;
+    private String status;
+    private long positionAhead;
+    private long positionBehind;
+    private long totalNum;
+    // 초당 소비 인원 (EWMA)
+    private double throughput;
+    // 예상 대기 시간(초), 소비 속도를 아직 모르면 -1
+    private long etaSeconds;
+    // 다음 상태 조회까지 권장 대기 시간(ms)
+    private long pollAfterMs;
+    // 대기열 진행 카운터 (사람 + 봇 누적 소비 인원 + 이탈 정리 버전). long-poll 조회 시 lastOffset으로 다시 보냄
+    private long offset;
+    // 순번 기준 시각 (SWEEP 모드는 순번을 기록한 시각, DERIVED 모드는 조회 시각)
+    private long lastUpdated;
+}
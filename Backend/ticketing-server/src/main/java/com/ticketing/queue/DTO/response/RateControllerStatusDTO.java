@@ -0,0 +1,20 @@
+package com.ticketing.queue.DTO.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 매치별 대기열 소비량 제어기의 마지막 판단 결과
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RateControllerStatusDTO {
+    private Long matchId;
+    private int perTick;
+    private String reason;
+    private long holdAttempts;
+    private double holdSuccessRate;
+    private long confirmLatencyMs;
+    private long backendLatencyMs;
+    private long updatedAt;
+}
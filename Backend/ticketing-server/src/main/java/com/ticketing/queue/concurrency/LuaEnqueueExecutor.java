@@ -0,0 +1,251 @@
+package com.ticketing.queue.concurrency;
+
+import com.ticketing.queue.domain.enums.QueueKeys;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 대기열 진입(enqueue)을 Lua 스크립트 1회 호출로 처리하는 실행기
+ * Redis 키:
+ *   - queue:{matchId}:seq      (시퀀스, 사람/봇 공유)
+ *   - queue:{matchId}:waiting  (사람 대기열 ZSET, score = seq)
+ *   - queue:{matchId}:bots     (봇 대기열 ZSET, score = seq)
+ *   - queue:{matchId}:states   (사용자 상태 Hash, field = userId, 실제 유저만)
+ *   - queue:{matchId}:offset / bot-offset / total
+ *   - queue:{matchId}:pruned    (이탈 처리된 사용자 ZSET, score = seq)
+ *   - queue:{matchId}:heartbeat (사용자 마지막 생존 신호 ZSET, score = 시각)
+ *   - queue:active             (활성 매치 목록)
+ *
+ * 사람의 순번은 두 레인을 산술로 합쳐 계산한다.
+ *   ahead = max(0, rawRank - (offset - joinOffset) - (내 앞 pruned 수 - prunedAtJoin))
+ *         + max(0, botRank - (botOffset - botJoinOffset))
+ *
+ * 스크립트는 SHA1이 한 번만 계산되고 EVALSHA로 실행된다. (NOSCRIPT 시에만 EVAL로 재전송)
+ *
+ * 반환값: [added(1/0), rank(두 레인 합산), total(두 레인 합산)]
+ *
+ * 봇 일괄 진입(enqueueBots)은 별도 스크립트로 N명을 한 번에 봇 레인에 넣는다. 반환값: [added(새로 들어간 수), total, 새로 들어간 봇 ID(진입 순서)]
+ */
+@Component
+@RequiredArgsConstructor
+public class LuaEnqueueExecutor {
+
+    private final StringRedisTemplate redisTemplate;
+
+    private static final int MATCH_EXPIRE_SECONDS = 30 * 60; // 30분
+    private static final int USER_STATE_EXPIRE_SECONDS = 1800;
+
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> enqueueLuaScript = new DefaultRedisScript<>(
+            """
+                    local userId = ARGV[1]
+                    local isHuman = ARGV[3] == '1'
+                    
+                    -- KEYS[1]: seq, KEYS[2]: waiting, KEYS[3]: 매치 상태 Hash
+                    -- KEYS[4]: offset, KEYS[5]: total, KEYS[6]: 활성 매치 목록
+                    -- KEYS[7]: 봇 대기열, KEYS[8]: bot-offset
+                    -- KEYS[9]: pruned, KEYS[10]: heartbeat
+                    
+                    -- 사람은 waiting, 봇은 bots 레인에 넣는다.
+                    local lane = KEYS[2]
+                    local other = KEYS[7]
+                    if not isHuman then
+                        lane = KEYS[7]
+                        other = KEYS[2]
+                    end
+                    
+                    -- ZADD NX: 이미 대기 중이면 재정렬하지 않고 시퀀스도 소모하지 않음
+                    local added = 0
+                    local seq = redis.call('ZSCORE', lane, userId)
+                    if not seq then
+                        seq = redis.call('INCR', KEYS[1])
+                        redis.call('ZADD', lane, 'NX', seq, userId)
+                        added = 1
+                    end
+                    
+                    local rank = redis.call('ZRANK', lane, userId)
+                    -- 다른 레인에서 나보다 먼저 들어온 인원
+                    local otherAhead = redis.call('ZCOUNT', other, '-inf', '(' .. seq)
+                    local total = redis.call('ZCARD', KEYS[2]) + redis.call('ZCARD', KEYS[7])
+                    redis.call('SADD', KEYS[6], ARGV[5])
+                    
+                    -- 실제 유저만 상태 Hash 저장 (봇은 ZSET에만 넣음)
+                    if isHuman then
+                        local state = ARGV[8]
+                        if added == 1 then
+                            state = ARGV[7]
+                        end
+                        local joinOffset = redis.call('GET', KEYS[4]) or '0'
+                        local botJoinOffset = redis.call('GET', KEYS[8]) or '0'
+                        -- 진입 시점에 이미 이탈 처리된 내 앞 사용자 수 (rawRank에 포함되지 않음)
+                        local prunedAtJoin = redis.call('ZCOUNT', KEYS[9], '-inf', '(' .. seq)
+                    
+                        -- state|joinedAt|rawRank|joinOffset|botRank|botJoinOffset|seq|prunedAtJoin
+                        redis.call('HSET', KEYS[3], userId,
+                                state .. '|' .. ARGV[2] .. '|' .. rank .. '|' .. joinOffset
+                                        .. '|' .. otherAhead .. '|' .. botJoinOffset
+                                        .. '|' .. seq .. '|' .. prunedAtJoin)
+                        redis.call('EXPIRE', KEYS[3], tonumber(ARGV[9]))
+                        redis.call('ZADD', KEYS[10], ARGV[2], userId)
+                    end
+                    
+                    -- matchId 내 roomOffset, sequence, total 관련 TTL
+                    local ttl = tonumber(ARGV[6])
+                    redis.call('EXPIRE', KEYS[1], ttl)
+                    redis.call('EXPIRE', KEYS[4], ttl)
+                    redis.call('EXPIRE', KEYS[5], ttl)
+                    redis.call('EXPIRE', KEYS[8], ttl)
+                    
+                    return {added, rank + otherAhead, total}
+                    """,
+            List.class
+    );
+
+    // 봇 일괄 진입: 이미 대기 중인 봇은 건너뛰고, 새 봇 수만큼 seq를 한 번에 할당해 ZADD 1회로 넣는다.
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> bulkBotEnqueueLuaScript = new DefaultRedisScript<>(
+            """
+                    -- KEYS[1]: seq, KEYS[2]: 봇 대기열, KEYS[3]: waiting, KEYS[4]: offset
+                    -- KEYS[5]: total, KEYS[6]: 활성 매치 목록, KEYS[7]: bot-offset
+                    -- ARGV[1]: matchId, ARGV[2]: ttl, ARGV[3..]: botId
+                    local fresh = {}
+                    for i = 3, #ARGV do
+                        if not redis.call('ZSCORE', KEYS[2], ARGV[i]) then
+                            fresh[#fresh + 1] = ARGV[i]
+                        end
+                    end
+                    
+                    local n = #fresh
+                    if n > 0 then
+                        local last = redis.call('INCRBY', KEYS[1], n)
+                        local first = last - n + 1
+                        local args = {}
+                        for i = 1, n do
+                            args[#args + 1] = first + i - 1
+                            args[#args + 1] = fresh[i]
+                        end
+                        redis.call('ZADD', KEYS[2], 'NX', unpack(args))
+                    end
+                    
+                    local total = redis.call('ZCARD', KEYS[3]) + redis.call('ZCARD', KEYS[2])
+                    redis.call('SADD', KEYS[6], ARGV[1])
+                    
+                    local ttl = tonumber(ARGV[2])
+                    redis.call('EXPIRE', KEYS[1], ttl)
+                    redis.call('EXPIRE', KEYS[4], ttl)
+                    redis.call('EXPIRE', KEYS[5], ttl)
+                    redis.call('EXPIRE', KEYS[7], ttl)
+                    
+                    return {n, total, fresh}
+                    """,
+            List.class
+    );
+
+    /**
+     * 대기열 진입 처리
+     *
+     * @param matchId        경기 ID
+     * @param userId         사용자 ID (봇은 음수)
+     * @param playerType     "user" / "robot"
+     * @param now            진입 시각 (ms)
+     * @param enqueuedState  새로 들어온 경우 상태 값
+     * @param alreadyState   이미 대기 중인 경우 상태 값
+     * @return 진입 결과 (신규 여부, 앞 사람 수, 전체 인원)
+     */
+    public EnqueueResult enqueue(Long matchId,
+                                 Long userId,
+                                 String playerType,
+                                 long now,
+                                 String enqueuedState,
+                                 String alreadyState) {
+
+        List<String> keys = List.of(
+                QueueKeys.sequence(matchId),
+                QueueKeys.waitingZSet(matchId),
+                QueueKeys.userStates(matchId),
+                QueueKeys.roomOffset(matchId),
+                QueueKeys.roomTotal(matchId),
+                QueueKeys.activeMatches(),
+                QueueKeys.botZSet(matchId),
+                QueueKeys.botOffset(matchId),
+                QueueKeys.pruned(matchId),
+                QueueKeys.heartbeat(matchId)
+        );
+
+        // ARGV: [userId, now, isHuman, playerType, matchId, matchTtl, enqueuedState, alreadyState, stateTtl]
+        List<?> result = redisTemplate.execute(
+                enqueueLuaScript,
+                keys,
+                String.valueOf(userId),                    // ARGV[1]
+                String.valueOf(now),                       // ARGV[2]
+                userId > 0 ? "1" : "0",                    // ARGV[3]
+                playerType,                                // ARGV[4]
+                String.valueOf(matchId),                   // ARGV[5]
+                String.valueOf(MATCH_EXPIRE_SECONDS),      // ARGV[6]
+                enqueuedState,                             // ARGV[7]
+                alreadyState,                              // ARGV[8]
+                String.valueOf(USER_STATE_EXPIRE_SECONDS)  // ARGV[9]
+        );
+
+        if (result == null || result.size() < 3) {
+            return new EnqueueResult(false, -1L, 0L);
+        }
+
+        return new EnqueueResult(
+                toLong(result.get(0)) == 1L,
+                toLong(result.get(1)),
+                toLong(result.get(2))
+        );
+    }
+
+    /**
+     * 봇 일괄 진입 (스크립트 1회 호출)
+     *
+     * @param botIds 중복 없는 봇 ID 목록 (음수), 호출자가 배치 크기를 제한한다.
+     * @return 새로 들어간 봇 수, 전체 인원, 새로 들어간 봇 ID (진입 순서, 이미 대기 중이던 봇 제외)
+     */
+    public BulkEnqueueResult enqueueBots(Long matchId, List<Long> botIds) {
+        List<String> keys = List.of(
+                QueueKeys.sequence(matchId),
+                QueueKeys.botZSet(matchId),
+                QueueKeys.waitingZSet(matchId),
+                QueueKeys.roomOffset(matchId),
+                QueueKeys.roomTotal(matchId),
+                QueueKeys.activeMatches(),
+                QueueKeys.botOffset(matchId)
+        );
+
+        Object[] args = new Object[botIds.size() + 2];
+        args[0] = String.valueOf(matchId);
+        args[1] = String.valueOf(MATCH_EXPIRE_SECONDS);
+        for (int i = 0; i < botIds.size(); i++) {
+            args[i + 2] = String.valueOf(botIds.get(i));
+        }
+
+        List<?> result = redisTemplate.execute(bulkBotEnqueueLuaScript, keys, args);
+        if (result == null || result.size() < 2) {
+            return new BulkEnqueueResult(0L, 0L, List.of());
+        }
+
+        List<Long> addedIds = new ArrayList<>();
+        if (result.size() > 2 && result.get(2) instanceof List<?> fresh) {
+            for (Object id : fresh) {
+                addedIds.add(Long.parseLong(id.toString()));
+            }
+        }
+        return new BulkEnqueueResult(toLong(result.get(0)), toLong(result.get(1)), addedIds);
+    }
+
+    private long toLong(Object value) {
+        return (value instanceof Number n) ? n.longValue() : -1L;
+    }
+
+    public record EnqueueResult(boolean added, long rank, long total) {}
+
+    public record BulkEnqueueResult(long added, long total, List<Long> addedIds) {}
+}
@@ -0,0 +1,142 @@
+package com.ticketing.queue.concurrency;
+
+import com.ticketing.queue.domain.enums.QueueKeys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 대기열 진입 요청 제한 (사용자별 / IP별 토큰 버킷)
+ * Redis 키:
+ *   - queue:{matchId}:rl:user:{userId}  (사용자 버킷 Hash: tokens, ts)
+ *   - queue:{matchId}:rl:ip:{ip}        (IP 버킷 Hash: tokens, ts)
+ *   - queue:{matchId}:rate-limit        (매치별 설정 Hash, 없으면 기본값)
+ *       userCapacity / userRefillPerSec / ipCapacity / ipRefillPerSec
+ *       (숫자가 아니거나 0 이하인 값은 무시하고 기본값 사용: PEXPIRE / 재시도 시간 계산이 0으로 나누지 않도록)
+ *
+ * 두 버킷을 Lua 스크립트 1회로 확인하고, 둘 다 통과할 때만 토큰을 차감한다.
+ * 반환값: [결과(1: 허용, 0: 사용자 초과, -1: IP 초과), 재시도까지 남은 ms]
+ */
+@Component
+public class LuaEnqueueRateLimiter {
+
+    private final StringRedisTemplate redisTemplate;
+    private final double userCapacity;
+    private final double userRefillPerSec;
+    private final double ipCapacity;
+    private final double ipRefillPerSec;
+
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> rateLimitScript = new DefaultRedisScript<>(
+            """
+                    local now = tonumber(ARGV[1])
+                    
+                    -- KEYS[1]: 사용자 버킷, KEYS[2]: IP 버킷, KEYS[3]: 매치별 설정
+                    local function conf(field, default)
+                        local v = tonumber(redis.call('HGET', KEYS[3], field))
+                        -- nil / NaN / 0 이하 → 기본값
+                        if v and v == v and v > 0 then return v end
+                        return tonumber(default)
+                    end
+                    
+                    -- 경과 시간만큼 토큰 보충
+                    local function refill(key, capacity, rate)
+                        local b = redis.call('HMGET', key, 'tokens', 'ts')
+                        local tokens = tonumber(b[1]) or capacity
+                        local ts = tonumber(b[2]) or now
+                        return math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+                    end
+                    
+                    local function save(key, tokens, capacity, rate)
+                        redis.call('HSET', key, 'tokens', tokens, 'ts', now)
+                        redis.call('PEXPIRE', key, math.ceil(capacity / rate * 1000) + 1000)
+                    end
+                    
+                    local userCap = conf('userCapacity', ARGV[2])
+                    local userRate = conf('userRefillPerSec', ARGV[3])
+                    local ipCap = conf('ipCapacity', ARGV[4])
+                    local ipRate = conf('ipRefillPerSec', ARGV[5])
+                    
+                    local userTokens = refill(KEYS[1], userCap, userRate)
+                    if userTokens < 1 then
+                        save(KEYS[1], userTokens, userCap, userRate)
+                        return {0, math.ceil((1 - userTokens) / userRate * 1000)}
+                    end
+                    
+                    local ipTokens = ipCap
+                    if KEYS[2] ~= KEYS[1] then
+                        ipTokens = refill(KEYS[2], ipCap, ipRate)
+                        if ipTokens < 1 then
+                            save(KEYS[2], ipTokens, ipCap, ipRate)
+                            return {-1, math.ceil((1 - ipTokens) / ipRate * 1000)}
+                        end
+                        save(KEYS[2], ipTokens - 1, ipCap, ipRate)
+                    end
+                    
+                    save(KEYS[1], userTokens - 1, userCap, userRate)
+                    return {1, 0}
+                    """,
+            List.class
+    );
+
+    public LuaEnqueueRateLimiter(StringRedisTemplate redisTemplate,
+                                 @Value("${queue.rate-limit.user-capacity:3}") double userCapacity,
+                                 @Value("${queue.rate-limit.user-refill-per-sec:0.5}") double userRefillPerSec,
+                                 @Value("${queue.rate-limit.ip-capacity:30}") double ipCapacity,
+                                 @Value("${queue.rate-limit.ip-refill-per-sec:10}") double ipRefillPerSec) {
+        if (userCapacity <= 0 || userRefillPerSec <= 0 || ipCapacity <= 0 || ipRefillPerSec <= 0) {
+            throw new IllegalArgumentException("queue.rate-limit 용량 / 보충 속도는 0보다 커야 합니다.");
+        }
+        this.redisTemplate = redisTemplate;
+        this.userCapacity = userCapacity;
+        this.userRefillPerSec = userRefillPerSec;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerSec = ipRefillPerSec;
+    }
+
+    /**
+     * 대기열 진입 요청 토큰 차감
+     *
+     * @param matchId  경기 ID
+     * @param userId   사용자 ID
+     * @param clientIp 요청 IP (없으면 사용자 버킷만 확인)
+     * @return 판정 결과
+     */
+    public RateLimitResult tryAcquire(Long matchId, Long userId, String clientIp) {
+        String userKey = QueueKeys.userRateLimit(matchId, userId);
+        String ipKey = (clientIp == null || clientIp.isBlank()) ? userKey : QueueKeys.ipRateLimit(matchId, clientIp);
+
+        List<?> result = redisTemplate.execute(
+                rateLimitScript,
+                List.of(userKey, ipKey, QueueKeys.rateLimitConfig(matchId)),
+                String.valueOf(System.currentTimeMillis()),  // ARGV[1]
+                String.valueOf(userCapacity),                // ARGV[2]
+                String.valueOf(userRefillPerSec),            // ARGV[3]
+                String.valueOf(ipCapacity),                  // ARGV[4]
+                String.valueOf(ipRefillPerSec)               // ARGV[5]
+        );
+
+        // Redis 응답이 없으면 진입은 막지 않는다.
+        if (result == null || result.size() < 2) {
+            return new RateLimitResult(1L, 0L);
+        }
+        return new RateLimitResult(toLong(result.get(0)), toLong(result.get(1)));
+    }
+
+    private long toLong(Object value) {
+        return (value instanceof Number n) ? n.longValue() : 0L;
+    }
+
+    public record RateLimitResult(long code, long retryAfterMs) {
+        public boolean allowed() {
+            return code == 1L;
+        }
+
+        public String limitedBy() {
+            return code == -1L ? "ip" : "user";
+        }
+    }
+}
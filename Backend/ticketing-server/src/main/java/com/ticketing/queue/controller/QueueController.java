@@ -2,11 +2,14 @@ package com.ticketing.queue.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.ticketing.queue.DTO.*;
+import com.ticketing.queue.DTO.request.BotBulkEnqueueRequestDTO;
 import com.ticketing.queue.DTO.request.MatchRequestDTO;
 import com.ticketing.queue.DTO.response.MatchIdResponseDTO;
 import com.ticketing.queue.DTO.response.MatchResponseDTO;
+import com.ticketing.queue.service.DequeueRateController;
 import com.ticketing.queue.service.QueueLogProducerKafka;
 import com.ticketing.queue.service.QueueService;
+import com.ticketing.queue.service.QueueStatusLongPoller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -17,6 +20,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.*;
 import java.util.concurrent.ExecutionException;
@@ -32,6 +36,12 @@ public class QueueController {
     @Autowired
     QueueService service;
 
+    @Autowired
+    DequeueRateController rateController;
+
+    @Autowired
+    QueueStatusLongPoller statusLongPoller;
+
     @GetMapping("/test")
     public String testController(){
         return "Testing API";
@@ -66,10 +76,51 @@ public class QueueController {
     @PostMapping("/queue/{matchId}")
     public ResponseEntity<?> enterQueue(@PathVariable Long matchId, HttpServletRequest request, @RequestBody QueueUserInfoDTO dto) throws ExecutionException, InterruptedException {
         Long userId = Long.valueOf(request.getHeader("X-User-Id"));
-        QueueDTO result = service.enqueue(matchId, userId, dto);
+        QueueDTO result = service.enqueue(matchId, userId, dto, clientIp(request));
         return ResponseEntity.ok(result);
     }
 
+    // 봇 일괄 Enqueue API (bot-server 전용)
+    @PostMapping("/queue/{matchId}/bots")
+    public ResponseEntity<?> enterQueueBots(@PathVariable Long matchId, @RequestBody BotBulkEnqueueRequestDTO dto) {
+        return ResponseEntity.ok(service.enqueueBots(matchId, dto));
+    }
+
+    // 요청 IP: server.forward-headers-strategy=native 이면 Tomcat RemoteIpValve가
+    // 신뢰하는 프록시(server.tomcat.remoteip.internal-proxies)를 오른쪽부터 건너뛴 첫 주소로 remoteAddr를 바꿔 둔다.
+    // X-Forwarded-For를 직접 읽지 않는다 (맨 왼쪽 값은 클라이언트가 임의로 넣을 수 있음).
+    private String clientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    // 사용자 대기열 상태 + 예상 대기 시간 조회
+    @GetMapping("/queue/{matchId}/status")
+    public ResponseEntity<?> getQueueStatus(@PathVariable Long matchId, HttpServletRequest request) {
+        Long userId = Long.valueOf(request.getHeader("X-User-Id"));
+        return ResponseEntity.ok(service.getQueueStatus(matchId, userId));
+    }
+
+    // 방 멤버들의 대기열 상태 일괄 조회 (room-server 방 알림용, 순번 계산은 이 서버에서만 한다)
+    @PostMapping("/queue/{matchId}/statuses")
+    public ResponseEntity<?> getQueueStatuses(@PathVariable Long matchId, @RequestBody List<Long> userIds) {
+        return ResponseEntity.ok(service.getQueueStatuses(matchId, userIds));
+    }
+
+    // 대기열 상태 long-poll: 순번이 움직일 때(소비 또는 이탈 정리로 offset != lastOffset)까지 응답을 보류, 변화 없이 timeout이면 304
+    @GetMapping("/queue/{matchId}/status/poll")
+    public DeferredResult<ResponseEntity<?>> pollQueueStatus(@PathVariable Long matchId,
+                                                             @RequestParam(required = false) Long lastOffset,
+                                                             @RequestParam(required = false) Long timeoutMs,
+                                                             HttpServletRequest request) {
+        Long userId = Long.valueOf(request.getHeader("X-User-Id"));
+        return statusLongPoller.poll(matchId, userId, lastOffset, timeoutMs);
+    }
+
+    // 매치별 대기열 소비량 제어기 판단 결과 조회
+    @GetMapping("/queue/rate-controller")
+    public ResponseEntity<?> getRateControllerStatus(){
+        return ResponseEntity.ok(rateController.decisions());
+    }
 
     @PostMapping("/matches")
     @Operation(
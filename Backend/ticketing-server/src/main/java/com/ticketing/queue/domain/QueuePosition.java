@@ -0,0 +1,67 @@
+package com.ticketing.queue.domain;
+
+/**
+ * 대기열 순번 계산 (DERIVED 모드)
+ *
+ * 상태 값: state|joinedAt|rawRank|joinOffset|botRank|botJoinOffset|seq|prunedAtJoin 또는 DEQUEUED|dequeuedAt
+ *
+ * ahead  = max(0, rawRank - (offset - joinOffset) - 진입 이후 내 앞 이탈 인원) + max(0, botRank - (botOffset - botJoinOffset))
+ *          진입 이후 내 앞 이탈 인원 = max(0, prunedBefore - prunedAtJoin)
+ *          prunedBefore = 현재 pruned ZSET에서 score < seq 인 인원 (ZCOUNT pruned -inf seq-1)
+ * behind = max(0, total - 1 - ahead)
+ * ETA    = ceil(ahead / 초당 소비 인원), 소비 속도를 모르면 -1
+ *
+ * 순번 계산은 이 클래스에만 있다. room-server는 QueueService.getQueueStatuses
+ * (POST /ticketing/queue/{matchId}/statuses)로 계산된 순번을 받아 방에 알린다.
+ */
+public final class QueuePosition {
+
+    public static final String DEQUEUED = "DEQUEUED";
+
+    private QueuePosition() {}
+
+    public static String[] parse(String value) {
+        return value.split("\\|");
+    }
+
+    public static boolean isDequeued(String[] state) {
+        return DEQUEUED.equals(state[0]);
+    }
+
+    // 이탈 보정에 쓰는 seq (이탈 정리 도입 이전 형식이면 -1)
+    public static long seq(String[] state) {
+        return state.length > 7 ? parseOrZero(state[6]) : -1L;
+    }
+
+    public static long ahead(String[] state, long offset, long botOffset, long prunedBefore) {
+        if (isDequeued(state) || state.length < 6) return 0L;
+
+        long prunedAhead = state.length > 7 ? Math.max(0L, prunedBefore - parseOrZero(state[7])) : 0L;
+        return Math.max(0L, laneAhead(state[2], state[3], offset) - prunedAhead)
+                + laneAhead(state[4], state[5], botOffset);
+    }
+
+    public static long behind(long total, long ahead) {
+        return Math.max(0L, total - 1 - ahead);
+    }
+
+    public static long etaSeconds(long ahead, double throughput) {
+        if (ahead == 0) return 0L;
+        if (throughput <= 0) return -1L;
+        return (long) Math.ceil(ahead / throughput);
+    }
+
+    // 진입 시점 순번 - 그 이후 해당 레인에서 빠져나간 인원
+    private static long laneAhead(String rank, String joinOffset, long offset) {
+        return Math.max(0L, parseOrZero(rank) - (offset - parseOrZero(joinOffset)));
+    }
+
+    public static long parseOrZero(String value) {
+        if (value == null) return 0L;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
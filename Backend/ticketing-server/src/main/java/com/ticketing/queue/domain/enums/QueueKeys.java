@@ -7,13 +7,94 @@ public class QueueKeys {
 
     // 들어온 순서 업데이트 저장을 위한 키 변수
     private static final String SEQ_KEY = "queue:seq";
+    // 대기열이 살아있는 matchId 목록 (스케줄러 순회용)
+    public static String activeMatches(){
+        return "queue:active";
+    }
+
+    // 대기열 소비 노드 heartbeat ZSET (score = 마지막 heartbeat 시각)
+    public static String nodes(){
+        return "queue:nodes";
+    }
+
+    // 매치별 대기열 소유 노드 (lease)
+    public static String owner(Long matchId){
+        return "queue:%s:owner".formatted(matchId);
+    }
+
     public static String waitingZSet(Long matchId){
         return "queue:%s:waiting".formatted(matchId);
     }
 
-    // 방별 사용자 상태 키 변수
-    public static String userStateKey(Long matchId, String userId){
-        return "queue:%s:%s".formatted(matchId, userId);
+    // 봇 전용 대기열 ZSET (score = seq, 사람 대기열과 같은 시퀀스 공유)
+    public static String botZSet(Long matchId){
+        return "queue:%s:bots".formatted(matchId);
+    }
+
+    // 봇 대기열에서 빠진 봇 수 누적
+    public static String botOffset(Long matchId){
+        return "queue:%s:bot-offset".formatted(matchId);
+    }
+
+    // 매치별 사용자 상태 Hash (field = userId, value = 압축된 상태 값)
+    //   대기 중: "state|joinedAt|rawRank|joinOffset|botRank|botJoinOffset|seq|prunedAtJoin"
+    //   빠져나감: "DEQUEUED|dequeuedAt"
+    public static String userStates(Long matchId){
+        return "queue:%s:states".formatted(matchId);
+    }
+
+    // 대기 중 사용자의 마지막 생존 신호 (score = 시각). 상태 조회 / room-server 접속 확인 시 갱신
+    public static String heartbeat(Long matchId){
+        return "queue:%s:heartbeat".formatted(matchId);
+    }
+
+    // 생존 신호가 끊겨 대기열에서 제거된 사용자 (score = seq). 순번 계산 보정용
+    public static String pruned(Long matchId){
+        return "queue:%s:pruned".formatted(matchId);
+    }
+
+    // 이탈 정리 버전 (정리할 때마다 INCR). 스냅샷 증분 / long-poll이 offset 외의 순번 변화를 감지하는 데 사용
+    public static String prunedVersion(Long matchId){
+        return "queue:%s:pruned-version".formatted(matchId);
+    }
+
+    // SWEEP 모드 순번 Hash (field = userId, value = "ahead|behind|total|lastUpdated")
+    public static String positions(Long matchId){
+        return "queue:%s:positions".formatted(matchId);
+    }
+
+    // 대기열에서 빠진 사용자의 DEQUEUED 커밋 대기 Stream (컨슈머 그룹으로 커밋)
+    public static String windowStream(Long matchId){
+        return "q:%s:window".formatted(matchId);
+    }
+
+    // 직전 커밋에서 DEQUEUED로 표시한 userId 집합 (다음 커밋에서 상태 Hash 필드 제거, 소유 노드가 바뀌어도 이어서 정리)
+    public static String dequeuedPending(Long matchId){
+        return "queue:%s:dequeued".formatted(matchId);
+    }
+
+    // 대기열 진입 요청 제한 토큰 버킷 (사용자별 / IP별)
+    public static String userRateLimit(Long matchId, Long userId){
+        return "queue:%s:rl:user:%s".formatted(matchId, userId);
+    }
+
+    public static String ipRateLimit(Long matchId, String ip){
+        return "queue:%s:rl:ip:%s".formatted(matchId, ip);
+    }
+
+    // 매치별 요청 제한 설정 Hash (없으면 기본값)
+    public static String rateLimitConfig(Long matchId){
+        return "queue:%s:rate-limit".formatted(matchId);
+    }
+
+    // 매치별 좌석 계층 신호 누적 Hash (모든 노드가 HINCRBY, 소유 노드가 읽고 비움)
+    public static String rateSignals(Long matchId){
+        return "queue:%s:rate-signals".formatted(matchId);
+    }
+
+    // 스냅샷 복구 중복 실행 방지 락 (Redis 유실 후 여러 노드가 동시에 복구하지 않도록)
+    public static String restoreLock(Long matchId){
+        return "queue:%s:restore-lock".formatted(matchId);
     }
 
     // 방별 순서 계산을 위한 시퀀스 변수
@@ -26,6 +107,11 @@ public class QueueKeys {
         return "queue:%s:offset".formatted(matchId);
     }
 
+    // 매치별 대기열 소비 속도 EWMA (초당 pop 수)
+    public static String rate(Long matchId){
+        return "queue:%s:rate".formatted(matchId);
+    }
+
     // 빠진 사람만큼 방 내 최대 인원 반영을 위한 변수
     public static String roomTotal(Long matchId){
         return "queue:%s:total".formatted(matchId);
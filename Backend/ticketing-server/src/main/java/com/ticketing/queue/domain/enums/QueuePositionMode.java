@@ -0,0 +1,9 @@
+package com.ticketing.queue.domain.enums;
+
+// 대기 순번(ahead/behind) 계산 방식
+public enum QueuePositionMode {
+    // 조회 시점에 rawRank - (offset - joinOffset)으로 계산 (주기적 쓰기 없음)
+    DERIVED,
+    // 2초마다 대기열 전체를 순회하며 사용자 Hash에 ahead/behind를 기록 (기존 방식)
+    SWEEP
+}
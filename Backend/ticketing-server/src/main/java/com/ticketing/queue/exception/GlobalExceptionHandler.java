@@ -2,6 +2,7 @@ package com.ticketing.queue.exception;
 
 import com.ticketing.queue.DTO.response.ErrorResponseDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.ErrorResponse;
@@ -28,6 +29,32 @@ public class GlobalExceptionHandler {
                 .body(response);
     }
 
+    // 대기열 진입 요청 제한 초과
+    @ExceptionHandler(QueueRateLimitedException.class)
+    public ResponseEntity<?> handleQueueRateLimitedException(QueueRateLimitedException e){
+        ErrorResponseDTO response = ErrorResponseDTO.of(
+                "QUEUE_RATE_LIMITED"
+                ,"대기열 진입 요청이 너무 많습니다. " + e.getMessage()
+        );
+
+        long retryAfterSeconds = Math.max(1L, (e.getRetryAfterMs() + 999) / 1000);
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response);
+    }
 
+    // 대기열 상태 없음 (대기열에 들어오지 않았거나 이미 만료됨)
+    @ExceptionHandler(QueueStatusNotFoundException.class)
+    public ResponseEntity<?> handleQueueStatusNotFoundException(QueueStatusNotFoundException e){
+        ErrorResponseDTO response = ErrorResponseDTO.of(
+                "QUEUE_STATUS_NOT_FOUND"
+                ,"대기열 정보가 없습니다. " + e.getMessage()
+        );
+
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(response);
+    }
 
 }
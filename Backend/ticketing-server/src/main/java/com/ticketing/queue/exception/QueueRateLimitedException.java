@@ -0,0 +1,13 @@
+package com.ticketing.queue.exception;
+
+import lombok.Getter;
+
+@Getter
+public class QueueRateLimitedException extends RuntimeException{
+    private final long retryAfterMs;
+
+    public QueueRateLimitedException(String limitedBy, long retryAfterMs){
+        super("limitedBy=" + limitedBy + ", retryAfterMs=" + retryAfterMs);
+        this.retryAfterMs = retryAfterMs;
+    }
+}
@@ -0,0 +1,7 @@
+package com.ticketing.queue.exception;
+
+public class QueueStatusNotFoundException extends RuntimeException{
+    public QueueStatusNotFoundException(Long matchId, Long userId){
+        super("matchId=" + matchId + ", userId=" + userId);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ticketing.queue.service;
+
+import com.ticketing.queue.domain.enums.QueueKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 대기열이 살아있는 매치 목록 관리
+ *
+ * 스케줄러(emitTick, commitWindow, updatePositions)는 KEYS 스캔 대신 이 목록만 순회한다.
+ * - 등록: QueueService.enqueue 시점
+ * - 해제: 경기 종료(FINISHED) 시점
+ * 틱 비용이 전체 키 개수가 아닌 진행 중인 대기열 수에만 비례하도록 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActiveMatchRegistry {
+    private final StringRedisTemplate redis;
+
+    // 대기열에 사용자가 들어온 매치를 등록한다.
+    public void register(Long matchId) {
+        redis.opsForSet().add(QueueKeys.activeMatches(), String.valueOf(matchId));
+    }
+
+    // 경기 종료 시 목록에서 제거한다.
+    public void unregister(Long matchId) {
+        Long removed = redis.opsForSet().remove(QueueKeys.activeMatches(), String.valueOf(matchId));
+        if (removed != null && removed > 0) {
+            log.info("활성 대기열 목록에서 제거: matchId={}", matchId);
+        }
+    }
+
+    // 현재 활성 상태인 matchId 목록
+    public Set<Long> activeMatchIds() {
+        Set<String> members = redis.opsForSet().members(QueueKeys.activeMatches());
+        Set<Long> matchIds = new HashSet<>();
+        if (members == null) return matchIds;
+
+        for (String member : members) {
+            try {
+                matchIds.add(Long.parseLong(member));
+            } catch (NumberFormatException e) {
+                log.warn("⚠️ 활성 대기열 목록에 잘못된 값이 있습니다. member={}", member);
+            }
+        }
+        return matchIds;
+    }
+}
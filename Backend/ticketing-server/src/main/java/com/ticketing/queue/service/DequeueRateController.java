@@ -0,0 +1,324 @@
+package com.ticketing.queue.service;
+
+import com.ticketing.queue.DTO.response.RateControllerStatusDTO;
+import com.ticketing.queue.domain.enums.QueueKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 매치별 대기열 소비량(틱당 pop 수) 피드백 제어기 (AIMD)
+ *
+ * 좌석 계층에서 들어오는 신호로 매 주기마다 매치별 소비량을 조정한다.
+ * - Hold 성공률이 목표보다 낮음 (좌석 경합 심함)     → 감소 (x decrease-factor)
+ * - Confirm 지연이 임계값 초과                       → 감소
+ * - Redis/DB 지연이 임계값 초과                      → 감소
+ * - Hold 시도가 min-hold-samples 미만 (표본 부족)    → 유지
+ * - 그 외                                            → 증가 (+ increase-step)
+ * 결과는 [min-per-tick, min(max-per-tick, consume-rate.per-second 기반 소비량)] 범위로 제한한다.
+ * (설정된 소비량이 상한이므로 좌석 계층이 한가해도 설정보다 빨리 빼지 않는다)
+ *
+ * 신호 집계
+ *   Hold / Confirm 요청은 어느 노드로든 들어오지만 소비량은 매치 소유 노드만 쓴다.
+ *   각 노드는 요청 경로에서 로컬 카운터만 올리고, adjust-ms 마다 queue:{matchId}:rate-signals Hash에
+ *   HINCRBY로 합친다 (파이프라인 1회). 소유 노드는 같은 주기에 Hash를 읽고 비워서 판단한다.
+ *
+ * enabled=false면 consume-rate.per-second 기반 고정 소비량을 그대로 사용한다.
+ */
+@Slf4j
+@Component
+public class DequeueRateController {
+
+    private static final String ATTEMPTS = "holdAttempts";
+    private static final String SUCCESSES = "holdSuccesses";
+    private static final String CONFIRM_COUNT = "confirmCount";
+    private static final String CONFIRM_SUM = "confirmLatencySum";
+    private static final String BACKEND_COUNT = "backendCount";
+    private static final String BACKEND_SUM = "backendLatencySum";
+    private static final long SIGNALS_TTL_MS = 60_000;
+
+    // 누적 신호를 읽고 비움 (두 소유 노드가 겹쳐도 표본을 두 번 쓰지 않음)
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> DRAIN_SCRIPT = new DefaultRedisScript<>(
+            """
+                    local values = redis.call('HGETALL', KEYS[1])
+                    redis.call('DEL', KEYS[1])
+                    return values
+                    """,
+            List.class
+    );
+
+    private final boolean enabled;
+    private final int minPerTick;
+    private final int maxPerTick;
+    private final double increaseStep;
+    private final double decreaseFactor;
+    private final double targetHoldSuccessRate;
+    private final long maxConfirmLatencyMs;
+    private final long maxBackendLatencyMs;
+    // 증가 / 성공률 판단에 필요한 최소 Hold 시도 수 (표본이 적으면 유지)
+    private final long minHoldSamples;
+
+    private final StringRedisTemplate redis;
+    private final ActiveMatchRegistry activeMatchRegistry;
+    private final QueueOwnershipManager queueOwnershipManager;
+
+    // 이 노드에서 받은 신호 (다음 adjust에서 Redis로 합침)
+    private final Map<Long, LocalSignals> localSignals = new ConcurrentHashMap<>();
+    // 이 노드가 소유한 매치의 소비량
+    private final Map<Long, MatchRate> rates = new ConcurrentHashMap<>();
+
+    public DequeueRateController(StringRedisTemplate redis,
+                                 ActiveMatchRegistry activeMatchRegistry,
+                                 QueueOwnershipManager queueOwnershipManager,
+                                 @Value("${consume-rate.adaptive.enabled:true}") boolean enabled,
+                                 @Value("${consume-rate.adaptive.min-per-tick:1}") int minPerTick,
+                                 @Value("${consume-rate.adaptive.max-per-tick:50}") int maxPerTick,
+                                 @Value("${consume-rate.adaptive.increase-step:1}") double increaseStep,
+                                 @Value("${consume-rate.adaptive.decrease-factor:0.7}") double decreaseFactor,
+                                 @Value("${consume-rate.adaptive.target-hold-success-rate:0.3}") double targetHoldSuccessRate,
+                                 @Value("${consume-rate.adaptive.max-confirm-latency-ms:500}") long maxConfirmLatencyMs,
+                                 @Value("${consume-rate.adaptive.max-backend-latency-ms:100}") long maxBackendLatencyMs,
+                                 @Value("${consume-rate.adaptive.min-hold-samples:10}") long minHoldSamples) {
+        this.redis = redis;
+        this.activeMatchRegistry = activeMatchRegistry;
+        this.queueOwnershipManager = queueOwnershipManager;
+        this.enabled = enabled;
+        this.minPerTick = Math.max(1, minPerTick);
+        this.maxPerTick = Math.max(this.minPerTick, maxPerTick);
+        this.increaseStep = increaseStep;
+        this.decreaseFactor = decreaseFactor;
+        this.targetHoldSuccessRate = targetHoldSuccessRate;
+        this.maxConfirmLatencyMs = maxConfirmLatencyMs;
+        this.maxBackendLatencyMs = maxBackendLatencyMs;
+        this.minHoldSamples = Math.max(1, minHoldSamples);
+    }
+
+    // 이번 틱에 해당 매치에서 꺼낼 인원 수
+    public int permitsPerTick(long matchId) {
+        if (!enabled) return QueueConsumer.getPerTick();
+        return (int) Math.round(rate(matchId).perTick);
+    }
+
+    // ===== 좌석 계층 신호 수집 (요청 경로: 로컬 카운터만) =====
+
+    public void recordHold(long matchId, boolean success) {
+        if (!enabled) return;
+        LocalSignals s = signals(matchId);
+        s.holdAttempts.increment();
+        if (success) s.holdSuccesses.increment();
+    }
+
+    public void recordConfirmLatency(long matchId, long latencyMs) {
+        if (!enabled) return;
+        LocalSignals s = signals(matchId);
+        s.confirmCount.increment();
+        s.confirmLatencySum.add(latencyMs);
+    }
+
+    // Redis 스크립트 / DB 조회 지연
+    public void recordBackendLatency(long matchId, long latencyMs) {
+        if (!enabled) return;
+        LocalSignals s = signals(matchId);
+        s.backendCount.increment();
+        s.backendLatencySum.add(latencyMs);
+    }
+
+    // ===== 주기적 조정 =====
+
+    @Scheduled(fixedRateString = "${consume-rate.adaptive.adjust-ms:1000}")
+    public void adjust() {
+        if (!enabled) return;
+
+        Set<Long> activeMatchIds = activeMatchRegistry.activeMatchIds();
+        // 대기열이 끝난 매치는 상태 정리
+        localSignals.keySet().removeIf(matchId -> !activeMatchIds.contains(matchId));
+
+        // 1. 이 노드의 신호를 Redis에 합침 (모든 노드)
+        publishSignals();
+
+        // 2. 소유한 매치만 합쳐진 신호로 판단
+        Set<Long> owned = queueOwnershipManager.ownedMatchIds();
+        rates.keySet().removeIf(matchId -> !owned.contains(matchId));
+
+        for (Long matchId : owned) {
+            MatchRate r = rate(matchId);
+            Decision d = decide(r.perTick, drainSignals(matchId));
+
+            if (Math.round(d.perTick()) != Math.round(r.perTick)) {
+                log.info("대기열 소비량 조정: matchId={} {} -> {} ({}) holdSuccess={} confirmMs={} backendMs={}",
+                        matchId, Math.round(r.perTick), Math.round(d.perTick()), d.reason(),
+                        String.format("%.2f", d.holdSuccessRate()), d.confirmLatencyMs(), d.backendLatencyMs());
+            }
+
+            r.perTick = d.perTick();
+            r.lastDecision = new RateControllerStatusDTO(
+                    matchId, (int) Math.round(d.perTick()), d.reason(), d.holdAttempts(), d.holdSuccessRate(),
+                    d.confirmLatencyMs(), d.backendLatencyMs(), System.currentTimeMillis());
+        }
+    }
+
+    // 현재 소비량 + 한 주기 신호 → 다음 소비량
+    Decision decide(double perTick, Signals s) {
+        double holdSuccessRate = s.holdAttempts() == 0 ? 1.0 : (double) s.holdSuccesses() / s.holdAttempts();
+        long confirmLatency = s.confirmCount() == 0 ? 0 : s.confirmLatencySum() / s.confirmCount();
+        long backendLatency = s.backendCount() == 0 ? 0 : s.backendLatencySum() / s.backendCount();
+
+        String reason;
+        double next;
+        if (backendLatency > maxBackendLatencyMs) {
+            reason = "backend-latency";
+            next = perTick * decreaseFactor;
+        } else if (confirmLatency > maxConfirmLatencyMs) {
+            reason = "confirm-latency";
+            next = perTick * decreaseFactor;
+        } else if (s.holdAttempts() < minHoldSamples) {
+            // 표본이 없거나 적으면 "건강함"으로 보지 않는다 (한가한 좌석 계층에서 소비량이 계속 오르는 것 방지)
+            reason = "insufficient-samples";
+            next = perTick;
+        } else if (holdSuccessRate < targetHoldSuccessRate) {
+            reason = "hold-contention";
+            next = perTick * decreaseFactor;
+        } else {
+            reason = "healthy";
+            next = perTick + increaseStep;
+        }
+        next = Math.max(minPerTick, Math.min(ceiling(), next));
+
+        return new Decision(next, reason, s.holdAttempts(), holdSuccessRate, confirmLatency, backendLatency);
+    }
+
+    // 소비량 상한: max-per-tick 과 설정 소비량(consume-rate.per-second) 중 작은 값
+    int ceiling() {
+        return Math.max(minPerTick, Math.min(maxPerTick, QueueConsumer.getPerTick()));
+    }
+
+    // 엔드포인트 노출용: 이 노드가 소유한 매치별 마지막 판단 결과
+    public List<RateControllerStatusDTO> decisions() {
+        return rates.entrySet().stream()
+                .map(e -> e.getValue().lastDecision != null
+                        ? e.getValue().lastDecision
+                        : new RateControllerStatusDTO(e.getKey(), (int) Math.round(e.getValue().perTick),
+                        "initial", 0, 1.0, 0, 0, 0))
+                .sorted(Comparator.comparing(RateControllerStatusDTO::getMatchId))
+                .toList();
+    }
+
+    // 로컬 카운터를 비우고 Redis Hash에 합침 (파이프라인 1회)
+    private void publishSignals() {
+        List<Map.Entry<Long, Signals>> pending = new ArrayList<>();
+        localSignals.forEach((matchId, s) -> {
+            Signals drained = s.drain();
+            if (!drained.isEmpty()) pending.add(Map.entry(matchId, drained));
+        });
+        if (pending.isEmpty()) return;
+
+        try {
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection c = (StringRedisConnection) connection;
+                for (Map.Entry<Long, Signals> e : pending) {
+                    String key = QueueKeys.rateSignals(e.getKey());
+                    Signals s = e.getValue();
+                    c.hIncrBy(key, ATTEMPTS, s.holdAttempts());
+                    c.hIncrBy(key, SUCCESSES, s.holdSuccesses());
+                    c.hIncrBy(key, CONFIRM_COUNT, s.confirmCount());
+                    c.hIncrBy(key, CONFIRM_SUM, s.confirmLatencySum());
+                    c.hIncrBy(key, BACKEND_COUNT, s.backendCount());
+                    c.hIncrBy(key, BACKEND_SUM, s.backendLatencySum());
+                    c.pExpire(key, SIGNALS_TTL_MS);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // 한 주기 신호를 잃어도 다음 주기에 다시 판단
+            log.warn("⚠️ 대기열 소비량 신호 집계 실패: matches={} {}", pending.size(), e.getMessage());
+        }
+    }
+
+    // 모든 노드가 합친 신호를 읽고 비움
+    private Signals drainSignals(long matchId) {
+        try {
+            List<?> values = redis.execute(DRAIN_SCRIPT, List.of(QueueKeys.rateSignals(matchId)));
+            return Signals.fromHash(values);
+        } catch (Exception e) {
+            log.warn("⚠️ 대기열 소비량 신호 조회 실패: matchId={} {}", matchId, e.getMessage());
+            return Signals.EMPTY;
+        }
+    }
+
+    private LocalSignals signals(long matchId) {
+        return localSignals.computeIfAbsent(matchId, id -> new LocalSignals());
+    }
+
+    private MatchRate rate(long matchId) {
+        return rates.computeIfAbsent(matchId, id -> new MatchRate(ceiling()));
+    }
+
+    // 한 주기 동안 모인 좌석 계층 신호
+    record Signals(long holdAttempts, long holdSuccesses, long confirmCount, long confirmLatencySum,
+                   long backendCount, long backendLatencySum) {
+
+        static final Signals EMPTY = new Signals(0, 0, 0, 0, 0, 0);
+
+        boolean isEmpty() {
+            return holdAttempts == 0 && confirmCount == 0 && backendCount == 0;
+        }
+
+        // HGETALL 결과 [field, value, field, value, ...]
+        static Signals fromHash(List<?> values) {
+            if (values == null || values.isEmpty()) return EMPTY;
+
+            Map<String, Long> m = new HashMap<>();
+            for (int i = 0; i + 1 < values.size(); i += 2) {
+                try {
+                    m.put(String.valueOf(values.get(i)), Long.parseLong(String.valueOf(values.get(i + 1))));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+            return new Signals(m.getOrDefault(ATTEMPTS, 0L), m.getOrDefault(SUCCESSES, 0L),
+                    m.getOrDefault(CONFIRM_COUNT, 0L), m.getOrDefault(CONFIRM_SUM, 0L),
+                    m.getOrDefault(BACKEND_COUNT, 0L), m.getOrDefault(BACKEND_SUM, 0L));
+        }
+    }
+
+    record Decision(double perTick, String reason, long holdAttempts, double holdSuccessRate,
+                    long confirmLatencyMs, long backendLatencyMs) {}
+
+    private static class LocalSignals {
+        final LongAdder holdAttempts = new LongAdder();
+        final LongAdder holdSuccesses = new LongAdder();
+        final LongAdder confirmCount = new LongAdder();
+        final LongAdder confirmLatencySum = new LongAdder();
+        final LongAdder backendCount = new LongAdder();
+        final LongAdder backendLatencySum = new LongAdder();
+
+        Signals drain() {
+            return new Signals(holdAttempts.sumThenReset(), holdSuccesses.sumThenReset(),
+                    confirmCount.sumThenReset(), confirmLatencySum.sumThenReset(),
+                    backendCount.sumThenReset(), backendLatencySum.sumThenReset());
+        }
+    }
+
+    private static class MatchRate {
+        volatile double perTick;
+        volatile RateControllerStatusDTO lastDecision;
+
+        MatchRate(double perTick) {
+            this.perTick = perTick;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.ticketing.queue.service;
+
+import com.ticketing.queue.domain.enums.QueueKeys;
+import com.ticketing.repository.MatchMetadataCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 노드 단위 dequeue 예산을 매치별로 나누는 스케줄러 (가중 Deficit Round Robin)
+ *
+ * 매 emit 틱마다 node-budget-per-tick 만큼의 슬롯을 이 노드가 소유한 매치에 나눠준다.
+ * - 가중치 = min(대기 인원, 잔여 좌석 x seat-overbook-factor), 최소 1
+ *   잔여 좌석보다 훨씬 많이 들여보내 봐야 좌석 계층 경합만 늘어나므로 잔여 좌석으로 상한을 둔다.
+ * - 매치별 deficit에 (예산 x 가중치 비율)을 더하고, 정수 부분만큼 이번 틱에 꺼낸다.
+ *   소수 부분은 다음 틱으로 이월되므로 작은 방도 굶지 않는다.
+ * - 매치별 상한은 DequeueRateController의 틱당 소비량, 대기 인원을 넘지 않는다.
+ * - 배정량은 사람 + 봇 레인 합계이며, QueueConsumer가 bot-lane.ratio 비율로 두 레인에 나눈다.
+ *
+ * 잔여 좌석 = 전체 좌석(MatchMetadataCache, 매치당 1회 조회) - match:{matchId}:reserved_count
+ * node-budget-per-tick <= 0 이면 비활성: 매치별 소비량을 그대로 사용한다.
+ */
+@Slf4j
+@Component
+public class DequeueSlotScheduler {
+
+    private final StringRedisTemplate redis;
+    private final DequeueRateController dequeueRateController;
+    private final MatchMetadataCache matchMetadataCache;
+    private final QueueOwnershipManager queueOwnershipManager;
+    private final int nodeBudgetPerTick;
+    private final double seatOverbookFactor;
+
+    // 매치별 최근 가중치 입력값 (refresh 주기마다 갱신)
+    private final Map<Long, MatchDemand> demands = new ConcurrentHashMap<>();
+    // 매치별 이월된 deficit (emitTick 스레드에서만 접근)
+    private final Map<Long, Double> deficits = new HashMap<>();
+
+    public DequeueSlotScheduler(StringRedisTemplate redis,
+                                DequeueRateController dequeueRateController,
+                                MatchMetadataCache matchMetadataCache,
+                                QueueOwnershipManager queueOwnershipManager,
+                                @Value("${queue.fair-share.node-budget-per-tick:100}") int nodeBudgetPerTick,
+                                @Value("${queue.fair-share.seat-overbook-factor:2.0}") double seatOverbookFactor) {
+        this.redis = redis;
+        this.dequeueRateController = dequeueRateController;
+        this.matchMetadataCache = matchMetadataCache;
+        this.queueOwnershipManager = queueOwnershipManager;
+        this.nodeBudgetPerTick = nodeBudgetPerTick;
+        this.seatOverbookFactor = seatOverbookFactor;
+    }
+
+    // 이번 틱에 매치별로 꺼낼 인원 수 (emitTick에서 호출)
+    public Map<Long, Integer> allocate(Set<Long> matchIds) {
+        Map<Long, Integer> grants = new HashMap<>();
+        deficits.keySet().retainAll(matchIds);
+
+        if (nodeBudgetPerTick <= 0) {
+            for (Long matchId : matchIds) {
+                grants.put(matchId, dequeueRateController.permitsPerTick(matchId));
+            }
+            return grants;
+        }
+
+        // 1) 가중치 계산 (아직 refresh 전인 매치는 상한만 적용해 1로 둠)
+        Map<Long, Double> weights = new HashMap<>();
+        double weightSum = 0d;
+        for (Long matchId : matchIds) {
+            MatchDemand demand = demands.get(matchId);
+            if (demand != null && demand.depth() == 0) {
+                // 빈 대기열은 deficit을 쌓지 않는다 (DRR 규칙)
+                deficits.remove(matchId);
+                continue;
+            }
+            double weight = weight(demand);
+            weights.put(matchId, weight);
+            weightSum += weight;
+        }
+        if (weightSum <= 0d) return grants;
+
+        // 2) deficit 누적 후 정수 부분만큼 배정
+        for (Map.Entry<Long, Double> e : weights.entrySet()) {
+            Long matchId = e.getKey();
+            int cap = dequeueRateController.permitsPerTick(matchId);
+            MatchDemand demand = demands.get(matchId);
+            if (demand != null) cap = (int) Math.min(cap, demand.depth());
+
+            double quantum = nodeBudgetPerTick * e.getValue() / weightSum;
+            double deficit = deficits.getOrDefault(matchId, 0d) + quantum;
+            int grant = (int) Math.min(cap, Math.floor(deficit));
+
+            // 상한에 막혀 못 쓴 몫이 계속 쌓여 한꺼번에 터지지 않도록 이월분은 quantum 이내로 제한
+            deficits.put(matchId, Math.min(deficit - grant, quantum));
+            if (grant > 0) grants.put(matchId, grant);
+        }
+        return grants;
+    }
+
+    // 대기 인원 / 잔여 좌석 갱신 (매치당 ZCARD 2회 + GET 1회, 파이프라인 한 번)
+    @Scheduled(fixedRateString = "${queue.fair-share.refresh-ms:500}")
+    public void refresh() {
+        if (nodeBudgetPerTick <= 0) return;
+
+        List<Long> matchIds = new ArrayList<>(queueOwnershipManager.ownedMatchIds());
+        demands.keySet().retainAll(matchIds);
+        if (matchIds.isEmpty()) return;
+
+        try {
+            List<Object> results = redis.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection c = (StringRedisConnection) connection;
+                for (Long matchId : matchIds) {
+                    c.zCard(QueueKeys.waitingZSet(matchId));
+                    c.zCard(QueueKeys.botZSet(matchId));
+                    c.get("match:" + matchId + ":reserved_count");
+                }
+                return null;
+            });
+
+            for (int i = 0; i < matchIds.size(); i++) {
+                Long matchId = matchIds.get(i);
+                long depth = toLong(results.get(i * 3)) + toLong(results.get(i * 3 + 1));
+                long reserved = toLong(results.get(i * 3 + 2));
+
+                Integer total = matchMetadataCache.totalSeats(matchId);
+                long remainingSeats = total == null ? -1 : Math.max(0, total - reserved);
+                demands.put(matchId, new MatchDemand(depth, remainingSeats));
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ 매치별 dequeue 가중치 갱신 실패: {}", e.getMessage());
+        }
+    }
+
+    private double weight(MatchDemand demand) {
+        if (demand == null) return 1d;
+        double weight = demand.depth();
+        // 좌석 수를 모르면 대기 인원만으로 가중치 계산
+        if (demand.remainingSeats() >= 0) {
+            weight = Math.min(weight, demand.remainingSeats() * seatOverbookFactor);
+        }
+        return Math.max(1d, weight);
+    }
+
+    private static long toLong(Object value) {
+        if (value == null) return 0L;
+        if (value instanceof Long l) return l;
+        try {
+            return Long.parseLong(value.toString());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private record MatchDemand(long depth, long remainingSeats) {}
+}
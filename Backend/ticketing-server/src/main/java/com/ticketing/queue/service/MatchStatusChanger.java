@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ticketing.KafkaTopic;
 import com.ticketing.entity.Match;
 import com.ticketing.queue.domain.enums.QueueKeys;
+import com.ticketing.repository.MatchMetadataCache;
 import com.ticketing.repository.MatchRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +32,7 @@ public class MatchStatusChanger {
     private final MatchRepository matchRepository;
     private final StringRedisTemplate redis;
     private final ClientService Client;
+    private final MatchMetadataCache matchMetadataCache;
 
     private static final String MATCH_STATUS_KEY = "match:%s:status";
     private static final String DEDUP_KEY       = "match:%s:playing:done";
@@ -59,6 +61,7 @@ public class MatchStatusChanger {
         String statusKey = MATCH_STATUS_KEY.formatted(matchId);
         redis.opsForValue().set(statusKey, OPEN);
         redis.expire(statusKey, Duration.ofMinutes(EXPIRE_MINUTES));
+        matchMetadataCache.invalidate(matchId);
 
         // 3) 매치에 참여한 인원에 대한 Redis 키 설정
         ResponseEntity<?> response = Client.getUserNum(roomId);
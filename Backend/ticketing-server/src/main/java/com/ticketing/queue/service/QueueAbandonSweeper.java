@@ -0,0 +1,121 @@
+package com.ticketing.queue.service;
+
+import com.ticketing.queue.domain.enums.QueueKeys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 이탈 사용자 정리 (heartbeat 기반)
+ *
+ * queue:{matchId}:heartbeat 의 마지막 생존 신호가 timeout-ms 보다 오래된 사용자를
+ * 대기열에서 일괄 제거하고 queue:{matchId}:pruned (score = seq)에 기록한 뒤 queue:{matchId}:pruned-version을 올린다.
+ * - 생존 신호: 대기열 진입, 상태 조회 API, room-server 웹소켓 접속 확인
+ * - 대기열을 빠져나간 사용자의 heartbeat는 QueueConsumer가 pop 확정 시 지운다 (조회 API는 ZADD XX로 되살리지 않음).
+ * - 순번 계산 시 "내 앞에서 이탈한 인원"을 pruned ZCOUNT로 빼서 ahead가 부풀지 않도록 한다.
+ * 이 노드가 소유한 매치만 처리한다.
+ */
+@Slf4j
+@Component
+public class QueueAbandonSweeper {
+    private static final int PRUNE_BATCH = 500;
+    private static final long PRUNED_TTL_SECONDS = 1800;
+
+    // 오래된 heartbeat 사용자 중 아직 대기 중인 사용자만 대기열에서 이동
+    // 반환: {대기열에서 제거한 인원, 이번에 읽은 오래된 heartbeat 수}
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> PRUNE_SCRIPT = new DefaultRedisScript<>(
+            """
+                    -- KEYS[1]: waiting, KEYS[2]: pruned, KEYS[3]: heartbeat, KEYS[4]: states, KEYS[5]: positions
+                    -- KEYS[6]: pruned-version
+                    local stale = redis.call('ZRANGEBYSCORE', KEYS[3], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+                    local pruned = 0
+                    for _, userId in ipairs(stale) do
+                        local seq = redis.call('ZSCORE', KEYS[1], userId)
+                        if seq then
+                            redis.call('ZREM', KEYS[1], userId)
+                            redis.call('ZADD', KEYS[2], seq, userId)
+                            redis.call('HDEL', KEYS[4], userId)
+                            redis.call('HDEL', KEYS[5], userId)
+                            pruned = pruned + 1
+                        end
+                        redis.call('ZREM', KEYS[3], userId)
+                    end
+                    if pruned > 0 then
+                        redis.call('EXPIRE', KEYS[2], tonumber(ARGV[3]))
+                        redis.call('INCR', KEYS[6])
+                        redis.call('EXPIRE', KEYS[6], tonumber(ARGV[3]))
+                    end
+                    return {pruned, #stale}
+                    """,
+            List.class
+    );
+
+    private final StringRedisTemplate redis;
+    private final QueueOwnershipManager queueOwnershipManager;
+    private final QueueTickExecutor queueTickExecutor;
+    private final long timeoutMs;
+    private final Counter prunedCounter;
+
+    public QueueAbandonSweeper(StringRedisTemplate redis,
+                               QueueOwnershipManager queueOwnershipManager,
+                               QueueTickExecutor queueTickExecutor,
+                               MeterRegistry meterRegistry,
+                               @Value("${queue.abandon.timeout-ms:30000}") long timeoutMs) {
+        this.redis = redis;
+        this.queueOwnershipManager = queueOwnershipManager;
+        this.queueTickExecutor = queueTickExecutor;
+        this.timeoutMs = timeoutMs;
+        this.prunedCounter = meterRegistry.counter("queue.abandon.pruned");
+    }
+
+    @Scheduled(fixedDelayString = "${queue.abandon.sweep-ms:5000}")
+    public void sweep() {
+        Set<Long> matchIds = queueOwnershipManager.ownedMatchIds();
+        if (matchIds.isEmpty()) return;
+
+        long cutoff = System.currentTimeMillis() - timeoutMs;
+        for (long matchId : matchIds) {
+            queueTickExecutor.submit("abandon", matchId, () -> sweepMatch(matchId, cutoff));
+        }
+    }
+
+    private void sweepMatch(long matchId, long cutoff) {
+        List<String> keys = List.of(
+                QueueKeys.waitingZSet(matchId),
+                QueueKeys.pruned(matchId),
+                QueueKeys.heartbeat(matchId),
+                QueueKeys.userStates(matchId),
+                QueueKeys.positions(matchId),
+                QueueKeys.prunedVersion(matchId)
+        );
+
+        long total = 0;
+        long stale;
+        // 한 번에 PRUNE_BATCH명씩, 읽은 heartbeat가 배치보다 적을 때까지
+        // (대기열에 없는 항목만 모인 배치여도 멈추지 않도록 제거 인원이 아니라 읽은 수로 판단)
+        do {
+            List<?> result = redis.execute(PRUNE_SCRIPT, keys,
+                    String.valueOf(cutoff), String.valueOf(PRUNE_BATCH), String.valueOf(PRUNED_TTL_SECONDS));
+            total += longAt(result, 0);
+            stale = longAt(result, 1);
+        } while (stale >= PRUNE_BATCH);
+
+        if (total > 0) {
+            prunedCounter.increment(total);
+            log.info("이탈 사용자 대기열 정리: matchId={} count={}", matchId, total);
+        }
+    }
+
+    private static long longAt(List<?> values, int index) {
+        return values != null && index < values.size() && values.get(index) instanceof Number n ? n.longValue() : 0L;
+    }
+}
@@ -3,21 +3,36 @@ package com.ticketing.queue.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ticketing.KafkaTopic;
 import com.ticketing.queue.domain.enums.QueueKeys;
+import com.ticketing.queue.domain.enums.QueuePositionMode;
+import com.ticketing.repository.MatchMetadataCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
@@ -26,6 +41,19 @@ public class QueueConsumer {
     private final StringRedisTemplate redis;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final ObjectMapper mapper;
+    private final QueueOwnershipManager queueOwnershipManager;
+    private final QueueTickExecutor queueTickExecutor;
+    private final QueueThroughputTracker queueThroughputTracker;
+    private final DequeueSlotScheduler dequeueSlotScheduler;
+    private final MatchMetadataCache matchMetadataCache;
+
+    // DERIVED: 순번은 조회 측에서 rawRank/joinOffset/offset으로 계산하므로 updatePositions 생략
+    @Value("${queue.position-mode:DERIVED}")
+    private QueuePositionMode positionMode;
+
+    // 틱당 배정량을 사람 : 봇 = 1 : ratio 로 나눈다 (splitGrant)
+    @Value("${queue.bot-lane.ratio:1.0}")
+    private double botLaneRatio;
 
     public static int CONSUME_RATE_PER_2S;
     public static int EMIT_MS;
@@ -44,12 +72,31 @@ public class QueueConsumer {
         COMMIT_MS = v;
     }
 
-    private static final String STATE = "state";
     private static final String DEQUEUED = "DEQUEUED";
-    private static final Duration STATE_TTL = Duration.ofSeconds(3);
+    private static final Duration POSITIONS_TTL = Duration.ofSeconds(1800);
+
+    // 직전 커밋에서 DEQUEUED 처리한 사용자(queue:{matchId}:dequeued)를 상태 / 순번 Hash에서 지우고 집합을 비움
+    // 로컬 메모리가 아니라 Redis 기준이므로 소유 노드가 바뀌어도 새 소유 노드가 이어서 정리한다.
+    private static final DefaultRedisScript<Long> CLEAR_DEQUEUED_SCRIPT = new DefaultRedisScript<>(
+            """
+                    local ids = redis.call('SMEMBERS', KEYS[1])
+                    -- unpack 인자 수 제한을 피하기 위해 나눠서 HDEL
+                    for i = 1, #ids, 1000 do
+                        local chunk = {}
+                        for j = i, math.min(i + 999, #ids) do
+                            chunk[#chunk + 1] = ids[j]
+                        end
+                        redis.call('HDEL', KEYS[2], unpack(chunk))
+                        redis.call('HDEL', KEYS[3], unpack(chunk))
+                    end
+                    redis.call('DEL', KEYS[1])
+                    return #ids
+                    """,
+            Long.class
+    );
 
     // 틱당 소비량 = 2초 총량을 틱 수로 나눔 (200 / (2000/20) = 2)
-    private static int getPerTick() {
+    static int getPerTick() {
         return Math.max(1, CONSUME_RATE_PER_2S * EMIT_MS / COMMIT_MS);
     }
 
@@ -58,225 +105,351 @@ public class QueueConsumer {
 
     private static final int DELAY_DIFF = 10;
 
-    // 윈도우 버킷 계산
-    // Kafka 발행 주기를 기준으로 Bucket단위로 묶어서, 각 Bucket당 처리된 메시지를 Redis에 묶어서 key값을 저장한다.
-    private long currentBucket() {
-        return System.currentTimeMillis() / COMMIT_MS;
-    }
-    private long previousBucket() {
-        return currentBucket() - 1;
-    }
+    // dequeue 이벤트 브로커 ack 대기 한도 (넘으면 실패로 보고 대기열 복구)
+    private static final long PUBLISH_TIMEOUT_MS = 3000;
 
-    // 윈도우 리스트 키
-    private String windowListKey(long matchId, long bucket) {
-        return "q:" + matchId + ":window:" + bucket;
-    }
+    // 윈도우 Stream 컨슈머 그룹
+    // 한 매치는 lease를 가진 노드 하나만 커밋하므로, 소유권이 넘어가도 같은 consumer 이름으로
+    // 이전 노드가 ACK하지 못한 pending 항목을 이어서 처리한다.
+    private static final String WINDOW_GROUP = "commit";
+    private static final String WINDOW_CONSUMER = "committer";
+    private static final int WINDOW_READ_COUNT = 1000;
+    private static final Duration WINDOW_TTL = Duration.ofSeconds(1800);
+
+    // 컨슈머 그룹을 만든 matchId
+    private final Set<Long> windowGroups = ConcurrentHashMap.newKeySet();
 
     @Scheduled(fixedRateString = "${consume-rate.kafka-emit}") // 빠른 주기: 카프카 발행
     public void emitTick() {
+        // KEYS 스캔 대신 활성 매치 중 이 노드가 소유한 매치만 순회
+        Set<Long> matchIds = queueOwnershipManager.ownedMatchIds();
+        if (matchIds.isEmpty()) return;
+
+        // 노드 예산을 매치별 가중치로 나눈 뒤 (대기 인원 / 잔여 좌석 기반 DRR)
+        // 매치별로 병렬 처리 (큰 방이 다른 방의 틱을 지연시키지 않도록)
+        Map<Long, Integer> grants = dequeueSlotScheduler.allocate(matchIds);
+        grants.forEach((matchId, permits) ->
+                queueTickExecutor.submit("emit", matchId, () -> emitMatch(matchId, permits)));
+    }
+
+    private void emitMatch(long matchId, int permits) {
         ZSetOperations<String, String> zset = redis.opsForZSet();
-        Set<String> roomKeys = redis.keys("queue:*:waiting");
-        if (roomKeys == null || roomKeys.isEmpty()) return;
+        String zsetKey = QueueKeys.waitingZSet(matchId);
 
-        long bucket = currentBucket();
+        // roomId는 매치 중 변하지 않으므로 인-프로세스 캐시에서 조회 (틱마다 Redis GET 하지 않음)
+        Long roomIdLong = matchMetadataCache.roomId(matchId);
+        if (roomIdLong == null) {
+            log.warn("⚠️ roomId를 찾을 수 없습니다. matchId={}", matchId);
+            return;
+        }
 
-        for (String zsetKey : roomKeys) {
-            // "queue:{matchId}:waiting" → matchId
-            String matchIdStr = zsetKey.replace("queue:", "").replace(":waiting", "");
-            long matchId;
-            try { matchId = Long.parseLong(matchIdStr); } catch (Exception e) { continue; }
+        // 이번 틱에서 뺄 개수 (노드 예산 배분 + 좌석 계층 상태에 따라 매치별로 조정됨)
+        // 배정량 전체를 사람 / 봇 레인이 나눠 쓴다. 한쪽 레인이 비어 남은 몫은 다른 레인이 쓴다.
+        int humanPermits = splitGrant(permits, botLaneRatio);
+        String botKey = QueueKeys.botZSet(matchId);
+
+        Set<ZSetOperations.TypedTuple<String>> popped = popMin(zset, zsetKey, humanPermits);
+        Set<ZSetOperations.TypedTuple<String>> poppedBots = popMin(zset, botKey, permits - popped.size());
+        int unused = permits - popped.size() - poppedBots.size();
+        if (unused > 0 && popped.size() == humanPermits) {
+            Set<ZSetOperations.TypedTuple<String>> more = popMin(zset, zsetKey, unused);
+            if (!more.isEmpty()) {
+                popped = new LinkedHashSet<>(popped);
+                popped.addAll(more);
+            }
+        }
+        if (popped.isEmpty() && poppedBots.isEmpty()) return;
+
+        // 사용자/봇 분리 (Kafka 이벤트는 매치당 토픽별로 1건만 발행)
+        List<Long> userIds = new ArrayList<>();
+        List<Long> botIds = new ArrayList<>();
+        List<String> dequeued = new ArrayList<>(popped.size());
+        for (ZSetOperations.TypedTuple<String> t : popped) {
+            String userIdString = t.getValue();
+            if (userIdString == null) continue;
+
+            long userIdLong = Long.parseLong(userIdString);
+            if (userIdLong > 0) {
+                userIds.add(userIdLong);
+                dequeued.add(userIdString);
+            }
+            // 봇 레인 도입 이전에 사람 대기열에 들어온 봇
+            else if (userIdLong < 0) botIds.add(userIdLong);
+        }
+        for (ZSetOperations.TypedTuple<String> t : poppedBots) {
+            if (t.getValue() != null) botIds.add(Long.parseLong(t.getValue()));
+        }
 
-            // 이번 틱에서 뺄 개수
-            Set<ZSetOperations.TypedTuple<String>> popped = zset.popMin(zsetKey, getPerTick());
-            if (popped == null || popped.isEmpty()) continue;
+        try {
+            long ts = System.currentTimeMillis();
+            // 사용자일 경우 보내는 대기열을 빠져나갔다는 Kafka 이벤트 발행
+            CompletableFuture<?> users = publishDequeued(KafkaTopic.USER_DEQUEUED, matchId, roomIdLong, userIds, ts);
+            // 봇일 경우 보내는 대기열을 빠져나갔다는 Kafka 이벤트 발행
+            CompletableFuture<?> bots = publishDequeued(KafkaTopic.BOT_DEQUEUED, matchId, roomIdLong, botIds, ts);
+
+            // 브로커 ack를 받은 뒤에만 pop을 확정한다 (offset / 윈도우 반영).
+            // 같은 매치의 다음 emit 틱은 이 작업이 끝날 때까지 건너뛰므로 대기해도 순서가 섞이지 않는다.
+            CompletableFuture.allOf(users, bots).get(PUBLISH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // 동기 / 비동기 발행 실패, ack 대기 시간 초과 모두 다시 대기열로 밀어 넣기 (score는 원래 시퀀스 → 순서 유지)
+            // 시간 초과 후 늦게 전달된 경우 같은 사용자가 한 번 더 dequeue될 수 있다 (유실보다 중복을 택함)
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            log.error("❌ Kafka 발행 실패, 대기열 복구: matchId={} count={}", matchId, popped.size() + poppedBots.size(), e);
+            if (!popped.isEmpty()) zset.add(zsetKey, popped);
+            if (!poppedBots.isEmpty()) zset.add(botKey, poppedBots);
+            return;
+        }
 
-            // 방별 통계 갱신을 위해 카운트 누적 (2초 커밋 때 반영)
+        // 예상 대기 시간 계산용 소비 속도 (사람 + 봇)
+        queueThroughputTracker.recordPops(matchId, popped.size() + poppedBots.size());
+
+        // 방별 통계 갱신을 위해 카운트 누적 (2초 커밋 때 반영)
+        if (!popped.isEmpty()) {
             redis.opsForValue().increment(QueueKeys.roomOffset(matchId), popped.size());
+        }
+        if (!poppedBots.isEmpty()) {
+            redis.opsForValue().increment(QueueKeys.botOffset(matchId), poppedBots.size());
+        }
 
-            for (ZSetOperations.TypedTuple<String> t : popped) {
-                String userIdString = t.getValue();
-                if (userIdString == null) continue;
+        // 빠져나간 사용자는 더 이상 생존 신호 대상이 아님 (이탈 정리 배치에 오래된 항목으로 쌓이지 않도록)
+        if (!dequeued.isEmpty()) {
+            redis.opsForZSet().remove(QueueKeys.heartbeat(matchId), dequeued.toArray());
+        }
 
-                String roomIdString = redis.opsForValue().get("match:" + matchId + ":room");
-                if (roomIdString == null) {
-                    log.warn("⚠️ roomIdString이 null입니다. matchId={}", matchId);
-                    continue;
-                }
-                Long roomIdLong = Long.valueOf(roomIdString);
-                Long userIdLong = Long.valueOf(userIdString);
-                // 1) 카프카 즉시 발행 (Kafka의 batch/linger가 자연스런 배칭 담당)
-                Map<String, Object> payload = Map.of(
-                        "roomId", roomIdLong,
-                        "matchId", matchId,
-                        "userId", userIdLong,
-                        "ts", System.currentTimeMillis()
-                );
-                try {
-                    // 사용자일 경우 보내는 대기열을 빠져나갔다는 Kafka 이벤트 발행
-                    if(userIdLong>0){
-                        kafkaTemplate.send(
-                                        KafkaTopic.USER_DEQUEUED.getTopicName(),
-                                        userIdString, // key: userId → 파티션 분산/순서 보장 용도
-                                        payload // JSON 형태 그대로, 직렬화할 필요 없음.
-                                )
-                                .whenComplete( (result, ex) -> {
-                                    if (ex != null || result == null) {
-                                        log.error("❌ Kafka 발행 실패: topic={} key={}", KafkaTopic.USER_DEQUEUED.getTopicName(), userIdString, ex);
-                                    }
-                                /**
-                                else{
-                                    log.info("KAFKA roomId{}, matchId:{}, userId{} 사용자가 정상적으로 빠져나갔습니다.",roomIdLong, matchId, userIdLong);
-                                }
-                                 */
-                                });
-                    }
-                    // 봇일 경우 보내는 대기열을 빠져나갔다는 Kafka 이벤트 발행
-                    else if(userIdLong<0){
-                        kafkaTemplate.send(
-                                KafkaTopic.BOT_DEQUEUED.getTopicName(),
-                                userIdString, // key: userId → 파티션 분산/순서 보장 용도
-                                payload // JSON 형태 그대로, 직렬화할 필요 없음.
-                        ).whenComplete( (result, ex) -> {
-                            if (ex != null || result == null) {
-                                log.error("❌ Kafka 발행 실패: topic={} key={}", KafkaTopic.USER_DEQUEUED.getTopicName(), userIdString, ex);
-                            }/*else{
-                                    log.info(" roomId{}, matchId:{}, userId{} 봇이 정상적으로 빠져나갔습니다.",roomIdLong, matchId, userIdLong);
-                                }*/
-                        });
-                    }
+        // 윈도우 Stream에 커밋 대기 항목 적재 (틱당 1건)
+        // 2초 커밋 시점에 컨슈머 그룹으로 읽어 state=DEQUEUED 반영 후 ACK
+        if (!dequeued.isEmpty()) {
+            appendWindow(matchId, dequeued);
+        }
 
+        // 잔여 대기열 크기 기록은 2초 커밋 시점에서 한번에 맞추는 것을 권장
+    }
 
-                } catch (Exception e) {
-                    // 실패 시: 재시도 정책/보상 트랜잭션은 설계에 따라
-                    // 간단 복구: 다시 대기열로 밀어 넣기 (score는 지금 시각)
-                    zset.add(zsetKey, userIdString, (double) System.currentTimeMillis());
-                    continue;
-                }
+    // 배정량 중 사람 레인 몫 = ceil(grant / (1 + ratio)), 나머지는 봇 레인 (ratio <= 0 이면 전부 사람)
+    static int splitGrant(int grant, double botLaneRatio) {
+        if (grant <= 0) return 0;
+        if (!(botLaneRatio > 0d)) return grant;
+        return (int) Math.ceil(grant / (1d + botLaneRatio));
+    }
 
-                // 2) 이번 윈도우 버킷에 커밋 대기표시(사용자 목록 적재)
-                //    2초 커밋 시점에만 실제 state=DEQUEUED, TTL부여
-                redis.opsForList().rightPush(windowListKey(matchId, bucket), userIdString);
-            }
+    private Set<ZSetOperations.TypedTuple<String>> popMin(ZSetOperations<String, String> zset, String key, int count) {
+        if (count <= 0) return Set.of();
+        Set<ZSetOperations.TypedTuple<String>> popped = zset.popMin(key, count);
+        return popped == null ? Set.of() : popped;
+    }
 
-            // 잔여 대기열 크기 기록은 2초 커밋 시점에서 한번에 맞추는 것을 권장
+    private void appendWindow(long matchId, List<String> userIds) {
+        String streamKey = QueueKeys.windowStream(matchId);
+        redis.opsForStream().add(StreamRecords.newRecord()
+                .in(streamKey)
+                .ofMap(Map.of(
+                        "users", String.join(",", userIds),
+                        "ts", String.valueOf(System.currentTimeMillis()))));
+        redis.expire(streamKey, WINDOW_TTL);
+
+        if (windowGroups.add(matchId)) {
+            try {
+                // 처음부터 읽도록 0에서 그룹 생성 (이미 있으면 BUSYGROUP)
+                redis.opsForStream().createGroup(streamKey, ReadOffset.from("0"), WINDOW_GROUP);
+            } catch (Exception e) {
+                log.debug("윈도우 컨슈머 그룹 이미 존재: matchId={}", matchId);
+            }
         }
     }
 
+    // 매치 단위 배치 이벤트: {roomId, matchId, userIds[], ts}, 보낼 대상이 없으면 완료된 future
+    private CompletableFuture<?> publishDequeued(KafkaTopic topic, long matchId, Long roomId, List<Long> ids, long ts) {
+        if (ids.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        Map<String, Object> payload = Map.of(
+                "roomId", roomId,
+                "matchId", matchId,
+                "userIds", ids,
+                "ts", ts
+        );
+
+        return kafkaTemplate.send(
+                        topic.getTopicName(),
+                        String.valueOf(matchId), // key: matchId → 같은 매치의 배치는 순서 보장
+                        payload // JSON 형태 그대로, 직렬화할 필요 없음.
+                )
+                .whenComplete((result, ex) -> {
+                    if (ex != null || result == null) {
+                        log.error("❌ Kafka 발행 실패: topic={} matchId={} count={}", topic.getTopicName(), matchId, ids.size(), ex);
+                    }
+                });
+    }
+
     // 2초마다 사용자에 대한 Redis 키 업데이트
     @Scheduled(fixedRateString = "${consume-rate.redis-emit}", initialDelay = 0) // 2초마다 커밋
     public void commitWindow() {
-        long bucket = previousBucket(); // 직전 윈도우를 커밋
-        // 방 키를 한 번 더 긁어, 각 방의 버킷리스트를 처리
-        Set<String> roomKeys = redis.keys("queue:*:waiting");
-        if (roomKeys == null || roomKeys.isEmpty()) return;
-
-        for (String zsetKey : roomKeys) {
-            String matchIdStr = zsetKey.replace("queue:", "").replace(":waiting", "");
-            long matchId;
-            try { matchId = Long.parseLong(matchIdStr); } catch (Exception e) { continue; }
-
-            String listKey = windowListKey(matchId, bucket);
-            Long count = redis.opsForList().size(listKey);
-            if (count == null || count == 0) continue;
-
-            // 파이프라인으로 상태/TTL/통계 갱신을 일괄 처리
-            redis.executePipelined((RedisCallback<Object>) connection -> {
-                for (int i = 0; i < count; i++) {
-                    String userId = redis.opsForList().leftPop(listKey);
-                    if (userId == null) continue;
-                    Long userIdLong = Long.valueOf(userId);
-
-                    if(userIdLong>0){
-                        String userStateKey = QueueKeys.userStateKey(matchId, userId);
-                        // HSET state=DEQUEUED
-                        connection.hSet(userStateKey.getBytes(), STATE.getBytes(), DEQUEUED.getBytes());
-                        // EXPIRE 3s
-                        connection.expire(userStateKey.getBytes(), STATE_TTL.getSeconds());
-                    }
+        // 이 노드가 소유한 매치 목록을 순회하며, 각 방의 윈도우 Stream을 처리
+        Set<Long> matchIds = queueOwnershipManager.ownedMatchIds();
+        queueThroughputTracker.retain(matchIds);
+        if (matchIds.isEmpty()) return;
 
-                }
+        for (long matchId : matchIds) {
+            queueTickExecutor.submit("commit", matchId, () -> commitMatchWindow(matchId));
+        }
+    }
 
-                // 방 전체 잔량도 이 타이밍에 스냅샷
-                Long tot = redis.opsForZSet().zCard("queue:" + matchId + ":waiting");
-                String totalKey = QueueKeys.roomTotal(matchId);
-                connection.set(totalKey.getBytes(), String.valueOf(tot == null ? 0 : tot).getBytes());
+    private void commitMatchWindow(long matchId) {
+        // 소비 속도 EWMA 갱신 (pop이 없던 구간도 반영되도록 매 커밋마다)
+        queueThroughputTracker.update(matchId);
 
-                return null;
-            });
+        // 직전 커밋에서 DEQUEUED로 표시한 사용자는 이번 커밋에서 상태를 지운다. (기존 3초 TTL 대체)
+        clearPreviousDequeued(matchId);
+
+        String streamKey = QueueKeys.windowStream(matchId);
+        if (!Boolean.TRUE.equals(redis.hasKey(streamKey))) return;
+
+        // 1) 이전 커밋에서 ACK하지 못한 pending 항목, 2) 새 항목 순으로 읽는다.
+        List<MapRecord<String, Object, Object>> records = new ArrayList<>();
+        records.addAll(readWindow(matchId, streamKey, ReadOffset.from("0")));
+        records.addAll(readWindow(matchId, streamKey, ReadOffset.lastConsumed()));
+        if (records.isEmpty()) return;
+
+        List<RecordId> recordIds = new ArrayList<>(records.size());
+        List<String> committed = new ArrayList<>();
+        for (MapRecord<String, Object, Object> record : records) {
+            recordIds.add(record.getId());
+            Object users = record.getValue().get("users");
+            if (users == null) continue; // 삭제됐지만 pending에 남은 항목
 
-            // 윈도우 리스트 정리
-            redis.delete(listKey);
+            for (String userId : users.toString().split(",")) {
+                if (!userId.isEmpty()) committed.add(userId);
+            }
         }
+
+        // 방 전체 잔량 (사람 + 봇 레인)
+        long tot = waitingTotal(matchId);
+        String statesKey = QueueKeys.userStates(matchId);
+        String pendingKey = QueueKeys.dequeuedPending(matchId);
+        String dequeuedValue = DEQUEUED + "|" + System.currentTimeMillis();
+
+        // 파이프라인으로 상태/통계 갱신을 일괄 처리
+        redis.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection c = (StringRedisConnection) connection;
+            for (String userId : committed) {
+                // 매치 상태 Hash의 userId 필드를 DEQUEUED|시각으로 교체
+                c.hSet(statesKey, userId, dequeuedValue);
+            }
+            // 다음 커밋에서 지울 대상 (어느 노드가 다음 커밋을 하든 Redis에서 읽음)
+            if (!committed.isEmpty()) {
+                c.sAdd(pendingKey, committed.toArray(new String[0]));
+                c.expire(pendingKey, WINDOW_TTL.getSeconds());
+            }
+
+            // 방 전체 잔량도 이 타이밍에 스냅샷
+            c.set(QueueKeys.roomTotal(matchId), String.valueOf(tot));
+            return null;
+        });
+
+        // 상태 반영 후 일괄 ACK, 처리 끝난 항목은 Stream에서 제거
+        RecordId[] ids = recordIds.toArray(new RecordId[0]);
+        redis.opsForStream().acknowledge(streamKey, WINDOW_GROUP, ids);
+        redis.opsForStream().delete(streamKey, ids);
+    }
+
+    private List<MapRecord<String, Object, Object>> readWindow(long matchId, String streamKey, ReadOffset offset) {
+        try {
+            List<MapRecord<String, Object, Object>> records = redis.opsForStream().read(
+                    Consumer.from(WINDOW_GROUP, WINDOW_CONSUMER),
+                    StreamReadOptions.empty().count(WINDOW_READ_COUNT),
+                    StreamOffset.create(streamKey, offset));
+            return records == null ? List.of() : records;
+        } catch (Exception e) {
+            // 그룹이 없는 경우 (Stream 만료 후 재생성 등): 다음 적재 시 그룹을 다시 만든다.
+            windowGroups.remove(matchId);
+            log.warn("⚠️ 윈도우 Stream 읽기 실패: key={} error={}", streamKey, e.getMessage());
+            return List.of();
+        }
+    }
+
+    // 매치 상태 Hash / 순번 Hash에서 직전 커밋의 DEQUEUED 사용자 필드 제거
+    private void clearPreviousDequeued(long matchId) {
+        redis.execute(CLEAR_DEQUEUED_SCRIPT, List.of(
+                QueueKeys.dequeuedPending(matchId),
+                QueueKeys.userStates(matchId),
+                QueueKeys.positions(matchId)));
     }
 
     // 2초마다 사용자에 대한 Redis 키 업데이트
     @Scheduled(fixedRateString = "${consume-rate.redis-emit}", initialDelay = DELAY_DIFF)
     public void updatePositions() {
-        ZSetOperations<String, String> zset = redis.opsForZSet();
-        Set<String> roomKeys = redis.keys("queue:*:waiting");
-        if (roomKeys == null || roomKeys.isEmpty()) return;
+        if (positionMode != QueuePositionMode.SWEEP) return;
+
+        Set<Long> matchIds = queueOwnershipManager.ownedMatchIds();
+        if (matchIds.isEmpty()) return;
 
         long now = System.currentTimeMillis();
 
-        for (String zkey : roomKeys) {
-            String matchIdStr = zkey.replace("queue:", "").replace(":waiting", "");
-            long matchId;
-            try { matchId = Long.parseLong(matchIdStr); } catch (Exception e) { continue; }
-
-            Long totalL = zset.zCard(zkey);
-            long total = (totalL == null) ? 0L : totalL;
-            if (total == 0) continue;
-
-            // 전체 범위를 배치로 순회
-            for (long start = 0; start < total; start += BATCH_SIZE) {
-                long end = Math.min(start + BATCH_SIZE - 1, total - 1);
-                Set<String> members = zset.range(zkey, start, end);
-                if (members == null || members.isEmpty()) continue;
-
-                final long baseRank = start;
-
-                redis.executePipelined((RedisCallback<Object>) conn -> {
-                    StringRedisConnection c = (StringRedisConnection) conn;
-                    int idx = 0;
-
-                    for (String userId : members) {
-                        long rank   = baseRank + idx;
-                        long ahead  = rank;
-                        long behind = total - 1 - rank;
-
-                        // --- 봇 스킵 로직 ---
-                        // 1) userId 부호로 구분(숫자라면 가장 빠름)
-                        boolean isBot = false;
-                        try {
-                            long uid = Long.parseLong(userId);
-                            if (uid < 0) isBot = true;
-                        } catch (NumberFormatException ignore) {
-                            // 숫자가 아니라면 playerType 필드로 판단할 수도 있음(필요 시 두 단계 파이프라인 구성)
-                        }
-                        if (isBot) {
-                            idx++; continue;
-                        }
-
-                        String hkey = QueueKeys.userStateKey(matchId, userId);
-
-                        Map<String, String> m = new HashMap<>(4);
-                        m.put("ahead",       Long.toString(ahead));
-                        m.put("behind",      Long.toString(behind));
-                        m.put("total",       Long.toString(total));
-                        m.put("lastUpdated", Long.toString(now));
-
-                        // 네가 주었던 그대로: HMSET + (선택) TTL
-                        c.hMSet(hkey, m);
-                        c.expire(hkey, 1800);
-
-                        idx++;
-                    }
-                    return null;
-                });
-            }
+        for (long matchId : matchIds) {
+            queueTickExecutor.submit("positions", matchId, () -> updateMatchPositions(matchId, now));
         }
     }
 
+    private void updateMatchPositions(long matchId, long now) {
+        ZSetOperations<String, String> zset = redis.opsForZSet();
+        String zkey = QueueKeys.waitingZSet(matchId);
+
+        // 사람 대기열만 순회한다. "내 앞의 봇 수"는 페이지마다 봇 레인 ZCOUNT로 구한다. (봇 전체를 읽지 않음)
+        Long humansL = zset.zCard(zkey);
+        long humans = (humansL == null) ? 0L : humansL;
+        if (humans == 0) return;
+
+        String botKey = QueueKeys.botZSet(matchId);
+        Long botsL = zset.zCard(botKey);
+        String positionsKey = QueueKeys.positions(matchId);
+        long total = humans + ((botsL == null) ? 0L : botsL);
+
+        // 전체 범위를 배치로 순회
+        for (long start = 0; start < humans; start += BATCH_SIZE) {
+            long end = Math.min(start + BATCH_SIZE - 1, humans - 1);
+            Set<ZSetOperations.TypedTuple<String>> members = zset.rangeWithScores(zkey, start, end);
+            if (members == null || members.isEmpty()) continue;
+
+            // 페이지 멤버별 앞선 봇 수 (seq는 정수: ZCOUNT bots -inf seq-1, 파이프라인 1회)
+            List<Object> botsAhead = redis.executePipelined((RedisCallback<Object>) conn -> {
+                StringRedisConnection c = (StringRedisConnection) conn;
+                for (ZSetOperations.TypedTuple<String> member : members) {
+                    double seq = member.getScore() == null ? 0d : member.getScore();
+                    c.zCount(botKey, Double.NEGATIVE_INFINITY, seq - 1);
+                }
+                return null;
+            });
+
+            final long baseRank = start;
+
+            redis.executePipelined((RedisCallback<Object>) conn -> {
+                StringRedisConnection c = (StringRedisConnection) conn;
+                int idx = 0;
+
+                for (ZSetOperations.TypedTuple<String> member : members) {
+                    String userId = member.getValue();
+                    Object bots = botsAhead.get(idx);
+                    long rank = baseRank + idx++;
 
+                    // 봇 레인 도입 이전에 사람 대기열에 들어온 봇은 건너뜀
+                    if (userId == null || userId.startsWith("-")) continue;
 
+                    long ahead  = rank + ((bots instanceof Number n) ? n.longValue() : 0L);
+                    long behind = Math.max(0L, total - 1 - ahead);
+
+                    // 순번 Hash: userId -> "ahead|behind|total|lastUpdated"
+                    c.hSet(positionsKey, userId, ahead + "|" + behind + "|" + total + "|" + now);
+                }
+                return null;
+            });
+        }
+
+        redis.expire(positionsKey, POSITIONS_TTL);
+    }
+
+    // 사람 + 봇 레인 대기 인원
+    private long waitingTotal(long matchId) {
+        Long humans = redis.opsForZSet().zCard(QueueKeys.waitingZSet(matchId));
+        Long bots = redis.opsForZSet().zCard(QueueKeys.botZSet(matchId));
+        return (humans == null ? 0L : humans) + (bots == null ? 0L : bots);
+    }
 }
@@ -0,0 +1,184 @@
+package com.ticketing.queue.service;
+
+import com.ticketing.KafkaTopic;
+import com.ticketing.queue.DTO.QueueLogDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 대기열 Log 비동기 발행기
+ *
+ * enqueue 요청 스레드는 버퍼에 넣기만 하고 바로 응답한다. (Kafka ack 대기 없음)
+ * - 버퍼가 가득 차면 해당 Log는 버리고 dropped 카운트만 올린다.
+ * - flush 주기마다 batch-size 만큼 꺼내 Kafka로 비동기 발행한다. (batch-size는 max-in-flight 이하로 제한)
+ * - in-flight 허가를 먼저 얻은 뒤에만 버퍼에서 꺼내므로 Log 순서가 유지된다.
+ * - 발행 중(in-flight)인 메시지가 max-in-flight에 도달하면 Kafka가 느린 것으로 판단하고
+ *   overflow-policy에 따라 처리한다.
+ *     DROP : 버퍼에서 꺼내지 않고 다음 주기에 재시도 (버퍼 순서 유지, 버퍼가 차면 요청 측에서 버림)
+ *     SPILL: MongoDB user_log 컬렉션에 직접 적재 (Kafka 발행 실패 건도 포함)
+ *
+ * 지표: queue.log.published / dropped / spilled / failed, queue.log.buffer.size, queue.log.inflight
+ */
+@Slf4j
+@Component
+public class QueueLogPublisher {
+    private static final String USER_LOG_COLLECTION = "user_log";
+
+    public enum OverflowPolicy { DROP, SPILL }
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MongoTemplate mongoTemplate;
+
+    private final BlockingQueue<QueueLogDTO> buffer;
+    // Kafka 발행에 실패한 Log (SPILL 정책에서만 사용)
+    private final ConcurrentLinkedQueue<QueueLogDTO> failedLogs = new ConcurrentLinkedQueue<>();
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+    private final Counter spilledCounter;
+    private final Counter failedCounter;
+
+    public QueueLogPublisher(KafkaTemplate<String, Object> kafkaTemplate,
+                             MongoTemplate mongoTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${queue-log.buffer-capacity:10000}") int bufferCapacity,
+                             @Value("${queue-log.batch-size:500}") int batchSize,
+                             @Value("${queue-log.max-in-flight:2000}") int maxInFlight,
+                             @Value("${queue-log.overflow-policy:DROP}") OverflowPolicy overflowPolicy) {
+        if (bufferCapacity <= 0 || batchSize <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("queue-log.buffer-capacity / batch-size / max-in-flight는 1 이상이어야 합니다.");
+        }
+        // 배치 하나가 in-flight 한도를 넘으면 허가를 영영 얻을 수 없으므로 한도로 제한
+        if (batchSize > maxInFlight) {
+            log.warn("⚠️ queue-log.batch-size({})가 max-in-flight({})보다 커서 {}로 제한합니다.", batchSize, maxInFlight, maxInFlight);
+        }
+
+        this.kafkaTemplate = kafkaTemplate;
+        this.mongoTemplate = mongoTemplate;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.batchSize = Math.min(batchSize, maxInFlight);
+        this.overflowPolicy = overflowPolicy;
+
+        this.publishedCounter = meterRegistry.counter("queue.log.published");
+        this.droppedCounter = meterRegistry.counter("queue.log.dropped");
+        this.spilledCounter = meterRegistry.counter("queue.log.spilled");
+        this.failedCounter = meterRegistry.counter("queue.log.failed");
+        meterRegistry.gauge("queue.log.buffer.size", buffer, BlockingQueue::size);
+        meterRegistry.gauge("queue.log.inflight", inFlight, s -> maxInFlight - s.availablePermits());
+    }
+
+    // 요청 스레드에서 호출: 절대 블로킹하지 않는다.
+    public boolean publish(QueueLogDTO logDto) {
+        boolean accepted = buffer.offer(logDto);
+        if (!accepted) {
+            droppedCounter.increment();
+        }
+        return accepted;
+    }
+
+    @Scheduled(fixedDelayString = "${queue-log.flush-ms:50}")
+    public void flush() {
+        spillFailedLogs();
+
+        int want;
+        while ((want = Math.min(batchSize, buffer.size())) > 0) {
+            List<QueueLogDTO> batch = new ArrayList<>(want);
+
+            if (inFlight.tryAcquire(want)) {
+                buffer.drainTo(batch, want);
+                // 허가를 얻은 만큼 꺼내지 못했으면 남는 허가 반환
+                if (batch.size() < want) {
+                    inFlight.release(want - batch.size());
+                }
+                sendBatch(batch);
+            } else if (overflowPolicy == OverflowPolicy.SPILL) {
+                // Kafka가 밀려 있음 → MongoDB에 직접 적재
+                buffer.drainTo(batch, want);
+                spill(batch);
+            } else {
+                // Kafka가 밀려 있음 → 버퍼에 그대로 두고 다음 주기에 재시도 (순서 유지)
+                return;
+            }
+        }
+    }
+
+    private void sendBatch(List<QueueLogDTO> batch) {
+        String topic = KafkaTopic.USER_LOG_QUEUE.getTopicName();
+
+        for (QueueLogDTO dto : batch) {
+            try {
+                kafkaTemplate.send(topic, dto.getPlayerId(), dto)
+                        .whenComplete((result, ex) -> {
+                            inFlight.release();
+                            if (ex != null || result == null) {
+                                onSendFailed(dto, ex);
+                            } else {
+                                publishedCounter.increment();
+                            }
+                        });
+            } catch (Exception e) {
+                inFlight.release();
+                onSendFailed(dto, e);
+            }
+        }
+    }
+
+    // Kafka 콜백 스레드에서 호출되므로 여기서는 큐에만 넣고, 적재는 flush 주기에서 한다.
+    private void onSendFailed(QueueLogDTO dto, Throwable ex) {
+        failedCounter.increment();
+        if (overflowPolicy == OverflowPolicy.SPILL) {
+            failedLogs.add(dto);
+        } else {
+            log.warn("❌ 대기열 Log Kafka 발행 실패(버림): matchId={} userId={}", dto.getMatchId(), dto.getPlayerId(), ex);
+        }
+    }
+
+    private void spillFailedLogs() {
+        if (failedLogs.isEmpty()) return;
+
+        List<QueueLogDTO> batch = new ArrayList<>();
+        QueueLogDTO dto;
+        while ((dto = failedLogs.poll()) != null) {
+            batch.add(dto);
+        }
+        spill(batch);
+    }
+
+    private void spill(List<QueueLogDTO> batch) {
+        try {
+            mongoTemplate.insert(batch, USER_LOG_COLLECTION);
+            spilledCounter.increment(batch.size());
+        } catch (Exception e) {
+            droppedCounter.increment(batch.size());
+            log.error("❌ 대기열 Log MongoDB 직접 적재 실패: count={}", batch.size(), e);
+        }
+    }
+
+    // 종료 시 남은 Log 최대한 발행
+    @PreDestroy
+    public void shutdown() {
+        log.info("QueueLogPublisher 종료: 남은 Log={}, 발행 중={}", buffer.size(), maxInFlight - inFlight.availablePermits());
+        flush();
+        kafkaTemplate.flush();
+    }
+}
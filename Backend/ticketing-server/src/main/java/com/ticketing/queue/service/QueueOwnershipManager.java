@@ -0,0 +1,158 @@
+package com.ticketing.queue.service;
+
+import com.ticketing.queue.domain.enums.QueueKeys;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 매치별 대기열 소유권(lease) 관리
+ *
+ * ticketing-server가 여러 대 떠 있어도 한 매치의 대기열은 한 노드만 소비하도록 한다.
+ * - queue:{matchId}:owner : 소유 노드 ID (SET NX PX, 주기적으로 갱신)
+ * - queue:nodes           : 살아있는 노드 ZSET (score = 마지막 heartbeat 시각)
+ *
+ * 각 노드는 ceil(활성 매치 수 / 살아있는 노드 수) 개까지만 소유하고, 초과분은 반납한다.
+ * 노드가 죽으면 lease가 만료되어 다른 노드가 이어받는다.
+ */
+@Slf4j
+@Component
+public class QueueOwnershipManager {
+
+    // 내 lease일 때만 만료 시간 연장
+    private static final DefaultRedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            """
+                    if redis.call('GET', KEYS[1]) == ARGV[1] then
+                        return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+                    end
+                    return 0
+                    """,
+            Long.class
+    );
+
+    // 내 lease일 때만 삭제
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            """
+                    if redis.call('GET', KEYS[1]) == ARGV[1] then
+                        return redis.call('DEL', KEYS[1])
+                    end
+                    return 0
+                    """,
+            Long.class
+    );
+
+    private final StringRedisTemplate redis;
+    private final ActiveMatchRegistry activeMatchRegistry;
+    private final long leaseTtlMs;
+    private final String nodeId;
+
+    // 이 노드가 현재 소유한 matchId
+    private final Set<Long> ownedMatchIds = ConcurrentHashMap.newKeySet();
+
+    public QueueOwnershipManager(StringRedisTemplate redis,
+                                 ActiveMatchRegistry activeMatchRegistry,
+                                 @Value("${queue.lease.ttl-ms:5000}") long leaseTtlMs,
+                                 @Value("${POD_NAME:${HOSTNAME:ticketing}}") String hostName) {
+        this.redis = redis;
+        this.activeMatchRegistry = activeMatchRegistry;
+        this.leaseTtlMs = leaseTtlMs;
+        // 같은 호스트에서 재시작해도 이전 lease와 구분되도록 UUID를 붙인다.
+        this.nodeId = hostName + ":" + UUID.randomUUID().toString().substring(0, 8);
+        log.info("대기열 소유권 노드 ID: {}", nodeId);
+    }
+
+    // 스케줄러가 순회할 matchId (이 노드가 소유한 매치만)
+    public Set<Long> ownedMatchIds() {
+        return new HashSet<>(ownedMatchIds);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Scheduled(fixedRateString = "${queue.lease.renew-ms:1000}", initialDelay = 0)
+    public void rebalance() {
+        try {
+            long liveNodes = heartbeat();
+            Set<Long> activeMatchIds = activeMatchRegistry.activeMatchIds();
+
+            // 1) 보유 중인 lease 갱신 (실패 or 종료된 매치는 반납)
+            for (Long matchId : new HashSet<>(ownedMatchIds)) {
+                if (!activeMatchIds.contains(matchId)) {
+                    release(matchId);
+                    continue;
+                }
+                Long renewed = redis.execute(RENEW_SCRIPT, List.of(QueueKeys.owner(matchId)),
+                        nodeId, String.valueOf(leaseTtlMs));
+                if (renewed == null || renewed == 0L) {
+                    ownedMatchIds.remove(matchId);
+                    log.warn("⚠️ 대기열 lease 갱신 실패(소유권 상실): matchId={} node={}", matchId, nodeId);
+                }
+            }
+
+            // 2) 노드당 공정 몫 계산
+            long fairShare = (activeMatchIds.size() + liveNodes - 1) / Math.max(1, liveNodes);
+
+            // 3) 몫을 넘겨 가진 매치 반납 (새로 뜬 노드가 가져갈 수 있도록)
+            for (Long matchId : new HashSet<>(ownedMatchIds)) {
+                if (ownedMatchIds.size() <= fairShare) break;
+                release(matchId);
+            }
+
+            // 4) 주인 없는 매치 획득
+            for (Long matchId : activeMatchIds) {
+                if (ownedMatchIds.size() >= fairShare) break;
+                if (ownedMatchIds.contains(matchId)) continue;
+
+                Boolean acquired = redis.opsForValue()
+                        .setIfAbsent(QueueKeys.owner(matchId), nodeId, Duration.ofMillis(leaseTtlMs));
+                if (Boolean.TRUE.equals(acquired)) {
+                    ownedMatchIds.add(matchId);
+                    log.info("대기열 lease 획득: matchId={} node={}", matchId, nodeId);
+                }
+            }
+        } catch (Exception e) {
+            log.error("❌ 대기열 소유권 갱신 중 오류: node={}", nodeId, e);
+        }
+    }
+
+    // heartbeat 기록 후, 살아있는 노드 수 반환
+    private long heartbeat() {
+        long now = System.currentTimeMillis();
+        String nodesKey = QueueKeys.nodes();
+        redis.opsForZSet().add(nodesKey, nodeId, now);
+        redis.opsForZSet().removeRangeByScore(nodesKey, 0, now - leaseTtlMs);
+        Long live = redis.opsForZSet().zCard(nodesKey);
+        return (live == null || live == 0) ? 1 : live;
+    }
+
+    private void release(Long matchId) {
+        ownedMatchIds.remove(matchId);
+        redis.execute(RELEASE_SCRIPT, List.of(QueueKeys.owner(matchId)), nodeId);
+        log.info("대기열 lease 반납: matchId={} node={}", matchId, nodeId);
+    }
+
+    // 종료 시 즉시 반납 → 다른 노드가 TTL 만료를 기다리지 않고 이어받음
+    @PreDestroy
+    public void shutdown() {
+        try {
+            for (Long matchId : new HashSet<>(ownedMatchIds)) {
+                release(matchId);
+            }
+            redis.opsForZSet().remove(QueueKeys.nodes(), nodeId);
+        } catch (Exception e) {
+            log.warn("⚠️ 대기열 lease 반납 실패: node={}", nodeId, e);
+        }
+    }
+}
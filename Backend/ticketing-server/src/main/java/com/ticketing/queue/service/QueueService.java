@@ -1,30 +1,43 @@
 package com.ticketing.queue.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.ticketing.KafkaTopic;
 import com.ticketing.queue.DTO.MatchInsertedEventDTO;
 import com.ticketing.queue.DTO.QueueLogDTO;
+import com.ticketing.queue.DTO.request.BotBulkEnqueueRequestDTO;
+import com.ticketing.queue.DTO.request.BotEnqueueItemDTO;
 import com.ticketing.queue.DTO.request.MatchRequestDTO;
+import com.ticketing.queue.DTO.response.BotBulkEnqueueResponseDTO;
 import com.ticketing.queue.DTO.response.MatchIdResponseDTO;
 import com.ticketing.queue.DTO.QueueDTO;
 import com.ticketing.queue.DTO.QueueUserInfoDTO;
 import com.ticketing.queue.DTO.response.MatchResponseDTO;
+import com.ticketing.queue.DTO.response.QueueStatusResponseDTO;
+import com.ticketing.queue.concurrency.LuaEnqueueExecutor;
+import com.ticketing.queue.concurrency.LuaEnqueueRateLimiter;
+import com.ticketing.queue.domain.QueuePosition;
 import com.ticketing.queue.domain.enums.QueueKeys;
 import com.ticketing.entity.Match;
 import com.ticketing.queue.exception.DuplicateMatchFoundException;
+import com.ticketing.queue.exception.QueueRateLimitedException;
+import com.ticketing.queue.exception.QueueStatusNotFoundException;
 import com.ticketing.repository.MatchRepository;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.connection.RedisZSetCommands.ZAddArgs;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 
@@ -33,89 +46,78 @@ import java.util.concurrent.ExecutionException;
 public class QueueService {
     private final StringRedisTemplate redis;
     private final ObjectMapper mapper;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final QueueLogPublisher queueLogPublisher;
     private final MatchRepository matchRepository;
     private final ApplicationEventPublisher publisher;
     private final ClientService Client;
+    private final LuaEnqueueExecutor luaEnqueueExecutor;
+    private final LuaEnqueueRateLimiter luaEnqueueRateLimiter;
 
     // 대기 상태 ENUM
     private static final String ALREADY_IN_QUEUE="ALREADY_IN_QUEUE";
     private static final String WAITING = "WAITING";
     private static final String ENQUEUED = "ENQUEUED";
+    private static final String BULK_ENQUEUED = "BULK_ENQUEUED";
     // 플레이 타입
     private static final String BOT_TYPE = "robot";
     private static final String USER_TYPE = "user";
 
+
     private static final int MATCH_EXPIRE_TIME = 30;
 
-    public QueueService(StringRedisTemplate redis, ObjectMapper mapper, KafkaTemplate kafkaTemplate, MatchRepository matchRepository, ApplicationEventPublisher publisher, ClientService Client){
+    // 봇 일괄 진입 시 스크립트 1회당 최대 봇 수 (Redis를 오래 붙잡지 않도록)
+    private static final int BOT_BULK_CHUNK = 1000;
+
+    // 상태 조회 권장 간격
+    private static final long MIN_POLL_MS = 1_000L;
+    private static final long MAX_POLL_MS = 15_000L;
+    private static final long UNKNOWN_ETA_POLL_MS = 5_000L;
+
+    public QueueService(StringRedisTemplate redis, ObjectMapper mapper, QueueLogPublisher queueLogPublisher, MatchRepository matchRepository, ApplicationEventPublisher publisher, ClientService Client, LuaEnqueueExecutor luaEnqueueExecutor, LuaEnqueueRateLimiter luaEnqueueRateLimiter){
         this.redis = redis;
         this.mapper = mapper;
-        this.kafkaTemplate = kafkaTemplate;
+        this.queueLogPublisher = queueLogPublisher;
         this.matchRepository = matchRepository;
         this.publisher = publisher;
         this.Client = Client;
+        this.luaEnqueueExecutor = luaEnqueueExecutor;
+        this.luaEnqueueRateLimiter = luaEnqueueRateLimiter;
     }
 
     // Redis에 Queue에 대한 순서 정보 저장
     public QueueDTO enqueue(Long matchId, Long userIdLong, QueueUserInfoDTO userInfo ) throws ExecutionException, InterruptedException {
-        String userId = String.valueOf(userIdLong);
-
-        // 방별 sequence 이용, score 기준 순서 생성
-        long now = System.currentTimeMillis();
-        Long seq = redis.opsForValue().increment(QueueKeys.sequence(matchId));
-
-        double score = now * 1_000_000d + (seq==null ? 0: seq);
-
-        // ZSET에 순서가 작은 userId부터 넣어준다.
-        // 이미 존재하는 userId라면 더하지 않는다.
-        String zkeys = QueueKeys.waitingZSet(matchId);
-        Boolean InQueue = redis.opsForZSet().add(zkeys, userId, score);
-        // ZADD NX (이미 있으면 무시: 재정렬 방지)
-        /*
-        * ZSetOperations.TypedTuple<String> tuple = ZSetOperations.TypedTuple.of(userId, score);
-        Long addedCnt = redis.opsForZSet()
-                .add(zkeys, Set.of(tuple), RedisZSetCommands.ZAddArgs.ifNotExists());
-        boolean added = addedCnt != null && addedCnt > 0;
-        */
-
-
-        // ZSET을 이용한 해당 이용자의 rank 및 방 내 사용자 수를 가져온다.
-        Long rk = redis.opsForZSet().rank(zkeys, userId);
-        Long tot = redis.opsForZSet().zCard(zkeys);
-
-        long rank = (rk==null)? -1L: rk;
-        long total = (tot==null) ? 0L : tot;
-
-        long positionAhead = (rank>=0) ? rank: -1;
-        long positionBehind = (rank>=0 && total>0)? total -1 - positionAhead: -1;
+        return enqueue(matchId, userIdLong, userInfo, null);
+    }
 
+    public QueueDTO enqueue(Long matchId, Long userIdLong, QueueUserInfoDTO userInfo, String clientIp) throws ExecutionException, InterruptedException {
+        String userId = String.valueOf(userIdLong);
 
-        //userId prefix에 따라, 봇이라면 playerType에 바꿈.
-        String status = InQueue ? ENQUEUED : ALREADY_IN_QUEUE;
+        // 대기열 상태를 건드리기 전에 사용자/IP별 요청 제한 확인 (봇은 bot-server 한 곳에서 몰려오므로 제외)
+        if (userIdLong > 0) {
+            LuaEnqueueRateLimiter.RateLimitResult limit = luaEnqueueRateLimiter.tryAcquire(matchId, userIdLong, clientIp);
+            if (!limit.allowed()) {
+                throw new QueueRateLimitedException(limit.limitedBy(), limit.retryAfterMs());
+            }
+        }
 
         // 이미 토큰을 통해 검증이 된 채로,
         // userIdLong에 대해 검증하면 userType을 알 수 있다.
         String playerType = userIdLong < 0 ? BOT_TYPE: USER_TYPE;
 
-        // 각 user의 대기 상태, 현재 순위, 누적으로 빠진 사람 수를 HashMap 형태로 넣어둔다.
+        // 시퀀스 INCR, ZADD NX, rank/total 조회, 사용자 상태 Hash 저장, TTL, 활성 매치 등록을
+        // Lua 스크립트 1회 호출(EVALSHA)로 처리한다.
         // 봇은 ZSET에는 넣되, HashMap형태로 값을 저장하지 않도록 한다.
-        /*Try-Catch로 Waiting 상태 반영*/
-        if(userIdLong > 0){
-            redis.opsForHash().put(QueueKeys.userStateKey(matchId, userId), "state", status);
-            redis.opsForHash().put(QueueKeys.userStateKey(matchId, userId), "joinedAt", String.valueOf(now));
+        long now = System.currentTimeMillis();
+        LuaEnqueueExecutor.EnqueueResult result = luaEnqueueExecutor.enqueue(matchId, userIdLong, playerType, now, ENQUEUED, ALREADY_IN_QUEUE);
 
-            redis.opsForHash().put(QueueKeys.userStateKey(matchId, userId), "rawRank", String.valueOf(rank));
-            long joinOffset = redis.opsForValue().get(QueueKeys.roomOffset(matchId)) == null ? 0L: Long.parseLong(redis.opsForValue().get(QueueKeys.roomOffset(matchId)));
-            redis.opsForHash().put(QueueKeys.userStateKey(matchId, userId), "joinOffset", String.valueOf(joinOffset));
+        long rank = result.rank();
+        long total = result.total();
 
-            redis.opsForHash().put(QueueKeys.userStateKey(matchId, userId), "playerType", playerType);
+        long positionAhead = (rank>=0) ? rank: -1;
+        long positionBehind = (rank>=0 && total>0)? total -1 - positionAhead: -1;
 
-            // matchId 내 roomOffset, sequence, total 관련 TTL
-            redis.expire(QueueKeys.roomOffset(matchId), Duration.ofMinutes(MATCH_EXPIRE_TIME));
-            redis.expire(QueueKeys.sequence(matchId), Duration.ofMinutes(MATCH_EXPIRE_TIME));
-            redis.expire(QueueKeys.roomTotal(matchId), Duration.ofMinutes(MATCH_EXPIRE_TIME));
-        }
+        // 이미 대기 중인 userId라면 순서를 바꾸지 않는다.
+        String status = result.added() ? ENQUEUED : ALREADY_IN_QUEUE;
 
         String randomUUID = UUID.randomUUID().toString();
         QueueDTO queueInfo = new QueueDTO( randomUUID, matchId, playerType, userId, status, positionAhead, positionBehind, total);
@@ -126,16 +128,218 @@ public class QueueService {
          * DLT 처리가 필요할까?
          * */
         QueueLogDTO logDto = QueueLogDTO.of(randomUUID, matchId, playerType, userId, status, positionAhead, positionBehind, total, userInfo.getClickMiss(), userInfo.getDuration(), LocalDateTime.now());
-        try{
-            SendResult<String, Object> recordData = kafkaTemplate.send(KafkaTopic.USER_LOG_QUEUE.getTopicName(), userId, logDto).get();
-            // log.info("Kafka: 사용자 Log 적재 이벤트 발행");
+        // broker ack을 기다리지 않고 비동기 버퍼에 넣는다. (응답 지연이 Kafka에 묶이지 않도록)
+        queueLogPublisher.publish(logDto);
 
-        }catch(Exception e){
-            e.printStackTrace();
+
+        return queueInfo;
+    }
+
+    // 봇 일괄 진입: 봇 N명을 스크립트 호출 몇 번으로 봇 레인에 넣고, 로그는 스크립트 호출(최대 BOT_BULK_CHUNK명)당 1건만 남긴다.
+    // (봇마다 HTTP 요청 + Lua + Kafka 로그를 반복하지 않도록)
+    // 로그에는 실제로 들어간 봇 ID / clickMiss / duration을 진입 순서대로 담는다. (replay-tool이 봇별 도착으로 펼침)
+    public BotBulkEnqueueResponseDTO enqueueBots(Long matchId, BotBulkEnqueueRequestDTO request) {
+        List<BotEnqueueItemDTO> items = (request == null || request.getBots() == null) ? List.of() : request.getBots();
+
+        // 봇(음수 ID)만, 요청 순서 유지하며 중복 제거
+        Map<Long, BotEnqueueItemDTO> bots = new LinkedHashMap<>();
+        for (BotEnqueueItemDTO item : items) {
+            if (item == null || item.getBotId() == null || item.getBotId() >= 0) continue;
+            bots.putIfAbsent(item.getBotId(), item);
+        }
+        if (bots.isEmpty()) {
+            return new BotBulkEnqueueResponseDTO(matchId, items.size(), 0L, 0L);
         }
 
+        List<Long> ids = new ArrayList<>(bots.keySet());
+        long added = 0L;
+        long total = 0L;
+        for (int from = 0; from < ids.size(); from += BOT_BULK_CHUNK) {
+            LuaEnqueueExecutor.BulkEnqueueResult result =
+                    luaEnqueueExecutor.enqueueBots(matchId, ids.subList(from, Math.min(ids.size(), from + BOT_BULK_CHUNK)));
+            added += result.added();
+            total = result.total();
+
+            if (result.addedIds().isEmpty()) continue;
+            List<BotEnqueueItemDTO> logged = result.addedIds().stream().map(bots::get).toList();
+            QueueLogDTO logDto = QueueLogDTO.ofBots(UUID.randomUUID().toString(), matchId, BOT_TYPE, BULK_ENQUEUED,
+                    Math.max(0L, total - logged.size()), total, logged, LocalDateTime.now());
+            queueLogPublisher.publish(logDto);
+        }
 
-        return queueInfo;
+        log.info("봇 일괄 대기열 진입: matchId={} 요청={} 신규={} 전체={}", matchId, items.size(), added, total);
+        return new BotBulkEnqueueResponseDTO(matchId, items.size(), added, total);
+    }
+
+    // 대기열 상태 + 예상 대기 시간 조회 (순번 계산은 QueuePosition)
+    // 왕복 2회: 상태 HGET → 나머지(offset/rate/pruned-version MGET, 레인 ZCARD, 순번 HGET, 이탈 ZCOUNT, 생존 신호 ZADD) 파이프라인 1회
+    public QueueStatusResponseDTO getQueueStatus(Long matchId, Long userId) {
+        String field = String.valueOf(userId);
+        Object stateValue = redis.opsForHash().get(QueueKeys.userStates(matchId), field);
+        if (stateValue == null) {
+            throw new QueueStatusNotFoundException(matchId, userId);
+        }
+
+        // state|joinedAt|rawRank|joinOffset|botRank|botJoinOffset|seq|prunedAtJoin 또는 DEQUEUED|dequeuedAt
+        String[] state = QueuePosition.parse(stateValue.toString());
+        boolean dequeued = QueuePosition.isDequeued(state);
+        long seq = QueuePosition.seq(state);
+        long now = System.currentTimeMillis();
+
+        List<Object> results = redis.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection c = (StringRedisConnection) connection;
+            readCounters(c, matchId);
+            c.hGet(QueueKeys.positions(matchId), field);
+            c.zCount(QueueKeys.pruned(matchId), Double.NEGATIVE_INFINITY, seq - 1);
+            // 상태 조회 = 생존 신호 (대기 중인 사용자만 갱신)
+            // ZADD XX: pop 후 DEQUEUED 커밋 전 조회가 지운 heartbeat를 되살리지 않도록 있는 항목만 갱신
+            if (!dequeued) {
+                c.zAdd(QueueKeys.heartbeat(matchId), now, field, ZAddArgs.ifExists());
+            }
+            return null;
+        });
+
+        QueueCounters counters = QueueCounters.of(results);
+        Object position = results.get(3);
+        long prunedBefore = seq < 0 ? 0L : toLong(results.get(4));
+        return toStatus(matchId, userId, state, position == null ? null : position.toString(), counters, prunedBefore, now);
+    }
+
+    // 방 멤버들의 대기열 상태 일괄 조회 (room-server 방 알림용, 대기열에 없는 사용자는 빠진다)
+    // 왕복 최대 2회: 공통 값 + 상태/순번 HMGET 파이프라인 → 기록된 순번이 없는 대기 사용자의 이탈 ZCOUNT 파이프라인
+    // 생존 신호는 갱신하지 않는다 (room-server가 웹소켓에 접속 중인 사용자만 따로 갱신)
+    public List<QueueStatusResponseDTO> getQueueStatuses(Long matchId, List<Long> userIds) {
+        List<QueueStatusResponseDTO> statuses = new ArrayList<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return statuses;
+        }
+
+        String[] fields = userIds.stream().map(String::valueOf).toArray(String[]::new);
+        List<Object> results = redis.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection c = (StringRedisConnection) connection;
+            readCounters(c, matchId);
+            c.hMGet(QueueKeys.userStates(matchId), fields);
+            c.hMGet(QueueKeys.positions(matchId), fields);
+            return null;
+        });
+
+        QueueCounters counters = QueueCounters.of(results);
+        List<?> states = results.get(3) instanceof List<?> l ? l : List.of();
+        List<?> positions = results.get(4) instanceof List<?> l ? l : List.of();
+
+        String[][] parsed = new String[fields.length][];
+        List<Long> seqs = new ArrayList<>();
+        for (int i = 0; i < fields.length; i++) {
+            String value = valueAt(states, i);
+            if (value == null) continue;
+            parsed[i] = QueuePosition.parse(value);
+            long seq = QueuePosition.seq(parsed[i]);
+            if (valueAt(positions, i) == null && !QueuePosition.isDequeued(parsed[i]) && seq >= 0) {
+                seqs.add(seq);
+            }
+        }
+        Map<Long, Long> prunedBefore = countPrunedBefore(matchId, seqs);
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < fields.length; i++) {
+            if (parsed[i] == null) continue;
+            try {
+                long prunedCount = prunedBefore.getOrDefault(QueuePosition.seq(parsed[i]), 0L);
+                statuses.add(toStatus(matchId, userIds.get(i), parsed[i], valueAt(positions, i), counters, prunedCount, now));
+            } catch (Exception e) {
+                log.error("❌ 대기열 상태 변환 실패: matchId={}, userId={}", matchId, userIds.get(i), e);
+            }
+        }
+        return statuses;
+    }
+
+    // 매치 공통 값: offset/bot-offset/rate/pruned-version MGET, 사람/봇 레인 ZCARD (파이프라인 결과 0~2번)
+    private static void readCounters(StringRedisConnection c, Long matchId) {
+        c.mGet(QueueKeys.roomOffset(matchId), QueueKeys.botOffset(matchId), QueueKeys.rate(matchId),
+                QueueKeys.prunedVersion(matchId));
+        c.zCard(QueueKeys.waitingZSet(matchId));
+        c.zCard(QueueKeys.botZSet(matchId));
+    }
+
+    // seq별 내 앞 이탈 인원 (ZCOUNT pruned -inf seq-1, 파이프라인 1회)
+    private Map<Long, Long> countPrunedBefore(Long matchId, List<Long> seqs) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (seqs.isEmpty()) {
+            return counts;
+        }
+
+        List<Object> results = redis.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection c = (StringRedisConnection) connection;
+            for (Long seq : seqs) {
+                c.zCount(QueueKeys.pruned(matchId), Double.NEGATIVE_INFINITY, seq - 1);
+            }
+            return null;
+        });
+        for (int i = 0; i < seqs.size(); i++) {
+            counts.put(seqs.get(i), toLong(results.get(i)));
+        }
+        return counts;
+    }
+
+    private QueueStatusResponseDTO toStatus(Long matchId, Long userId, String[] state, String position,
+                                            QueueCounters counters, long prunedBefore, long now) {
+        boolean dequeued = QueuePosition.isDequeued(state);
+        long ahead;
+        long lastUpdated = now;
+        if (!dequeued && position != null) {
+            // SWEEP 모드: 기록된 순번 사용 (ahead|behind|total|lastUpdated)
+            String[] p = position.split("\\|");
+            ahead = Long.parseLong(p[0]);
+            if (p.length > 3) lastUpdated = Long.parseLong(p[3]);
+        } else {
+            ahead = QueuePosition.ahead(state, counters.offset(), counters.botOffset(), prunedBefore);
+        }
+
+        long etaSeconds = dequeued ? 0L : QueuePosition.etaSeconds(ahead, counters.throughput());
+
+        return QueueStatusResponseDTO.builder()
+                .matchId(matchId)
+                .userId(userId)
+                .status(state[0])
+                .positionAhead(ahead)
+                .positionBehind(QueuePosition.behind(counters.total(), ahead))
+                .totalNum(counters.total())
+                .throughput(counters.throughput())
+                .etaSeconds(etaSeconds)
+                .pollAfterMs(pollAfterMs(etaSeconds))
+                // 소비(pop)와 이탈 정리 모두 순번을 바꾸므로 둘 다 반영 (long-poll 비교 값)
+                .offset(counters.offset() + counters.botOffset() + counters.prunedVersion())
+                .lastUpdated(lastUpdated)
+                .build();
+    }
+
+    private static String valueAt(List<?> values, int index) {
+        return index < values.size() && values.get(index) != null ? values.get(index).toString() : null;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number n ? n.longValue() : 0L;
+    }
+
+    // 매치 단위 대기열 공통 값 (readCounters 결과)
+    private record QueueCounters(long offset, long botOffset, long prunedVersion, long total, double throughput) {
+
+        static QueueCounters of(List<Object> results) {
+            List<?> values = results.get(0) instanceof List<?> l ? l : List.of();
+            String rate = valueAt(values, 2);
+            return new QueueCounters(
+                    QueuePosition.parseOrZero(valueAt(values, 0)),
+                    QueuePosition.parseOrZero(valueAt(values, 1)),
+                    QueuePosition.parseOrZero(valueAt(values, 3)),
+                    toLong(results.get(1)) + toLong(results.get(2)),
+                    rate == null ? 0d : Double.parseDouble(rate));
+        }
+    }
+
+    // ETA의 1/10 간격으로 조회하도록 권장 (1초 ~ 15초)
+    private long pollAfterMs(long etaSeconds) {
+        if (etaSeconds < 0) return UNKNOWN_ETA_POLL_MS;
+        return Math.max(MIN_POLL_MS, Math.min(MAX_POLL_MS, etaSeconds * 100));
     }
 
     // matchesDB에 데이터를 저장한다.
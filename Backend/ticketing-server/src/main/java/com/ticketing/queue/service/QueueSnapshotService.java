@@ -0,0 +1,324 @@
+package com.ticketing.queue.service;
+
+import com.ticketing.queue.domain.enums.QueueKeys;
+import com.ticketing.queue.snapshot.QueueSnapshot;
+import com.ticketing.queue.snapshot.QueueSnapshotDelta;
+import com.ticketing.queue.snapshot.QueueSnapshotStore;
+import com.ticketing.queue.snapshot.SnapshotLane;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 대기열 스냅샷 / 복구
+ *
+ * Redis가 재시작되거나 페일오버되어 대기열 키가 사라져도 진행 중인 매치를 이어갈 수 있도록
+ * 이 노드가 소유한 매치의 대기열(waiting/bots ZSET, seq, offset, bot-offset, total)을 주기적으로 로컬 디스크에 남긴다.
+ * - 평소에는 직전 스냅샷 이후 변경분(맨 앞 seq + 새로 들어온 항목 + 이탈 정리로 중간에서 빠진 사람)만 delta로 append
+ *   중간에서 빠진 사람은 pruned ZSET(score = seq)에서 직전 스냅샷 범위 안의 항목을 읽어 남긴다. (pruned-version이 바뀐 주기만 조회)
+ * - compact-every 번마다 전체 스냅샷(base)으로 다시 씀
+ *
+ * 복구 (두 레인이 모두 비고 seq도 없는데 스냅샷에는 대기자가 있을 때 = Redis 유실)
+ * - 기동 시 디스크의 스냅샷 전체 확인 (ApplicationRunner)
+ * - 실행 중에는 스냅샷 대상 매치의 키가 사라진 것을 감지했을 때
+ * 대기열/카운터를 되살리고, 사용자 상태 Hash는 복구 시점 기준 순번으로 다시 만든다.
+ * 파이프라인으로 한 번에 밀어 넣으므로 10만 명 대기열도 수 초 안에 복구된다.
+ *
+ * 복구되지 않는 것: 커밋 대기 중인 윈도우 Stream, 이탈 기록(pruned ZSET 자체), 마지막 스냅샷 이후 변경분
+ * (이탈 정리된 사용자는 대기열로 되살리지 않으며, 복구 시 순번은 남은 사람 기준으로 다시 계산하므로 pruned 보정이 필요 없다)
+ */
+@Slf4j
+@Component
+public class QueueSnapshotService implements ApplicationRunner {
+    private static final String ENQUEUED = "ENQUEUED";
+    private static final int RESTORE_CHUNK = 1000;
+    private static final long MATCH_EXPIRE_SECONDS = 30 * 60;
+    private static final Duration RESTORE_LOCK_TTL = Duration.ofSeconds(60);
+
+    private final StringRedisTemplate redis;
+    private final QueueSnapshotStore store;
+    private final QueueOwnershipManager queueOwnershipManager;
+    private final QueueTickExecutor queueTickExecutor;
+    private final boolean enabled;
+    private final int compactEvery;
+    private final long maxAgeMs;
+
+    // 스냅샷을 남기고 있는 매치별 진행 상황
+    private final Map<Long, Tracker> trackers = new ConcurrentHashMap<>();
+
+    public QueueSnapshotService(StringRedisTemplate redis,
+                                QueueSnapshotStore store,
+                                QueueOwnershipManager queueOwnershipManager,
+                                QueueTickExecutor queueTickExecutor,
+                                @Value("${queue.snapshot.enabled:true}") boolean enabled,
+                                @Value("${queue.snapshot.compact-every:12}") int compactEvery,
+                                @Value("${queue.snapshot.max-age-ms:1800000}") long maxAgeMs) {
+        this.redis = redis;
+        this.store = store;
+        this.queueOwnershipManager = queueOwnershipManager;
+        this.queueTickExecutor = queueTickExecutor;
+        this.enabled = enabled;
+        this.compactEvery = Math.max(1, compactEvery);
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    // 기동 시 복구
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+
+        try {
+            for (Long matchId : store.storedMatchIds()) {
+                if (!restoreIfLost(matchId)) {
+                    // Redis에 대기열이 살아 있음: 소유권을 다시 얻으면 새로 스냅샷을 남긴다.
+                    store.delete(matchId);
+                }
+            }
+        } catch (Exception e) {
+            log.error("❌ 기동 시 대기열 스냅샷 복구 실패", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${queue.snapshot.interval-ms:5000}")
+    public void snapshotTick() {
+        if (!enabled) return;
+
+        Set<Long> owned = queueOwnershipManager.ownedMatchIds();
+        for (Long matchId : owned) {
+            queueTickExecutor.submit("snapshot", matchId, () -> snapshotMatch(matchId));
+        }
+
+        // 소유권을 잃은 매치: Redis 유실로 활성 목록까지 사라진 경우인지 확인
+        for (Long matchId : new HashSet<>(trackers.keySet())) {
+            if (owned.contains(matchId)) continue;
+            queueTickExecutor.submit("snapshot", matchId, () -> {
+                if (!restoreIfLost(matchId)) {
+                    // 다른 노드로 넘어갔거나 종료된 매치
+                    trackers.remove(matchId);
+                    store.delete(matchId);
+                }
+            });
+        }
+    }
+
+    private void snapshotMatch(long matchId) {
+        List<String> counters = redis.opsForValue().multiGet(List.of(
+                QueueKeys.sequence(matchId),
+                QueueKeys.roomOffset(matchId),
+                QueueKeys.botOffset(matchId),
+                QueueKeys.roomTotal(matchId),
+                "match:" + matchId + ":room"));
+        if (counters == null || counters.get(0) == null) {
+            // 아직 아무도 들어오지 않았거나 Redis 유실
+            if (trackers.containsKey(matchId)) restoreIfLost(matchId);
+            return;
+        }
+
+        long seq = parseLong(counters.get(0));
+        long offset = parseLong(counters.get(1));
+        long botOffset = parseLong(counters.get(2));
+        long total = parseLong(counters.get(3));
+        long now = System.currentTimeMillis();
+
+        try {
+            Tracker tracker = trackers.get(matchId);
+            // 레인보다 먼저 읽는다 (사이에 정리된 사용자는 다음 주기에 다시 확인)
+            long prunedVersion = parseLong(redis.opsForValue().get(QueueKeys.prunedVersion(matchId)));
+            if (tracker == null || tracker.deltas >= compactEvery) {
+                SnapshotLane humans = toLane(redis.opsForZSet().rangeWithScores(QueueKeys.waitingZSet(matchId), 0, -1));
+                SnapshotLane bots = toLane(redis.opsForZSet().rangeWithScores(QueueKeys.botZSet(matchId), 0, -1));
+                Long roomId = counters.get(4) == null ? null : parseLong(counters.get(4));
+
+                store.writeBase(new QueueSnapshot(matchId, roomId, seq, offset, botOffset, total, now, humans, bots));
+                trackers.put(matchId, new Tracker(humans.maxSeq(), bots.maxSeq(), prunedVersion));
+                return;
+            }
+
+            // 맨 앞 seq를 먼저 읽고 새 항목을 읽는다 (사이에 들어온 항목이 잘려 나가지 않도록)
+            long humanHead = headSeq(QueueKeys.waitingZSet(matchId));
+            long botHead = headSeq(QueueKeys.botZSet(matchId));
+            SnapshotLane humans = toLane(redis.opsForZSet().rangeByScoreWithScores(
+                    QueueKeys.waitingZSet(matchId), tracker.humanMaxSeq + 1, Double.POSITIVE_INFINITY));
+            SnapshotLane bots = toLane(redis.opsForZSet().rangeByScoreWithScores(
+                    QueueKeys.botZSet(matchId), tracker.botMaxSeq + 1, Double.POSITIVE_INFINITY));
+            // 스냅샷에 남아 있는 범위(맨 앞 ~ 직전 마지막 seq)에서 이탈 정리된 사람
+            SnapshotLane removed = (prunedVersion == tracker.prunedVersion || humanHead > tracker.humanMaxSeq)
+                    ? new SnapshotLane(0)
+                    : toLane(redis.opsForZSet().rangeByScoreWithScores(
+                            QueueKeys.pruned(matchId), humanHead, tracker.humanMaxSeq));
+
+            store.appendDelta(matchId, new QueueSnapshotDelta(
+                    seq, offset, botOffset, total, now, humanHead, botHead, humans, bots, removed));
+            tracker.humanMaxSeq = Math.max(tracker.humanMaxSeq, humans.maxSeq());
+            tracker.botMaxSeq = Math.max(tracker.botMaxSeq, bots.maxSeq());
+            tracker.prunedVersion = prunedVersion;
+            tracker.deltas++;
+        } catch (Exception e) {
+            // 다음 주기에 base부터 다시
+            trackers.remove(matchId);
+            log.warn("⚠️ 대기열 스냅샷 저장 실패: matchId={} {}", matchId, e.getMessage());
+        }
+    }
+
+    /**
+     * Redis에서 대기열이 사라졌고 쓸 만한 스냅샷이 있으면 복구
+     *
+     * @return 복구했으면 true
+     */
+    private boolean restoreIfLost(long matchId) {
+        try {
+            Long existing = redis.countExistingKeys(List.of(
+                    QueueKeys.sequence(matchId), QueueKeys.waitingZSet(matchId), QueueKeys.botZSet(matchId)));
+            if (existing != null && existing > 0) return false;
+
+            Optional<QueueSnapshot> loaded = store.load(matchId);
+            if (loaded.isEmpty()) return false;
+
+            QueueSnapshot snapshot = loaded.get();
+            long age = System.currentTimeMillis() - snapshot.takenAt();
+            if (age > maxAgeMs) {
+                log.info("오래된 대기열 스냅샷 삭제: matchId={} age={}ms", matchId, age);
+                store.delete(matchId);
+                trackers.remove(matchId);
+                return true;
+            }
+            if (snapshot.humans().size() + snapshot.bots().size() == 0) return false;
+
+            // 여러 노드가 같은 스냅샷을 갖고 있어도 한 번만 복구
+            Boolean locked = redis.opsForValue().setIfAbsent(QueueKeys.restoreLock(matchId),
+                    queueOwnershipManager.nodeId(), RESTORE_LOCK_TTL);
+            if (!Boolean.TRUE.equals(locked)) return true;
+
+            long startedAt = System.currentTimeMillis();
+            restore(snapshot);
+            // 다음 주기에 base부터 새로 남김
+            trackers.remove(matchId);
+
+            log.warn("⚠️ Redis 대기열 유실 감지, 스냅샷으로 복구: matchId={} 사람={} 봇={} 스냅샷 경과={}ms 소요={}ms",
+                    matchId, snapshot.humans().size(), snapshot.bots().size(), age,
+                    System.currentTimeMillis() - startedAt);
+            return true;
+        } catch (Exception e) {
+            log.error("❌ 대기열 스냅샷 복구 실패: matchId={}", matchId, e);
+            return false;
+        }
+    }
+
+    private void restore(QueueSnapshot s) {
+        long matchId = s.matchId();
+        long now = System.currentTimeMillis();
+        SnapshotLane humans = s.humans();
+        SnapshotLane bots = s.bots();
+
+        // 1) 봇 레인
+        for (int from = 0; from < bots.size(); from += RESTORE_CHUNK) {
+            int start = from;
+            int end = Math.min(bots.size(), from + RESTORE_CHUNK);
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection c = (StringRedisConnection) connection;
+                for (int i = start; i < end; i++) {
+                    c.zAdd(QueueKeys.botZSet(matchId), bots.seq(i), String.valueOf(bots.id(i)));
+                }
+                return null;
+            });
+        }
+
+        // 2) 사람 레인 + 상태 Hash + 생존 신호 (순번은 복구 시점 기준으로 다시 계산)
+        //    state|joinedAt|rawRank|joinOffset|botRank|botJoinOffset|seq|prunedAtJoin
+        int[] botCursor = {0};
+        for (int from = 0; from < humans.size(); from += RESTORE_CHUNK) {
+            int start = from;
+            int end = Math.min(humans.size(), from + RESTORE_CHUNK);
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection c = (StringRedisConnection) connection;
+                for (int i = start; i < end; i++) {
+                    String userId = String.valueOf(humans.id(i));
+                    long seq = humans.seq(i);
+                    while (botCursor[0] < bots.size() && bots.seq(botCursor[0]) < seq) botCursor[0]++;
+
+                    c.zAdd(QueueKeys.waitingZSet(matchId), seq, userId);
+                    c.hSet(QueueKeys.userStates(matchId), userId,
+                            ENQUEUED + "|" + s.takenAt() + "|" + i + "|" + s.offset()
+                                    + "|" + botCursor[0] + "|" + s.botOffset() + "|" + seq + "|0");
+                    c.zAdd(QueueKeys.heartbeat(matchId), now, userId);
+                }
+                return null;
+            });
+        }
+
+        // 3) 카운터 / 활성 목록 (seq는 레인에 남은 최대값보다 작지 않게)
+        long seq = Math.max(s.seq(), Math.max(humans.maxSeq(), bots.maxSeq()));
+        redis.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection c = (StringRedisConnection) connection;
+            c.setEx(QueueKeys.sequence(matchId), MATCH_EXPIRE_SECONDS, String.valueOf(seq));
+            c.setEx(QueueKeys.roomOffset(matchId), MATCH_EXPIRE_SECONDS, String.valueOf(s.offset()));
+            c.setEx(QueueKeys.botOffset(matchId), MATCH_EXPIRE_SECONDS, String.valueOf(s.botOffset()));
+            c.setEx(QueueKeys.roomTotal(matchId), MATCH_EXPIRE_SECONDS, String.valueOf(humans.size() + bots.size()));
+            if (humans.size() > 0) {
+                c.expire(QueueKeys.userStates(matchId), MATCH_EXPIRE_SECONDS);
+            }
+            if (s.roomId() != null) {
+                c.setNX("match:" + matchId + ":room", String.valueOf(s.roomId()));
+                c.expire("match:" + matchId + ":room", MATCH_EXPIRE_SECONDS);
+            }
+            c.sAdd(QueueKeys.activeMatches(), String.valueOf(matchId));
+            return null;
+        });
+    }
+
+    // 비어 있으면 Long.MAX_VALUE (스냅샷의 기존 항목이 모두 빠져나감)
+    private long headSeq(String key) {
+        Set<ZSetOperations.TypedTuple<String>> head = redis.opsForZSet().rangeWithScores(key, 0, 0);
+        if (head == null || head.isEmpty()) return Long.MAX_VALUE;
+        Double score = head.iterator().next().getScore();
+        return score == null ? Long.MAX_VALUE : score.longValue();
+    }
+
+    private static SnapshotLane toLane(Set<ZSetOperations.TypedTuple<String>> tuples) {
+        SnapshotLane lane = new SnapshotLane(tuples == null ? 0 : tuples.size());
+        if (tuples == null) return lane;
+        for (ZSetOperations.TypedTuple<String> t : tuples) {
+            if (t.getValue() == null || t.getScore() == null) continue;
+            lane.add(Long.parseLong(t.getValue()), t.getScore().longValue());
+        }
+        return lane;
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) return 0L;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static class Tracker {
+        long humanMaxSeq;
+        long botMaxSeq;
+        // 직전 스냅샷 시점의 pruned-version (바뀐 주기에만 중간 이탈을 조회)
+        long prunedVersion;
+        int deltas;
+
+        Tracker(long humanMaxSeq, long botMaxSeq, long prunedVersion) {
+            this.humanMaxSeq = humanMaxSeq;
+            this.botMaxSeq = botMaxSeq;
+            this.prunedVersion = prunedVersion;
+        }
+    }
+}
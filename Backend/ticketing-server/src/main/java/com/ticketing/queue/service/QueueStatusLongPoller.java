@@ -0,0 +1,163 @@
+package com.ticketing.queue.service;
+
+import com.ticketing.queue.DTO.response.QueueStatusResponseDTO;
+import com.ticketing.queue.domain.enums.QueueKeys;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 대기열 상태 long-poll
+ *
+ * 클라이언트가 마지막으로 본 offset(사람 + 봇 누적 소비 인원 + 이탈 정리 버전)을 보내면,
+ * 매치의 offset이 그보다 앞서 나갈 때까지 요청을 DeferredResult로 보류한다.
+ * (이탈 정리는 소비 없이도 앞 사람 수를 줄이므로 pruned-version도 함께 본다)
+ * - 보류 중인 요청은 서블릿 스레드를 점유하지 않는다.
+ * - check-ms 주기로 대기자가 있는 매치의 offset만 한 번의 파이프라인으로 확인한다.
+ *   (대기열을 소비하는 노드가 달라도 Redis 값 기준이라 동작)
+ * - timeout 까지 변화가 없으면 304 Not Modified → 클라이언트는 같은 lastOffset으로 다시 요청
+ * 긴 대기열에서 조회 요청 수가 "순번이 움직인 횟수" 수준으로 줄어든다.
+ */
+@Slf4j
+@Component
+public class QueueStatusLongPoller {
+    private static final String DEQUEUED = "DEQUEUED";
+
+    private final StringRedisTemplate redis;
+    private final QueueService queueService;
+    private final long maxTimeoutMs;
+    private final int maxWaiters;
+
+    // 매치별 보류 중인 요청
+    private final Map<Long, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+    // 응답 생성 (상태 조회는 Redis 호출이 여러 번이라 체크 스레드에서 분리)
+    private final ExecutorService responder = Executors.newVirtualThreadPerTaskExecutor();
+
+    public QueueStatusLongPoller(StringRedisTemplate redis,
+                                 QueueService queueService,
+                                 @Value("${queue.long-poll.max-timeout-ms:20000}") long maxTimeoutMs,
+                                 @Value("${queue.long-poll.max-waiters:20000}") int maxWaiters) {
+        this.redis = redis;
+        this.queueService = queueService;
+        this.maxTimeoutMs = maxTimeoutMs;
+        this.maxWaiters = maxWaiters;
+    }
+
+    public DeferredResult<ResponseEntity<?>> poll(Long matchId, Long userId, Long lastOffset, Long timeoutMs) {
+        long timeout = Math.max(1L, Math.min(maxTimeoutMs, timeoutMs == null ? maxTimeoutMs : timeoutMs));
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(timeout);
+
+        // 현재 상태 (생존 신호 갱신, 상태가 없으면 404)
+        QueueStatusResponseDTO current = queueService.getQueueStatus(matchId, userId);
+
+        // 바로 응답: offset을 모르거나, 이미 움직였거나, 대기열을 빠져나갔거나, 보류 한도 초과
+        if (lastOffset == null
+                || current.getOffset() != lastOffset
+                || DEQUEUED.equals(current.getStatus())
+                || waiterCount.get() >= maxWaiters) {
+            result.setResult(ResponseEntity.ok(current));
+            return result;
+        }
+
+        Waiter waiter = new Waiter(matchId, userId, lastOffset, result);
+        waiters.compute(matchId, (id, set) -> {
+            if (set == null) set = ConcurrentHashMap.newKeySet();
+            set.add(waiter);
+            return set;
+        });
+        waiterCount.incrementAndGet();
+
+        result.onTimeout(() -> result.setResult(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build()));
+        result.onCompletion(() -> remove(waiter));
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${queue.long-poll.check-ms:100}")
+    public void check() {
+        if (waiters.isEmpty()) return;
+
+        List<Long> matchIds = new ArrayList<>(waiters.keySet());
+        List<Object> offsets;
+        try {
+            offsets = redis.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection c = (StringRedisConnection) connection;
+                for (Long matchId : matchIds) {
+                    c.mGet(QueueKeys.roomOffset(matchId), QueueKeys.botOffset(matchId), QueueKeys.prunedVersion(matchId));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("⚠️ long-poll offset 조회 실패: {}", e.getMessage());
+            return;
+        }
+
+        for (int i = 0; i < matchIds.size(); i++) {
+            Long matchId = matchIds.get(i);
+            long offset = sum(offsets.get(i));
+
+            Set<Waiter> set = waiters.get(matchId);
+            if (set == null) continue;
+            for (Waiter waiter : set) {
+                if (offset != waiter.lastOffset() && set.remove(waiter)) {
+                    waiterCount.decrementAndGet();
+                    responder.execute(() -> respond(waiter));
+                }
+            }
+        }
+    }
+
+    private void respond(Waiter waiter) {
+        try {
+            waiter.result().setResult(ResponseEntity.ok(queueService.getQueueStatus(waiter.matchId(), waiter.userId())));
+        } catch (Exception e) {
+            // QueueStatusNotFoundException 등은 GlobalExceptionHandler에서 처리
+            waiter.result().setErrorResult(e);
+        }
+    }
+
+    private void remove(Waiter waiter) {
+        waiters.computeIfPresent(waiter.matchId(), (id, set) -> {
+            if (set.remove(waiter)) waiterCount.decrementAndGet();
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static long sum(Object values) {
+        long sum = 0L;
+        if (values instanceof List<?> list) {
+            for (Object v : list) {
+                if (v == null) continue;
+                try {
+                    sum += Long.parseLong(v.toString());
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        return sum;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        responder.shutdownNow();
+    }
+
+    private record Waiter(Long matchId, Long userId, long lastOffset, DeferredResult<ResponseEntity<?>> result) {}
+}
@@ -0,0 +1,72 @@
+package com.ticketing.queue.service;
+
+import com.ticketing.queue.domain.enums.QueueKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 매치별 실제 대기열 소비 속도(초당 pop 수) 추적
+ *
+ * emitTick에서 꺼낸 인원(사람 + 봇)을 누적하고, 커밋 주기마다 구간 속도를 EWMA로 반영해
+ * queue:{matchId}:rate 에 기록한다. 상태 조회 API와 room-server 푸시에서 예상 대기 시간 계산에 사용한다.
+ *   ewma = alpha * 구간 속도 + (1 - alpha) * 이전 ewma
+ */
+@Slf4j
+@Component
+public class QueueThroughputTracker {
+    private static final Duration RATE_TTL = Duration.ofSeconds(1800);
+
+    private final StringRedisTemplate redis;
+    private final double alpha;
+    private final Map<Long, Throughput> throughputs = new ConcurrentHashMap<>();
+
+    public QueueThroughputTracker(StringRedisTemplate redis,
+                                  @Value("${queue.eta.ewma-alpha:0.3}") double alpha) {
+        this.redis = redis;
+        this.alpha = alpha;
+    }
+
+    // emitTick: 이번 틱에 꺼낸 인원
+    public void recordPops(long matchId, int count) {
+        throughputs.computeIfAbsent(matchId, id -> new Throughput()).pops.add(count);
+    }
+
+    // commitWindow: 직전 커밋 이후 구간 속도를 EWMA에 반영하고 Redis에 기록
+    public void update(long matchId) {
+        Throughput t = throughputs.computeIfAbsent(matchId, id -> new Throughput());
+
+        long now = System.currentTimeMillis();
+        long elapsedMs = now - t.lastUpdatedAt;
+        if (elapsedMs <= 0) return;
+
+        double rate = t.pops.sumThenReset() * 1000.0 / elapsedMs;
+        // 소유권을 새로 가져온 경우: 이전 노드가 기록한 값에서 이어서 계산
+        if (t.ewma < 0) {
+            String stored = redis.opsForValue().get(QueueKeys.rate(matchId));
+            t.ewma = stored == null ? rate : Double.parseDouble(stored);
+        }
+        t.ewma = alpha * rate + (1 - alpha) * t.ewma;
+        t.lastUpdatedAt = now;
+
+        redis.opsForValue().set(QueueKeys.rate(matchId), String.valueOf(Math.round(t.ewma * 1000) / 1000.0), RATE_TTL);
+    }
+
+    // 이 노드가 더 이상 소유하지 않는 매치 정리
+    public void retain(Set<Long> matchIds) {
+        throughputs.keySet().retainAll(matchIds);
+    }
+
+    private static class Throughput {
+        final LongAdder pops = new LongAdder();
+        volatile long lastUpdatedAt = System.currentTimeMillis();
+        volatile double ewma = -1;
+    }
+}
@@ -0,0 +1,150 @@
+package com.ticketing.queue.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대기열 틱 작업을 매치 단위로 병렬 실행하는 실행기 (가상 스레드)
+ *
+ * - 동시에 실행되는 매치 작업 수는 max-concurrency로 제한한다.
+ * - 같은 매치의 같은 작업(emit/commit/positions)은 겹쳐 실행하지 않는다.
+ *   이전 틱이 아직 끝나지 않았으면 이번 틱은 건너뛰고 overrun으로 기록한다.
+ *
+ * 지표 (tag: phase) — matchId 태그는 매치마다 미터가 쌓여 카디널리티가 끝없이 늘어나므로 붙이지 않는다.
+ *   queue.tick.duration : 작업 1건 소요 시간 (phase 단위 분포)
+ *   queue.tick.skew     : 스케줄 시점 ~ 실제 시작 시점 지연 (phase 단위 분포)
+ *   queue.tick.overrun  : 이전 틱이 끝나지 않아 건너뛴 횟수
+ *   queue.tick.rejected : 동시 실행 한도 초과로 건너뛴 횟수
+ *   queue.tick.slow     : 소요 시간 또는 지연이 slow-ms를 넘은 작업 수
+ *
+ * 매치별 값은 로그로 본다: report-ms 구간마다 slow-ms를 넘은 작업 중 가장 느린 SLOW_REPORT_LIMIT건을
+ * phase / matchId / 최대 소요 시간 / 최대 지연과 함께 남긴다. (구간 집계는 실행 중인 작업 키 수만큼만 유지)
+ */
+@Slf4j
+@Component
+public class QueueTickExecutor {
+    // 구간마다 로그에 남길 느린 작업 수
+    private static final int SLOW_REPORT_LIMIT = 10;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore concurrency;
+    private final MeterRegistry meterRegistry;
+    private final long slowNanos;
+
+    // 실행 중인 작업 (phase:matchId)
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    // 이번 구간에 slow-ms를 넘은 작업 (phase:matchId → 최대 소요 시간 / 최대 지연)
+    private final Map<String, SlowTick> slowTicks = new ConcurrentHashMap<>();
+
+    public QueueTickExecutor(MeterRegistry meterRegistry,
+                             @Value("${queue.tick.max-concurrency:64}") int maxConcurrency,
+                             @Value("${queue.tick.slow-ms:100}") long slowMs) {
+        this.meterRegistry = meterRegistry;
+        this.concurrency = new Semaphore(maxConcurrency);
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMs);
+    }
+
+    public void submit(String phase, long matchId, Runnable task) {
+        String runKey = phase + ":" + matchId;
+
+        // 같은 매치의 이전 틱이 아직 실행 중이면 건너뜀
+        if (!running.add(runKey)) {
+            meterRegistry.counter("queue.tick.overrun", "phase", phase).increment();
+            log.debug("이전 틱 실행 중, 건너뜀: phase={} matchId={}", phase, matchId);
+            return;
+        }
+
+        // 스케줄러 스레드는 막지 않는다: 한도 초과 시 이번 틱은 건너뜀
+        if (!concurrency.tryAcquire()) {
+            running.remove(runKey);
+            meterRegistry.counter("queue.tick.rejected", "phase", phase).increment();
+            return;
+        }
+
+        long scheduledAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                long skew = startedAt - scheduledAt;
+                Timer.builder("queue.tick.skew").tags("phase", phase)
+                        .register(meterRegistry)
+                        .record(skew, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.error("❌ 대기열 틱 처리 실패: phase={} matchId={}", phase, matchId, e);
+                } finally {
+                    long duration = System.nanoTime() - startedAt;
+                    Timer.builder("queue.tick.duration").tags("phase", phase)
+                            .register(meterRegistry)
+                            .record(duration, TimeUnit.NANOSECONDS);
+                    recordSlow(runKey, phase, matchId, duration, skew);
+                    concurrency.release();
+                    running.remove(runKey);
+                }
+            });
+        } catch (Exception e) {
+            concurrency.release();
+            running.remove(runKey);
+            log.error("❌ 대기열 틱 작업 제출 실패: phase={} matchId={}", phase, matchId, e);
+        }
+    }
+
+    private void recordSlow(String runKey, String phase, long matchId, long duration, long skew) {
+        if (duration <= slowNanos && skew <= slowNanos) return;
+
+        meterRegistry.counter("queue.tick.slow", "phase", phase).increment();
+        slowTicks.merge(runKey, new SlowTick(phase, matchId, duration, skew, 1),
+                (prev, cur) -> new SlowTick(phase, matchId,
+                        Math.max(prev.maxDuration(), duration), Math.max(prev.maxSkew(), skew), prev.count() + 1));
+    }
+
+    // 구간 동안 느렸던 매치를 느린 순으로 SLOW_REPORT_LIMIT건만 남기고 집계를 비운다.
+    @Scheduled(fixedDelayString = "${queue.tick.report-ms:10000}")
+    public void reportSlow() {
+        if (slowTicks.isEmpty()) return;
+
+        List<SlowTick> ticks = new ArrayList<>();
+        for (String key : new ArrayList<>(slowTicks.keySet())) {
+            SlowTick tick = slowTicks.remove(key);
+            if (tick != null) ticks.add(tick);
+        }
+        ticks.sort(Comparator.comparingLong((SlowTick t) -> Math.max(t.maxDuration(), t.maxSkew())).reversed());
+
+        for (SlowTick t : ticks.subList(0, Math.min(SLOW_REPORT_LIMIT, ticks.size()))) {
+            log.warn("⚠️ 느린 대기열 틱: phase={} matchId={} 최대소요={}ms 최대지연={}ms 횟수={}",
+                    t.phase(), t.matchId(), TimeUnit.NANOSECONDS.toMillis(t.maxDuration()),
+                    TimeUnit.NANOSECONDS.toMillis(t.maxSkew()), t.count());
+        }
+        if (ticks.size() > SLOW_REPORT_LIMIT) {
+            log.warn("⚠️ 느린 대기열 틱 {}건 중 {}건만 표시", ticks.size(), SLOW_REPORT_LIMIT);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private record SlowTick(String phase, long matchId, long maxDuration, long maxSkew, int count) {}
+}
@@ -0,0 +1,29 @@
+package com.ticketing.queue.snapshot;
+
+/**
+ * 매치 하나의 대기열 상태 스냅샷
+ *
+ * @param roomId  match:{matchId}:room 값 (없으면 null)
+ * @param takenAt 스냅샷 시각 (ms)
+ */
+public record QueueSnapshot(long matchId,
+                            Long roomId,
+                            long seq,
+                            long offset,
+                            long botOffset,
+                            long total,
+                            long takenAt,
+                            SnapshotLane humans,
+                            SnapshotLane bots) {
+
+    // 증분 반영: 카운터 교체, 레인 앞부분 잘라내고 중간에서 빠진 사람 제거, 새 항목 이어 붙임
+    public QueueSnapshot apply(QueueSnapshotDelta delta) {
+        humans.trimBefore(delta.humanHeadSeq());
+        humans.removeAll(delta.removedHumans());
+        humans.appendAfter(delta.humans());
+        bots.trimBefore(delta.botHeadSeq());
+        bots.appendAfter(delta.bots());
+        return new QueueSnapshot(matchId, roomId, delta.seq(), delta.offset(), delta.botOffset(), delta.total(),
+                delta.takenAt(), humans, bots);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ticketing.queue.snapshot;
+
+/**
+ * 직전 스냅샷 이후 변경분
+ *
+ * @param humanHeadSeq 사람 대기열 맨 앞 seq (이보다 작은 항목은 빠져나감, 비어 있으면 Long.MAX_VALUE)
+ * @param botHeadSeq   봇 대기열 맨 앞 seq
+ * @param humans       직전 스냅샷의 마지막 seq 이후 새로 들어온 사람
+ * @param bots         직전 스냅샷의 마지막 seq 이후 새로 들어온 봇
+ * @param removedHumans 맨 앞이 아닌 위치에서 빠진 사람 (이탈 정리, seq 오름차순). 이전 delta와 겹쳐도 된다
+ */
+public record QueueSnapshotDelta(long seq,
+                                 long offset,
+                                 long botOffset,
+                                 long total,
+                                 long takenAt,
+                                 long humanHeadSeq,
+                                 long botHeadSeq,
+                                 SnapshotLane humans,
+                                 SnapshotLane bots,
+                                 SnapshotLane removedHumans) {
+}
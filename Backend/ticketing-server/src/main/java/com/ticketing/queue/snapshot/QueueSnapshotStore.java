@@ -0,0 +1,277 @@
+package com.ticketing.queue.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 대기열 스냅샷 로컬 디스크 저장소 (바이너리)
+ *
+ * 파일 (매치당 2개)
+ *   match-{matchId}.base  : 전체 스냅샷. 임시 파일에 쓴 뒤 원자적으로 교체
+ *   match-{matchId}.delta : 증분 레코드 append. base를 새로 쓰면 삭제
+ *
+ * 인코딩
+ *   정수는 varint(LEB128), userId는 음수(봇)가 있으므로 zigzag varint
+ *   레인 항목은 seq 오름차순이라 seq는 직전 값과의 차이만 기록 → 10만 명도 수백 KB 수준
+ *   base   : MAGIC | VERSION | payload | CRC32(payload)
+ *   delta  : (varint 길이 | payload | CRC32(payload))* — 끝이 잘린 레코드는 무시
+ *   VERSION 2: delta에 중간에서 빠진 사람 레인 추가 (VERSION 1 base는 delta 형식이 달라 무시)
+ */
+@Slf4j
+@Component
+public class QueueSnapshotStore {
+    private static final int MAGIC = 0x51534E50; // "QSNP"
+    private static final byte VERSION = 2;
+    private static final String BASE_SUFFIX = ".base";
+    private static final String DELTA_SUFFIX = ".delta";
+    private static final String PREFIX = "match-";
+
+    private final Path dir;
+
+    public QueueSnapshotStore(@Value("${queue.snapshot.dir:./queue-snapshots}") String dir) {
+        this.dir = Paths.get(dir);
+    }
+
+    // 전체 스냅샷 저장 (기존 delta 삭제)
+    public void writeBase(QueueSnapshot snapshot) throws IOException {
+        Files.createDirectories(dir);
+
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(64 + (snapshot.humans().size() + snapshot.bots().size()) * 6);
+        DataOutputStream out = new DataOutputStream(buf);
+        writeVarLong(out, snapshot.matchId());
+        writeZigZag(out, snapshot.roomId() == null ? -1L : snapshot.roomId());
+        writeCounters(out, snapshot.seq(), snapshot.offset(), snapshot.botOffset(), snapshot.total(), snapshot.takenAt());
+        writeLane(out, snapshot.humans());
+        writeLane(out, snapshot.bots());
+        out.flush();
+        byte[] payload = buf.toByteArray();
+
+        Path target = base(snapshot.matchId());
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream file = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            file.writeInt(MAGIC);
+            file.writeByte(VERSION);
+            file.write(payload);
+            file.writeInt((int) crc(payload, payload.length));
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(delta(snapshot.matchId()));
+    }
+
+    // 증분 레코드 추가 (base가 있어야 의미가 있음)
+    public void appendDelta(long matchId, QueueSnapshotDelta d) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(
+                64 + (d.humans().size() + d.bots().size() + d.removedHumans().size()) * 6);
+        DataOutputStream out = new DataOutputStream(buf);
+        writeCounters(out, d.seq(), d.offset(), d.botOffset(), d.total(), d.takenAt());
+        writeVarLong(out, d.humanHeadSeq());
+        writeVarLong(out, d.botHeadSeq());
+        writeLane(out, d.humans());
+        writeLane(out, d.bots());
+        writeLane(out, d.removedHumans());
+        out.flush();
+        byte[] payload = buf.toByteArray();
+
+        ByteArrayOutputStream record = new ByteArrayOutputStream(payload.length + 10);
+        DataOutputStream rec = new DataOutputStream(record);
+        writeVarLong(rec, payload.length);
+        rec.write(payload);
+        rec.writeInt((int) crc(payload, payload.length));
+        rec.flush();
+
+        Files.write(delta(matchId), record.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // base + 유효한 delta를 모두 반영한 스냅샷
+    public Optional<QueueSnapshot> load(long matchId) throws IOException {
+        Path basePath = base(matchId);
+        if (!Files.exists(basePath)) return Optional.empty();
+
+        QueueSnapshot snapshot;
+        byte[] bytes = Files.readAllBytes(basePath);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                log.warn("⚠️ 스냅샷 형식 불일치, 무시: {}", basePath);
+                return Optional.empty();
+            }
+            int payloadLength = bytes.length - 5 - 4;
+            if (payloadLength < 0
+                    || crc(bytes, 5, payloadLength) != Integer.toUnsignedLong(ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt())) {
+                log.warn("⚠️ 스냅샷 CRC 불일치, 무시: {}", basePath);
+                return Optional.empty();
+            }
+
+            long storedMatchId = readVarLong(in);
+            long roomId = readZigZag(in);
+            long[] c = readCounters(in);
+            SnapshotLane humans = readLane(in);
+            SnapshotLane bots = readLane(in);
+            snapshot = new QueueSnapshot(storedMatchId, roomId < 0 ? null : roomId,
+                    c[0], c[1], c[2], c[3], c[4], humans, bots);
+        }
+
+        Path deltaPath = delta(matchId);
+        if (!Files.exists(deltaPath)) return Optional.of(snapshot);
+
+        int applied = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(deltaPath)))) {
+            while (true) {
+                byte[] payload;
+                try {
+                    long length = readVarLong(in);
+                    if (length < 0 || length > Integer.MAX_VALUE) break;
+                    payload = in.readNBytes((int) length);
+                    long expected = Integer.toUnsignedLong(in.readInt());
+                    if (payload.length != length || crc(payload, payload.length) != expected) break;
+                } catch (EOFException e) {
+                    break;
+                }
+
+                DataInputStream rec = new DataInputStream(new ByteArrayInputStream(payload));
+                long[] c = readCounters(rec);
+                long humanHead = readVarLong(rec);
+                long botHead = readVarLong(rec);
+                SnapshotLane humans = readLane(rec);
+                SnapshotLane bots = readLane(rec);
+                SnapshotLane removedHumans = readLane(rec);
+                snapshot = snapshot.apply(new QueueSnapshotDelta(
+                        c[0], c[1], c[2], c[3], c[4], humanHead, botHead, humans, bots, removedHumans));
+                applied++;
+            }
+        }
+        log.debug("스냅샷 로드: matchId={} delta={}건", matchId, applied);
+        return Optional.of(snapshot);
+    }
+
+    // 디스크에 스냅샷이 있는 matchId
+    public List<Long> storedMatchIds() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return ids;
+
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(BASE_SUFFIX))
+                    .forEach(name -> {
+                        try {
+                            ids.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - BASE_SUFFIX.length())));
+                        } catch (NumberFormatException ignored) {
+                        }
+                    });
+        }
+        return ids;
+    }
+
+    public void delete(long matchId) {
+        try {
+            Files.deleteIfExists(base(matchId));
+            Files.deleteIfExists(delta(matchId));
+        } catch (IOException e) {
+            log.warn("⚠️ 스냅샷 삭제 실패: matchId={} {}", matchId, e.getMessage());
+        }
+    }
+
+    private Path base(long matchId) {
+        return dir.resolve(PREFIX + matchId + BASE_SUFFIX);
+    }
+
+    private Path delta(long matchId) {
+        return dir.resolve(PREFIX + matchId + DELTA_SUFFIX);
+    }
+
+    // ===== 인코딩 =====
+
+    private static void writeCounters(DataOutputStream out, long seq, long offset, long botOffset, long total,
+                                      long takenAt) throws IOException {
+        writeVarLong(out, seq);
+        writeVarLong(out, offset);
+        writeVarLong(out, botOffset);
+        writeVarLong(out, total);
+        writeVarLong(out, takenAt);
+    }
+
+    private static long[] readCounters(DataInputStream in) throws IOException {
+        return new long[]{readVarLong(in), readVarLong(in), readVarLong(in), readVarLong(in), readVarLong(in)};
+    }
+
+    private static void writeLane(DataOutputStream out, SnapshotLane lane) throws IOException {
+        writeVarLong(out, lane.size());
+        long prevSeq = 0L;
+        for (int i = 0; i < lane.size(); i++) {
+            writeVarLong(out, lane.seq(i) - prevSeq);
+            writeZigZag(out, lane.id(i));
+            prevSeq = lane.seq(i);
+        }
+    }
+
+    private static SnapshotLane readLane(DataInputStream in) throws IOException {
+        int size = (int) readVarLong(in);
+        SnapshotLane lane = new SnapshotLane(size);
+        long seq = 0L;
+        for (int i = 0; i < size; i++) {
+            seq += readVarLong(in);
+            lane.add(readZigZag(in), seq);
+        }
+        return lane;
+    }
+
+    private static void writeZigZag(OutputStream out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static long readZigZag(InputStream in) throws IOException {
+        long v = readVarLong(in);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long result = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) throw new EOFException();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IOException("varint 길이 초과");
+    }
+
+    private static long crc(byte[] bytes, int length) {
+        return crc(bytes, 0, length);
+    }
+
+    private static long crc(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return crc.getValue();
+    }
+}
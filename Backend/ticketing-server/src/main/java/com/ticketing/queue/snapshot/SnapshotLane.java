@@ -0,0 +1,92 @@
+package com.ticketing.queue.snapshot;
+
+import java.util.Arrays;
+
+/**
+ * 스냅샷 안의 대기열 레인 하나 (userId, seq 쌍을 seq 오름차순으로 보관)
+ *
+ * 대기열은 앞에서 빠지고(pop) 뒤에 붙으므로(seq 증가), 증분 반영은 "앞부분 잘라내기 + 뒤에 이어 붙이기"가 기본이고
+ * 중간에서 빠진 항목(이탈 정리)만 seq로 골라 지운다.
+ */
+public class SnapshotLane {
+    private long[] ids;
+    private long[] seqs;
+    private int head;
+    private int tail;
+
+    public SnapshotLane() {
+        this(16);
+    }
+
+    public SnapshotLane(int capacity) {
+        this.ids = new long[Math.max(1, capacity)];
+        this.seqs = new long[Math.max(1, capacity)];
+    }
+
+    public void add(long id, long seq) {
+        if (tail == ids.length) grow();
+        ids[tail] = id;
+        seqs[tail] = seq;
+        tail++;
+    }
+
+    // headSeq보다 작은 seq는 이미 대기열에서 빠진 것으로 보고 제거
+    public void trimBefore(long headSeq) {
+        while (head < tail && seqs[head] < headSeq) head++;
+    }
+
+    // removed에 있는 seq 항목 제거 (두 레인 모두 seq 오름차순, 없는 seq는 무시)
+    public void removeAll(SnapshotLane removed) {
+        if (removed.size() == 0 || size() == 0) return;
+
+        int write = head;
+        int r = 0;
+        for (int read = head; read < tail; read++) {
+            while (r < removed.size() && removed.seq(r) < seqs[read]) r++;
+            if (r < removed.size() && removed.seq(r) == seqs[read]) continue;
+            ids[write] = ids[read];
+            seqs[write] = seqs[read];
+            write++;
+        }
+        tail = write;
+    }
+
+    // 마지막 seq보다 큰 항목만 이어 붙임 (중복 방지)
+    public void appendAfter(SnapshotLane other) {
+        long last = maxSeq();
+        for (int i = 0; i < other.size(); i++) {
+            if (other.seq(i) > last) add(other.id(i), other.seq(i));
+        }
+    }
+
+    public int size() {
+        return tail - head;
+    }
+
+    public long id(int i) {
+        return ids[head + i];
+    }
+
+    public long seq(int i) {
+        return seqs[head + i];
+    }
+
+    // 비어 있으면 0
+    public long maxSeq() {
+        return tail > head ? seqs[tail - 1] : 0L;
+    }
+
+    private void grow() {
+        int size = size();
+        // 앞부분이 많이 비었으면 당겨서 재사용, 아니면 2배 확장
+        if (head > 0 && head >= ids.length / 2) {
+            System.arraycopy(ids, head, ids, 0, size);
+            System.arraycopy(seqs, head, seqs, 0, size);
+        } else {
+            ids = Arrays.copyOfRange(ids, head, head + Math.max(16, ids.length * 2));
+            seqs = Arrays.copyOfRange(seqs, head, head + Math.max(16, seqs.length * 2));
+        }
+        head = 0;
+        tail = size;
+    }
+}
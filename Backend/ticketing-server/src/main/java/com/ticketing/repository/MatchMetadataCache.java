@@ -0,0 +1,229 @@
+package com.ticketing.repository;
+
+import com.ticketing.entity.Match;
+import com.ticketing.queue.DTO.MatchInsertedEventDTO;
+import com.ticketing.seat.service.RoomServerClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 매치 메타데이터 인-프로세스 캐시 (roomId, 상태, 전체 좌석 수, 시작 시각, Redis OPEN 여부)
+ *
+ * 대기열 펌프(emitTick)와 좌석 Hold / Confirm 경로가 매 요청마다 MySQL / room-server / Redis를
+ * 조회하던 값을 메모리에서 제공한다.
+ * - 채움: startMatch 의 MatchInsertedEventDTO (커밋 후), 그 외 노드는 첫 조회 시 DB에서 1회 로드
+ * - 전체 좌석 수: room-server에서 매치당 1회 조회 (실패는 캐시하지 않음)
+ * - Redis OPEN 여부: status-ttl-ms 동안 캐시
+ * - 크기 제한: max-entries 초과 시 가장 오래 로드된 항목부터 제거
+ *
+ * 무효화 (버전)
+ *   상태를 바꾼 노드가 invalidate(matchId) 호출 → match:{matchId}:meta_version INCR 후
+ *   match:meta:invalidate 채널로 "{matchId}:{version}" 발행.
+ *   각 노드는 로드 시점에 읽어 둔 버전과 다르면 항목을 버린다 (이미 새 버전으로 다시 읽었으면 유지).
+ *   메시지를 놓친 노드도 ttl-ms / status-ttl-ms 가 지나면 다시 읽는다.
+ *
+ * 상태가 PLAYING 이 아닌 캐시 값은 믿지 않고 DB에서 다시 읽는다 (시작 직전 / 직후 경합 방지).
+ */
+@Slf4j
+@Component
+public class MatchMetadataCache implements MessageListener {
+
+    public static final String INVALIDATE_CHANNEL = "match:meta:invalidate";
+    private static final String OPEN = "OPEN";
+    private static final Duration VERSION_TTL = Duration.ofMinutes(35);
+
+    private final MatchRepository matchRepository;
+    private final RoomServerClient roomServerClient;
+    private final StringRedisTemplate redis;
+    private final long ttlMs;
+    private final long statusTtlMs;
+    private final int maxEntries;
+
+    private final Map<Long, MatchMetadata> cache = new ConcurrentHashMap<>();
+    // match:{matchId}:status 가 OPEN 인지 (짧게 캐시)
+    private final Map<Long, OpenState> openStates = new ConcurrentHashMap<>();
+
+    public MatchMetadataCache(MatchRepository matchRepository,
+                              RoomServerClient roomServerClient,
+                              StringRedisTemplate redis,
+                              @Value("${queue.match-cache.ttl-ms:1800000}") long ttlMs,
+                              @Value("${queue.match-cache.status-ttl-ms:2000}") long statusTtlMs,
+                              @Value("${queue.match-cache.max-entries:10000}") int maxEntries) {
+        this.matchRepository = matchRepository;
+        this.roomServerClient = roomServerClient;
+        this.redis = redis;
+        this.ttlMs = ttlMs;
+        this.statusTtlMs = statusTtlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    public record MatchMetadata(Long matchId, Long roomId, Match.MatchStatus status, Integer totalSeats,
+                                LocalDateTime startedAt, long version, long loadedAt) {
+
+        MatchMetadata withTotalSeats(Integer totalSeats) {
+            return new MatchMetadata(matchId, roomId, status, totalSeats, startedAt, version, loadedAt);
+        }
+    }
+
+    private record OpenState(boolean open, long version, long checkedAt) {}
+
+    public static String versionKey(Long matchId) {
+        return "match:" + matchId + ":meta_version";
+    }
+
+    // startMatch 커밋 직후 채움 (롤백되면 채우지 않음)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMatchInserted(MatchInsertedEventDTO e) {
+        if (e.getMatchId() == null) return;
+        put(new MatchMetadata(e.getMatchId(), e.getRoomId(), Match.MatchStatus.WAITING,
+                null, e.getStartedAt(), 0L, System.currentTimeMillis()));
+    }
+
+    // 캐시된 메타데이터 (없거나 만료되면 DB에서 로드, 매치가 없으면 null)
+    public MatchMetadata get(Long matchId) {
+        MatchMetadata cached = cache.get(matchId);
+        if (cached != null && !expired(cached)) return cached;
+        return load(matchId, cached);
+    }
+
+    public Long roomId(Long matchId) {
+        MatchMetadata m = get(matchId);
+        return m == null ? null : m.roomId();
+    }
+
+    // 경기 상태 (PLAYING 이 아니면 다른 노드에서 바뀌었을 수 있으므로 DB 재확인)
+    public Match.MatchStatus status(Long matchId) {
+        MatchMetadata m = get(matchId);
+        if (m == null) return null;
+        if (m.status() == Match.MatchStatus.PLAYING) return m.status();
+
+        MatchMetadata fresh = load(matchId, m);
+        return fresh == null ? null : fresh.status();
+    }
+
+    // 전체 좌석 수 (매치 중 변하지 않으므로 room-server에서 한 번만 조회)
+    public Integer totalSeats(Long matchId) {
+        MatchMetadata m = get(matchId);
+        if (m == null || m.roomId() == null) return null;
+        if (m.totalSeats() != null) return m.totalSeats();
+
+        Integer total = roomServerClient.getTotalSeats(m.roomId());
+        if (total != null && total > 0) {
+            cache.computeIfPresent(matchId, (id, cur) -> cur.withTotalSeats(total));
+        }
+        return total;
+    }
+
+    // match:{matchId}:status 가 OPEN 인지 (버전 + 상태를 MGET 한 번으로 읽어 status-ttl-ms 동안 캐시)
+    public boolean isOpen(Long matchId) {
+        OpenState state = openStates.get(matchId);
+        long now = System.currentTimeMillis();
+        if (state != null && now - state.checkedAt() <= statusTtlMs) return state.open();
+
+        List<String> values = redis.opsForValue().multiGet(List.of(versionKey(matchId), "match:" + matchId + ":status"));
+        long version = values == null ? 0L : parseVersion(values.get(0));
+        boolean open = values != null && OPEN.equalsIgnoreCase(values.get(1));
+
+        if (openStates.size() >= maxEntries) openStates.clear();
+        openStates.put(matchId, new OpenState(open, version, now));
+        return open;
+    }
+
+    // 상태(DB / Redis)를 바꾼 뒤 호출: 모든 노드의 캐시 항목을 무효화
+    public void invalidate(Long matchId) {
+        drop(matchId, -1L);
+        try {
+            String versionKey = versionKey(matchId);
+            Long version = redis.opsForValue().increment(versionKey);
+            redis.expire(versionKey, VERSION_TTL);
+            redis.convertAndSend(INVALIDATE_CHANNEL, matchId + ":" + version);
+        } catch (Exception e) {
+            // 다른 노드는 TTL 만료 후 다시 읽음
+            log.warn("⚠️ 매치 메타데이터 무효화 발행 실패: matchId={} {}", matchId, e.getMessage());
+        }
+    }
+
+    // match:meta:invalidate 수신 ("{matchId}:{version}")
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int split = body.indexOf(':');
+        try {
+            Long matchId = Long.valueOf(body.substring(0, split));
+            long version = Long.parseLong(body.substring(split + 1));
+            drop(matchId, version);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ 잘못된 매치 메타데이터 무효화 메시지: {}", body);
+        }
+    }
+
+    // 만료 항목 정리 (종료 이벤트를 받지 못한 노드의 메모리 누수 방지)
+    @Scheduled(fixedDelayString = "${queue.match-cache.purge-ms:60000}")
+    public void purge() {
+        cache.values().removeIf(this::expired);
+        long now = System.currentTimeMillis();
+        openStates.values().removeIf(s -> now - s.checkedAt() > statusTtlMs);
+    }
+
+    // 해당 버전을 이미 반영한 항목만 남기고 제거 (version < 0 이면 무조건 제거)
+    private void drop(Long matchId, long version) {
+        cache.computeIfPresent(matchId, (id, cur) -> cur.version() == version ? cur : null);
+        openStates.computeIfPresent(matchId, (id, cur) -> cur.version() == version ? cur : null);
+    }
+
+    private MatchMetadata load(Long matchId, MatchMetadata previous) {
+        // 버전을 DB보다 먼저 읽어야 그 사이의 무효화 메시지가 이 항목을 버린다
+        long version = parseVersion(redis.opsForValue().get(versionKey(matchId)));
+        Match match = matchRepository.findById(matchId).orElse(null);
+        if (match == null) {
+            cache.remove(matchId);
+            return null;
+        }
+
+        // 전체 좌석 수는 매치 중 변하지 않으므로 이전 값 유지
+        Integer totalSeats = previous != null && previous.roomId() != null
+                && previous.roomId().equals(match.getRoomId()) ? previous.totalSeats() : null;
+        MatchMetadata loaded = new MatchMetadata(matchId, match.getRoomId(), match.getStatus(), totalSeats,
+                match.getStartedAt(), version, System.currentTimeMillis());
+        put(loaded);
+        return loaded;
+    }
+
+    private void put(MatchMetadata metadata) {
+        cache.put(metadata.matchId(), metadata);
+        if (cache.size() <= maxEntries) return;
+
+        // 크기 초과: 가장 오래 로드된 항목 제거 (한도 근처에서만 발생)
+        cache.values().stream()
+                .min(Comparator.comparingLong(MatchMetadata::loadedAt))
+                .ifPresent(oldest -> cache.remove(oldest.matchId(), oldest));
+    }
+
+    private boolean expired(MatchMetadata m) {
+        return System.currentTimeMillis() - m.loadedAt() > ttlMs;
+    }
+
+    private static long parseVersion(String value) {
+        if (value == null) return 0L;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ticketing.seat.concurrency;
 
+import com.ticketing.seat.redis.SeatReservationRedisRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
@@ -7,13 +8,12 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 
 /**
  * 좌석 취소를 원자적으로 처리하는 Lua 스크립트 실행기
  *
  * 반환값:
- * - 0: 실패 (좌석이 해당 유저 소유 아님 / 좌석 없음)
+ * - 0: 실패 (좌석이 해당 유저 소유 아님 / 좌석 없음 / 이미 Confirm 한 유저)
  * - 1: 성공
  */
 @Component
@@ -30,9 +30,20 @@ public class LuaCancelExecutor {
                     local userId = ARGV[2]
                     local ttl = tonumber(ARGV[3])
                     
+                    -- KEYS[1] : 섹션 비트맵, KEYS[2] : 섹션 소유자 해시, KEYS[3] : match status 키
+                    -- KEYS[4] : 유저 선점 좌석 인덱스, KEYS[5] : confirmed 집합
+                    -- ARGV[4]               : sectionId
+                    -- ARGV[5..]             : 좌석 비트 위치
+                    -- ARGV[5 + seatCount..] : 좌석 row-number (해시 필드)
+                    
+                    -- 확정된 좌석은 취소 불가
+                    if redis.call('SISMEMBER', KEYS[5], userId) == 1 then
+                        return 0
+                    end
+                    
                     -- 소유권 확인: 모든 좌석이 해당 userId 소유인지 확인
                     for i = 1, seatCount do
-                        local value = redis.call('GET', KEYS[i])
+                        local value = redis.call('HGET', KEYS[2], ARGV[4 + seatCount + i])
                         if not value then
                             return 0  -- 좌석 없음
                         end
@@ -44,13 +55,16 @@ public class LuaCancelExecutor {
                         end
                     end
                     
-                    -- 모든 좌석 삭제
+                    -- 모든 좌석 해제 (비트 끄기 + 소유자 / 유저 인덱스 삭제)
                     for i = 1, seatCount do
-                        redis.call('DEL', KEYS[i])
+                        local field = ARGV[4 + seatCount + i]
+                        redis.call('SETBIT', KEYS[1], ARGV[4 + i], 0)
+                        redis.call('HDEL', KEYS[2], field)
+                        redis.call('HDEL', KEYS[4], ARGV[4] .. '-' .. field)
                     end
                     
                     -- status 키 TTL 갱신
-                    redis.call('EXPIRE', KEYS[seatCount + 1], ttl)
+                    redis.call('EXPIRE', KEYS[3], ttl)
                     
                     return 1  -- 성공
                     """,
@@ -73,18 +87,23 @@ public class LuaCancelExecutor {
                                          Long userId,
                                          int totalSeats) {
 
-        // KEYS: seat 키들 + status
-        List<String> keys = Stream.of(
-                rowNumbers.stream().map(rowNumber ->
-                        "seat:" + matchId + ":" + sectionId + ":" + rowNumber),
-                Stream.of("match:" + matchId + ":status")
-        ).flatMap(s -> s).toList();
+        // KEYS: 섹션 비트맵 + 소유자 해시 + status + 유저 인덱스 + confirmed 집합
+        List<String> keys = List.of(
+                SeatReservationRedisRepository.bitsKey(matchId, sectionId),
+                SeatReservationRedisRepository.ownerKey(matchId, sectionId),
+                "match:" + matchId + ":status",
+                SeatReservationRedisRepository.userKey(matchId, userId),
+                SeatReservationRedisRepository.confirmedKey(matchId)
+        );
 
-        // ARGV: [seatCount, userId, ttl]
+        // ARGV: [seatCount, userId, ttl, sectionId, index1.., rowNumber1..]
         List<String> args = new ArrayList<>();
         args.add(String.valueOf(rowNumbers.size()));       // ARGV[1]: seatCount
         args.add(String.valueOf(userId));                  // ARGV[2]: userId
         args.add(String.valueOf(MATCH_REDIS_TTL_SECONDS)); // ARGV[3]: ttl (10분)
+        args.add(sectionId);                               // ARGV[4]: sectionId
+        rowNumbers.forEach(r -> args.add(String.valueOf(SeatReservationRedisRepository.seatIndex(r))));
+        args.addAll(rowNumbers);
 
         Long result = redisTemplate.execute(
                 cancelSeatsLuaScript,
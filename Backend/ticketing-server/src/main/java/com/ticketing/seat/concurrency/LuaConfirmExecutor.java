@@ -0,0 +1,242 @@
+package com.ticketing.seat.concurrency;
+
+import com.ticketing.seat.redis.SeatReservationRedisRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 좌석 Confirm 을 Lua 스크립트 1회 호출로 처리하는 실행기
+ * Redis 키:
+ *   - seat:{matchId}:user:{userId}       (유저 선점 좌석 인덱스, 확정 대상 좌석)
+ *   - seat:{matchId}:confirmed           (Confirm 완료 userId 집합)
+ *   - match:{matchId}:reserved_count     (확정 좌석 수)
+ *   - match:{matchId}:human_rank_counter (실제 유저 등수)
+ *   - match:{matchId}:total_rank_counter (전체 등수, 봇 포함)
+ *   - humanusers:match:{matchId}         (남은 실제 유저 수)
+ *
+ * 선점 좌석 → 확정(confirmed 집합에 userId 추가), 등수 부여, 카운터 갱신, 경기 종료 조건 판단을 원자적으로 처리한다.
+ * 노드가 중간에 죽어도 카운터만 올라가고 확정이 안 되는 부분 상태가 남지 않는다.
+ *
+ * 반환값: [status, reservedCount, userRank, totalRank, remainingHumanUsers, ended, seatId...]
+ *   status 1 : 확정 성공 (seatId 목록 = "{sectionId}-{row}-{col}")
+ *   status 0 : 선점 좌석 없음 (나머지 값 없음)
+ *   status -1: 이미 확정한 유저 (나머지 값 없음)
+ *   봇은 userRank = -1 이며 humanusers 를 감소시키지 않는다. humanusers 키가 없으면 remainingHumanUsers = -1
+ *   ended 1 : 모든 실제 유저 확정 또는 만석 (totalSeats 가 0이면 만석 판단 안 함)
+ *
+ * 확정 이후 단계(UserStats 저장)가 실패하면 rollback 으로 되돌린다.
+ * 선점 좌석(유저 인덱스)은 확정 때 지우지 않으므로, 되돌린 뒤 같은 요청을 다시 보내면 재확정된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class LuaConfirmExecutor {
+
+    public static final long CONFIRMED = 1L;
+    public static final long NO_HELD_SEATS = 0L;
+    public static final long ALREADY_CONFIRMED = -1L;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private static final int MATCH_REDIS_TTL_SECONDS = 900; // 15분
+
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> confirmSeatsLuaScript = new DefaultRedisScript<>(
+            """
+                    local userId = ARGV[1]
+                    local isHuman = ARGV[2] == '1'
+                    local ttl = tonumber(ARGV[3])
+                    local totalSeats = tonumber(ARGV[4])
+
+                    -- KEYS[1] : 유저 선점 좌석 인덱스, KEYS[2] : confirmed 집합
+                    -- KEYS[3] : reserved_count, KEYS[4] : human_rank_counter
+                    -- KEYS[5] : total_rank_counter, KEYS[6] : humanusers
+
+                    if redis.call('SISMEMBER', KEYS[2], userId) == 1 then
+                        return {-1}
+                    end
+
+                    local seats = redis.call('HKEYS', KEYS[1])
+                    if #seats == 0 then
+                        return {0}
+                    end
+
+                    -- 선점 → 확정
+                    redis.call('SADD', KEYS[2], userId)
+
+                    local reserved = redis.call('INCRBY', KEYS[3], #seats)
+                    local totalRank = redis.call('INCR', KEYS[5])
+                    local userRank = -1
+                    local remaining = -1
+
+                    if isHuman then
+                        userRank = redis.call('INCR', KEYS[4])
+                        remaining = redis.call('DECR', KEYS[6])
+                        -- 음수 방지 (이탈 처리와 겹친 경우)
+                        if remaining < 0 then
+                            redis.call('SET', KEYS[6], 0)
+                            remaining = 0
+                        end
+                    else
+                        local value = redis.call('GET', KEYS[6])
+                        if value then
+                            remaining = tonumber(value)
+                        end
+                    end
+
+                    local ended = 0
+                    if (remaining ~= -1 and remaining <= 0) or (totalSeats > 0 and reserved >= totalSeats) then
+                        ended = 1
+                    end
+
+                    for i = 1, #KEYS do
+                        redis.call('EXPIRE', KEYS[i], ttl)
+                    end
+
+                    local result = {1, reserved, userRank, totalRank, remaining, ended}
+                    for i = 1, #seats do
+                        result[6 + i] = seats[i]
+                    end
+                    return result
+                    """,
+            List.class
+    );
+
+    private final DefaultRedisScript<Long> rollbackConfirmLuaScript = new DefaultRedisScript<>(
+            """
+                    local userId = ARGV[1]
+                    local seatCount = tonumber(ARGV[2])
+                    local userRank = tonumber(ARGV[3])
+                    local totalRank = tonumber(ARGV[4])
+                    local restoreHumanUsers = ARGV[5] == '1'
+
+                    -- KEYS 는 확정 스크립트와 같은 순서 (KEYS[1] 유저 선점 인덱스는 사용하지 않음)
+                    -- 이미 되돌렸거나 확정된 적 없으면 아무것도 하지 않음
+                    if redis.call('SREM', KEYS[2], userId) == 0 then
+                        return 0
+                    end
+
+                    redis.call('DECRBY', KEYS[3], seatCount)
+
+                    -- 등수는 그 사이 다른 유저가 확정하지 않았을 때만 되돌린다 (중복 등수 방지, 대신 빈 등수가 남을 수 있음)
+                    if userRank > 0 and tonumber(redis.call('GET', KEYS[4]) or '0') == userRank then
+                        redis.call('DECR', KEYS[4])
+                    end
+                    if totalRank > 0 and tonumber(redis.call('GET', KEYS[5]) or '0') == totalRank then
+                        redis.call('DECR', KEYS[5])
+                    end
+
+                    if restoreHumanUsers then
+                        redis.call('INCR', KEYS[6])
+                    end
+                    return 1
+                    """,
+            Long.class
+    );
+
+    /**
+     * 유저가 선점한 좌석 전체를 원자적으로 확정
+     *
+     * @param matchId    경기 ID
+     * @param userId     사용자 ID (봇은 음수)
+     * @param totalSeats 전체 좌석 수 (만석 판단용, 모르면 0)
+     * @return 확정 결과 (status 가 CONFIRMED 가 아니면 나머지 값은 비어 있음)
+     */
+    public ConfirmResult confirm(Long matchId, Long userId, int totalSeats) {
+        List<String> keys = keys(matchId, userId);
+
+        // ARGV: [userId, isHuman, ttl, totalSeats]
+        List<?> result = redisTemplate.execute(
+                confirmSeatsLuaScript,
+                keys,
+                String.valueOf(userId),                    // ARGV[1]
+                userId > 0 ? "1" : "0",                    // ARGV[2]
+                String.valueOf(MATCH_REDIS_TTL_SECONDS),   // ARGV[3]
+                String.valueOf(Math.max(totalSeats, 0))    // ARGV[4]
+        );
+
+        if (result == null || result.isEmpty()) {
+            return ConfirmResult.of(NO_HELD_SEATS);
+        }
+
+        long status = toLong(result.get(0));
+        if (status != CONFIRMED || result.size() < 6) {
+            return ConfirmResult.of(status);
+        }
+
+        List<String> seatIds = new ArrayList<>();
+        for (int i = 6; i < result.size(); i++) {
+            seatIds.add(String.valueOf(result.get(i)));
+        }
+
+        long remaining = toLong(result.get(4));
+        return new ConfirmResult(
+                status,
+                seatIds,
+                toLong(result.get(1)),
+                (int) toLong(result.get(2)),
+                (int) toLong(result.get(3)),
+                remaining < 0 ? null : remaining,
+                toLong(result.get(5)) == 1L
+        );
+    }
+
+    /**
+     * 확정 이후 단계가 실패했을 때 confirm 결과를 되돌림
+     * confirmed 집합에서 제거, reserved_count 감소, 실제 유저면 humanusers 복구
+     * 등수 카운터는 그 사이 다른 확정이 없었을 때만 되돌린다.
+     *
+     * @return 되돌렸으면 true, 이미 되돌렸거나 확정 상태가 아니면 false
+     */
+    public boolean rollback(Long matchId, Long userId, ConfirmResult result) {
+        if (!result.confirmed()) return false;
+
+        // ARGV: [userId, seatCount, userRank, totalRank, restoreHumanUsers]
+        Long rolledBack = redisTemplate.execute(
+                rollbackConfirmLuaScript,
+                keys(matchId, userId),
+                String.valueOf(userId),                                     // ARGV[1]
+                String.valueOf(result.seatIds().size()),                    // ARGV[2]
+                String.valueOf(result.userRank()),                          // ARGV[3]
+                String.valueOf(result.totalRank()),                         // ARGV[4]
+                userId > 0 && result.remainingHumanUsers() != null ? "1" : "0"  // ARGV[5]
+        );
+        return rolledBack != null && rolledBack == 1L;
+    }
+
+    // 확정 / 되돌리기 스크립트 공통 KEYS
+    private List<String> keys(Long matchId, Long userId) {
+        return List.of(
+                SeatReservationRedisRepository.userKey(matchId, userId),
+                SeatReservationRedisRepository.confirmedKey(matchId),
+                "match:" + matchId + ":reserved_count",
+                "match:" + matchId + ":human_rank_counter",
+                "match:" + matchId + ":total_rank_counter",
+                "humanusers:match:" + matchId
+        );
+    }
+
+    private long toLong(Object value) {
+        return (value instanceof Number n) ? n.longValue() : -1L;
+    }
+
+    /**
+     * Confirm 결과
+     * remainingHumanUsers 는 humanusers 키가 없으면 null, userRank 는 봇이면 -1
+     */
+    public record ConfirmResult(long status, List<String> seatIds, long reservedCount, int userRank,
+                                int totalRank, Long remainingHumanUsers, boolean matchEnded) {
+
+        static ConfirmResult of(long status) {
+            return new ConfirmResult(status, List.of(), 0L, -1, -1, null, false);
+        }
+
+        public boolean confirmed() {
+            return status == CONFIRMED;
+        }
+    }
+}
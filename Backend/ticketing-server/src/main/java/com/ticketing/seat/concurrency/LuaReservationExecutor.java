@@ -1,5 +1,6 @@
 package com.ticketing.seat.concurrency;
 
+import com.ticketing.seat.redis.SeatReservationRedisRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
@@ -7,25 +8,40 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 
 /**
- * 여러 좌석을 한 번에 선점(Hold) 처리하고, 좌석 키에만 정보를 저장한다.
- * Redis 키:
- *   - seat:{matchId}:{sectionId}:{row-number}
+ * 좌석 Hold 1회 왕복 처리: 경기 상태, 유저별 선점 한도, 좌석 점유 여부를 한 스크립트에서 검사하고 원자적으로 선점한다.
+ * (DefaultRedisScript → EVALSHA, 스크립트 캐시에 없으면 EVAL로 한 번 적재)
+ * Redis 키 (SeatReservationRedisRepository 참고):
+ *   - seat:{matchId}:{sectionId}:bits   (비트 위치 = seatIndex)
+ *   - seat:{matchId}:{sectionId}:owner  ({row-number} → {userId}:{grade})
+ *   - seat:{matchId}:sections
+ *   - seat:{matchId}:user:{userId}     ({sectionId}-{row-number} → {grade}, 유저별 선점 좌석 인덱스)
  *   - match:{matchId}:status
- * Redis seat 값: {userId}:{grade}
+ *   - match:{matchId}:reserved_count, humanusers:match:{matchId},
+ *     match:{matchId}:human_rank_counter, match:{matchId}:total_rank_counter (TTL 갱신만)
  *
  * 반환값:
- * - 0: 실패 (좌석 이미 선점됨)
  * - 1: 성공
+ * - 0: 실패 (좌석 이미 선점됨)
+ * - -1: 경기가 OPEN 상태가 아님
+ * - -2: 유저별 선점 한도 초과 (이미 선점한 좌석 + 요청 좌석 > MAX_SEATS_PER_USER)
  *
+ * status 키는 읽기만 한다 (OPEN 설정은 경기 시작 시 MatchStatusChanger 담당).
  * 주의: Hold 시점에는 만석/카운트 체크를 하지 않음 (Confirm 시점에 처리)
  */
 @Component
 @RequiredArgsConstructor
 public class LuaReservationExecutor {
 
+    public static final long HELD = 1L;
+    public static final long SEAT_TAKEN = 0L;
+    public static final long MATCH_NOT_OPEN = -1L;
+    public static final long USER_LIMIT_EXCEEDED = -2L;
+
+    // 유저 한 명이 한 경기에서 동시에 선점할 수 있는 좌석 수
+    public static final int MAX_SEATS_PER_USER = 2;
+
     private final StringRedisTemplate redisTemplate;
 
     private static final int MATCH_REDIS_TTL_SECONDS = 900; // 15분
@@ -35,29 +51,48 @@ public class LuaReservationExecutor {
                     local seatCount = tonumber(ARGV[1])
                     local userId = ARGV[2]
                     local ttl = tonumber(ARGV[3])
+                    local maxPerUser = tonumber(ARGV[5])
+                    
+                    -- KEYS[1] : 섹션 비트맵, KEYS[2] : 섹션 소유자 해시
+                    -- KEYS[3] : 섹션 집합,   KEYS[4] : match status 키
+                    -- KEYS[5] : 유저 선점 좌석 인덱스
+                    -- KEYS[6..9] : reserved_count, humanusers, human_rank_counter, total_rank_counter (TTL 갱신)
+                    -- ARGV[4] : sectionId, ARGV[5] : 유저별 최대 선점 좌석 수
+                    -- ARGV[6..]                    : 좌석 비트 위치
+                    -- ARGV[6 + seatCount..]        : 좌석 row-number (해시 필드)
+                    -- ARGV[6 + seatCount * 2..]    : 좌석 grade
                     
-                    -- KEYS[1..seatCount]     : seat 키들
-                    -- KEYS[seatCount + 1]    : match status 키
+                    -- 1. 경기 상태
+                    if redis.call('GET', KEYS[4]) ~= 'OPEN' then
+                        return -1
+                    end
+                    
+                    -- 2. 유저별 선점 한도 (이미 선점한 좌석 포함)
+                    if redis.call('HLEN', KEYS[5]) + seatCount > maxPerUser then
+                        return -2
+                    end
                     
-                    -- check phase: 모든 좌석이 비어있는지 확인
+                    -- 3. 모든 좌석 비트가 비어있는지 확인
                     for i = 1, seatCount do
-                        if redis.call('EXISTS', KEYS[i]) == 1 then
+                        if redis.call('GETBIT', KEYS[1], ARGV[5 + i]) == 1 then
                             return 0  -- 좌석이 이미 선점됨
                         end
                     end
                     
-                    -- assign phase: 각 좌석을 userId:grade로 할당하고 TTL 설정
+                    -- assign phase: 비트를 켜고 소유자 해시에 userId:grade, 유저 인덱스에 sectionId-row-number 기록
                     for i = 1, seatCount do
-                        local grade = ARGV[3 + i]  -- ARGV[4]부터 각 좌석의 grade
-                        local userIdGrade = userId .. ':' .. grade
-                        redis.call('SET', KEYS[i], userIdGrade)
-                        redis.call('EXPIRE', KEYS[i], ttl)  -- 좌석 키에 TTL 설정 (10분)
+                        local field = ARGV[5 + seatCount + i]
+                        local grade = ARGV[5 + seatCount * 2 + i]
+                        redis.call('SETBIT', KEYS[1], ARGV[5 + i], 1)
+                        redis.call('HSET', KEYS[2], field, userId .. ':' .. grade)
+                        redis.call('HSET', KEYS[5], ARGV[4] .. '-' .. field, grade)
                     end
+                    redis.call('SADD', KEYS[3], ARGV[4])
                     
-                    -- status 키를 OPEN으로 설정 + TTL 설정
-                    local statusKeyIndex = seatCount + 1
-                    redis.call('SET', KEYS[statusKeyIndex], 'OPEN')
-                    redis.call('EXPIRE', KEYS[statusKeyIndex], ttl)
+                    -- 좌석 키 + 매치 키 TTL 갱신 (없는 키는 무시됨)
+                    for i = 1, #KEYS do
+                        redis.call('EXPIRE', KEYS[i], ttl)
+                    end
                     
                     return 1  -- 성공
                     """,
@@ -76,7 +111,7 @@ public class LuaReservationExecutor {
      * @param userId     사용자 ID
      * @param grades     각 좌석의 등급 리스트 (예: ["R석", "VIP"])
      * @param totalSeats 전체 좌석 수 (사용 안 함 - 하위 호환성 유지)
-     * @return 0: 실패, 1: 성공
+     * @return 1: 성공, 0: 좌석 선점됨, -1: 경기 OPEN 아님, -2: 유저별 한도 초과
      */
     public Long tryReserveSeatsAtomically(Long matchId,
                                           String sectionId,
@@ -89,19 +124,29 @@ public class LuaReservationExecutor {
             throw new IllegalArgumentException("rowNumbers와 grades의 개수가 일치하지 않습니다.");
         }
 
-        // KEYS: seat 키들 + status 키
-        List<String> keys = Stream.of(
-                rowNumbers.stream().map(rowNumber ->
-                        "seat:" + matchId + ":" + sectionId + ":" + rowNumber),
-                Stream.of("match:" + matchId + ":status")
-        ).flatMap(s -> s).toList();
+        // KEYS: 섹션 비트맵 + 소유자 해시 + 섹션 집합 + status 키 + 유저 인덱스 + TTL 갱신 대상 매치 키
+        List<String> keys = List.of(
+                SeatReservationRedisRepository.bitsKey(matchId, sectionId),
+                SeatReservationRedisRepository.ownerKey(matchId, sectionId),
+                SeatReservationRedisRepository.sectionsKey(matchId),
+                "match:" + matchId + ":status",
+                SeatReservationRedisRepository.userKey(matchId, userId),
+                "match:" + matchId + ":reserved_count",
+                "humanusers:match:" + matchId,
+                "match:" + matchId + ":human_rank_counter",
+                "match:" + matchId + ":total_rank_counter"
+        );
 
-        // ARGV: [seatCount, userId, ttl, grade1, grade2, ...]
+        // ARGV: [seatCount, userId, ttl, sectionId, maxPerUser, index1.., rowNumber1.., grade1..]
         List<String> args = new ArrayList<>();
         args.add(String.valueOf(rowNumbers.size()));       // ARGV[1]: seatCount
         args.add(String.valueOf(userId));                  // ARGV[2]: userId
-        args.add(String.valueOf(MATCH_REDIS_TTL_SECONDS)); // ARGV[3]: ttl (10분)
-        args.addAll(grades);                               // ARGV[4]~: 각 좌석의 grade
+        args.add(String.valueOf(MATCH_REDIS_TTL_SECONDS)); // ARGV[3]: ttl (15분)
+        args.add(sectionId);                               // ARGV[4]: sectionId
+        args.add(String.valueOf(MAX_SEATS_PER_USER));      // ARGV[5]: 유저별 최대 선점 좌석 수
+        rowNumbers.forEach(r -> args.add(String.valueOf(SeatReservationRedisRepository.seatIndex(r))));
+        args.addAll(rowNumbers);
+        args.addAll(grades);
 
         return redisTemplate.execute(
                 reserveSeatsLuaScript,
@@ -4,4 +4,8 @@ public class TooManySeatsRequestedException extends RuntimeException {
     public TooManySeatsRequestedException(int count) {
         super("Invalid number of seats requested: " + count + ". You can reserve up to 2 seats per request.");
     }
+
+    public TooManySeatsRequestedException(Long userId, int limit) {
+        super("User " + userId + " already holds seats in this match. You can hold up to " + limit + " seats per match.");
+    }
 }
@@ -1,5 +1,6 @@
 package com.ticketing.seat.redis;
 
+import com.ticketing.repository.MatchMetadataCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Repository;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Repository;
 public class MatchStatusRepository {
 
     private final StringRedisTemplate redisTemplate;
+    private final MatchMetadataCache matchMetadataCache;
 
     private String key(Long matchId) {
         return "match:" + matchId + ":status";
@@ -22,10 +24,11 @@ public class MatchStatusRepository {
     }
 
     /**
-     * Redis에 상태 저장
+     * Redis에 상태 저장 (모든 노드의 매치 메타데이터 캐시 무효화)
      */
     public void setMatchStatus(Long matchId, String status) {
         redisTemplate.opsForValue().set(key(matchId), status);
+        matchMetadataCache.invalidate(matchId);
     }
 
     /**
@@ -1,37 +1,121 @@
 package com.ticketing.seat.redis;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * 좌석 점유 저장소 (섹션 단위 비트맵 + 소유자 해시)
+ *
+ * Redis 키:
+ *   - seat:{matchId}:{sectionId}:bits  : 좌석 점유 비트맵, 비트 위치 = seatIndex(row, col)
+ *   - seat:{matchId}:{sectionId}:owner : 해시 {row-col} → {userId}:{grade}
+ *   - seat:{matchId}:sections          : 좌석이 한 번이라도 선점된 sectionId 집합 (KEYS 스캔 대체)
+ *   - seat:{matchId}:user:{userId}     : 유저별 선점 좌석 인덱스 해시 {sectionId-row-col} → {grade}
+ *   - seat:{matchId}:confirmed         : Confirm 완료 userId 집합 (LuaConfirmExecutor)
+ *
+ * seatIndex = (row - 1) x ROW_STRIDE + (col - 1)
+ *   ROW_STRIDE = 256 → 한 행에 최대 256열까지 (넘는 열은 다음 행 비트와 겹치므로 seatIndex에서 거부)
+ *   33행 섹션 비트맵도 약 1KB라 섹션 전체 조회(GET)가 가볍다.
+ * 섹션 전체 상태 조회는 비트맵 + 소유자 해시를 한 번의 왕복으로 읽는다.
+ * 쓰기(선점/취소)는 LuaReservationExecutor, LuaCancelExecutor가 비트맵 / 소유자 해시 / 유저 인덱스를 원자적으로 함께 갱신한다.
+ * 유저 인덱스 덕분에 Confirm / 취소 / 퇴장 흐름의 "내 좌석" 조회는 매치 좌석 수와 무관하게 HGETALL 1회다.
+ */
 @Repository
 @RequiredArgsConstructor
 public class SeatReservationRedisRepository {
 
+    // 행당 비트 수 = 섹션 한 행의 최대 열 수
+    public static final int ROW_STRIDE = 256;
+
     private final StringRedisTemplate redisTemplate;
 
+    // 단일 좌석 선점: 비트가 비어있을 때만 비트 + 소유자 + 유저 인덱스 기록
+    private final DefaultRedisScript<Long> reserveSingleSeatScript = new DefaultRedisScript<>(
+            """
+                    if redis.call('SETBIT', KEYS[1], ARGV[1], 1) == 1 then
+                        return 0
+                    end
+                    redis.call('HSET', KEYS[2], ARGV[2], ARGV[3] .. ':' .. ARGV[4])
+                    redis.call('SADD', KEYS[3], ARGV[5])
+                    redis.call('HSET', KEYS[4], ARGV[5] .. '-' .. ARGV[2], ARGV[4])
+                    return 1
+                    """,
+            Long.class
+    );
+
+    public static String bitsKey(Long matchId, String sectionId) {
+        return "seat:" + matchId + ":" + sectionId + ":bits";
+    }
+
+    public static String ownerKey(Long matchId, String sectionId) {
+        return "seat:" + matchId + ":" + sectionId + ":owner";
+    }
+
+    public static String sectionsKey(Long matchId) {
+        return "seat:" + matchId + ":sections";
+    }
+
+    public static String userKey(Long matchId, Long userId) {
+        return "seat:" + matchId + ":user:" + userId;
+    }
+
+    public static String confirmedKey(Long matchId) {
+        return "seat:" + matchId + ":confirmed";
+    }
+
     /**
-     * Redis 키 생성: seat:{matchId}:{sectionId}:{row-number}
-     * 예: seat:100:008:9-15
+     * rowNumber("9-15") → 비트 위치
+     * 행/열이 숫자가 아니거나 범위(row >= 1, 1 <= col <= ROW_STRIDE)를 벗어나면 IllegalArgumentException
      */
-    private String seatKey(Long matchId, String sectionId, String rowNumber) {
-        return "seat:" + matchId + ":" + sectionId + ":" + rowNumber;
+    public static long seatIndex(String rowNumber) {
+        String[] rowCol = rowNumber == null ? new String[0] : rowNumber.split("-");
+        if (rowCol.length != 2) {
+            throw new IllegalArgumentException("잘못된 좌석 위치입니다: " + rowNumber);
+        }
+        try {
+            long row = Long.parseLong(rowCol[0]);
+            long col = Long.parseLong(rowCol[1]);
+            if (row < 1 || col < 1 || col > ROW_STRIDE) {
+                throw new IllegalArgumentException(
+                        "좌석 위치가 범위를 벗어났습니다 (열은 최대 " + ROW_STRIDE + "): " + rowNumber);
+            }
+            return (row - 1) * ROW_STRIDE + (col - 1);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 좌석 위치입니다: " + rowNumber);
+        }
+    }
+
+    // 비트 위치 → rowNumber("9-15")
+    public static String rowNumber(long seatIndex) {
+        return (seatIndex / ROW_STRIDE + 1) + "-" + (seatIndex % ROW_STRIDE + 1);
     }
 
     /**
      * 단일 좌석을 userId와 grade로 선점 시도
-     * Redis 값: {userId}:{grade}
      * 이미 누군가 있으면 false, 비어있으면 true
      */
     public boolean tryReserveSingleSeat(Long matchId, String sectionId, String rowNumber,
                                         Long userId, String grade) {
-        String value = userId + ":" + grade;
-        Boolean ok = redisTemplate
-                .opsForValue()
-                .setIfAbsent(seatKey(matchId, sectionId, rowNumber), value);
-        return Boolean.TRUE.equals(ok);
+        Long ok = redisTemplate.execute(
+                reserveSingleSeatScript,
+                List.of(bitsKey(matchId, sectionId), ownerKey(matchId, sectionId), sectionsKey(matchId),
+                        userKey(matchId, userId)),
+                String.valueOf(seatIndex(rowNumber)), rowNumber, String.valueOf(userId), grade, sectionId
+        );
+        return Long.valueOf(1L).equals(ok);
     }
 
     /**
@@ -39,13 +123,8 @@ public class SeatReservationRedisRepository {
      * @return Optional<SeatOwnerInfo> (userId, grade)
      */
     public Optional<SeatOwnerInfo> findOwnerWithGrade(Long matchId, String sectionId, String rowNumber) {
-        String val = redisTemplate.opsForValue().get(seatKey(matchId, sectionId, rowNumber));
-        if (val == null) return Optional.empty();
-
-        String[] parts = val.split(":");
-        if (parts.length != 2) return Optional.empty();
-
-        return Optional.of(new SeatOwnerInfo(Long.valueOf(parts[0]), parts[1]));
+        Object val = redisTemplate.opsForHash().get(ownerKey(matchId, sectionId), rowNumber);
+        return val == null ? Optional.empty() : Optional.ofNullable(parseOwner(val.toString()));
     }
 
     /**
@@ -60,7 +139,136 @@ public class SeatReservationRedisRepository {
      * 좌석 해제(청소용)
      */
     public void releaseSeat(Long matchId, String sectionId, String rowNumber) {
-        redisTemplate.delete(seatKey(matchId, sectionId, rowNumber));
+        long index = seatIndex(rowNumber);
+        Optional<Long> owner = findOwner(matchId, sectionId, rowNumber);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection c = (StringRedisConnection) connection;
+            c.setBit(bitsKey(matchId, sectionId), index, false);
+            c.hDel(ownerKey(matchId, sectionId), rowNumber);
+            owner.ifPresent(userId -> c.hDel(userKey(matchId, userId), sectionId + "-" + rowNumber));
+            return null;
+        });
+    }
+
+    /**
+     * 섹션 전체 점유 상태 (비트맵 GET + 소유자 HGETALL, 왕복 1회)
+     * 비트가 켜진 좌석만 반환하며, 소유자 정보가 없으면 owner = null
+     * @return rowNumber → 소유자 (비트 순서)
+     */
+    public Map<String, SeatOwnerInfo> findSectionSeats(Long matchId, String sectionId) {
+        byte[] bitsKey = bitsKey(matchId, sectionId).getBytes(StandardCharsets.UTF_8);
+        byte[] ownerKey = ownerKey(matchId, sectionId).getBytes(StandardCharsets.UTF_8);
+
+        // 비트맵은 바이너리라 문자열 직렬화 없이 그대로 받는다
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().get(bitsKey);
+            connection.hashCommands().hGetAll(ownerKey);
+            return null;
+        }, RedisSerializer.byteArray());
+
+        Map<String, SeatOwnerInfo> seats = new LinkedHashMap<>();
+        if (!(results.get(0) instanceof byte[] bits)) return seats;
+
+        Map<String, SeatOwnerInfo> owners = new LinkedHashMap<>();
+        if (results.get(1) instanceof Map<?, ?> raw) {
+            raw.forEach((field, value) -> owners.put(
+                    new String((byte[]) field, StandardCharsets.UTF_8),
+                    parseOwner(new String((byte[]) value, StandardCharsets.UTF_8))));
+        }
+
+        for (int i = 0; i < bits.length; i++) {
+            if (bits[i] == 0) continue;
+            for (int b = 0; b < 8; b++) {
+                if ((bits[i] & (0x80 >> b)) == 0) continue;
+                String rowNumber = rowNumber((long) i * 8 + b);
+                seats.put(rowNumber, owners.get(rowNumber));
+            }
+        }
+        return seats;
+    }
+
+    /**
+     * 매치 전체 선점 좌석 (섹션 집합 기준, 섹션별 HGETALL 파이프라인 1회)
+     */
+    public List<SeatHolding> findAllSeats(Long matchId) {
+        List<SeatHolding> holdings = new ArrayList<>();
+        Set<String> sections = redisTemplate.opsForSet().members(sectionsKey(matchId));
+        if (sections == null || sections.isEmpty()) return holdings;
+
+        List<String> sectionIds = new ArrayList<>(sections);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection c = (StringRedisConnection) connection;
+            for (String sectionId : sectionIds) {
+                c.hGetAll(ownerKey(matchId, sectionId));
+            }
+            return null;
+        });
+
+        for (int i = 0; i < sectionIds.size(); i++) {
+            if (!(results.get(i) instanceof Map<?, ?> owners)) continue;
+            String sectionId = sectionIds.get(i);
+            owners.forEach((field, value) -> {
+                SeatOwnerInfo owner = parseOwner(String.valueOf(value));
+                if (owner != null) {
+                    holdings.add(new SeatHolding(sectionId, String.valueOf(field), owner.getUserId(), owner.getGrade()));
+                }
+            });
+        }
+        return holdings;
+    }
+
+    /**
+     * 해당 유저가 선점한 좌석 (유저 인덱스 HGETALL 1회, 매치 좌석 수와 무관)
+     */
+    public List<SeatHolding> findUserSeats(Long matchId, Long userId) {
+        List<SeatHolding> holdings = new ArrayList<>();
+        Map<Object, Object> seats = redisTemplate.opsForHash().entries(userKey(matchId, userId));
+
+        seats.forEach((field, grade) -> {
+            // {sectionId}-{row}-{col}
+            String seatId = String.valueOf(field);
+            int split = seatId.indexOf('-');
+            if (split > 0) {
+                holdings.add(new SeatHolding(seatId.substring(0, split), seatId.substring(split + 1),
+                        userId, String.valueOf(grade)));
+            }
+        });
+        return holdings;
+    }
+
+    // 좌석 관련 키가 하나라도 있는지 (섹션 집합이 곧 인덱스)
+    public boolean hasAnySeatKey(Long matchId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(sectionsKey(matchId)));
+    }
+
+    // 매치의 모든 좌석 키 (정리용, 유저 인덱스 포함)
+    public List<String> allSeatKeys(Long matchId) {
+        List<String> keys = new ArrayList<>();
+        findAllSeats(matchId).stream()
+                .map(SeatHolding::userId)
+                .distinct()
+                .forEach(userId -> keys.add(userKey(matchId, userId)));
+        Set<String> sections = redisTemplate.opsForSet().members(sectionsKey(matchId));
+        if (sections != null) {
+            for (String sectionId : sections) {
+                keys.add(bitsKey(matchId, sectionId));
+                keys.add(ownerKey(matchId, sectionId));
+            }
+        }
+        keys.add(sectionsKey(matchId));
+        keys.add(confirmedKey(matchId));
+        return keys;
+    }
+
+    // {userId}:{grade} 파싱 (형식이 다르면 null)
+    private static SeatOwnerInfo parseOwner(String value) {
+        String[] parts = value.split(":");
+        if (parts.length != 2) return null;
+        try {
+            return new SeatOwnerInfo(Long.valueOf(parts[0]), parts[1]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     /**
@@ -72,4 +280,15 @@ public class SeatReservationRedisRepository {
         private final Long userId;
         private final String grade;
     }
-}
\ No newline at end of file
+
+    /**
+     * 선점된 좌석 한 건 (sectionId, row-col, 소유자, 등급)
+     */
+    public record SeatHolding(String sectionId, String rowNumber, Long userId, String grade) {
+
+        // "8-9-15"
+        public String seatId() {
+            return sectionId + "-" + rowNumber;
+        }
+    }
+}
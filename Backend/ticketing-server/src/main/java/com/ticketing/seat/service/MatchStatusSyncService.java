@@ -2,7 +2,10 @@ package com.ticketing.seat.service;
 
 import com.ticketing.entity.Match;
 import com.ticketing.entity.Match.MatchStatus;
+import com.ticketing.queue.service.ActiveMatchRegistry;
 import com.ticketing.seat.redis.MatchStatusRepository;
+import com.ticketing.seat.redis.SeatReservationRedisRepository;
+import com.ticketing.repository.MatchMetadataCache;
 import com.ticketing.repository.MatchRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,7 +16,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
 
 @Slf4j
 @Service
@@ -25,6 +27,9 @@ public class MatchStatusSyncService {
     private final StringRedisTemplate redisTemplate;
     private final RoomServerClient roomServerClient;
     private final StatsServerClient statsServerClient;
+    private final ActiveMatchRegistry activeMatchRegistry;
+    private final MatchMetadataCache matchMetadataCache;
+    private final SeatReservationRedisRepository seatReservationRedisRepository;
 
     // 경기 시작 후 자동 종료 시간 (분)
     private static final int AUTO_FINISH_MINUTES = 30;
@@ -110,7 +115,7 @@ public class MatchStatusSyncService {
      * 검사 항목:
      * - match:{matchId}:status
      * - humanusers:match:{matchId}
-     * - seat:{matchId}:* (좌석 키들)
+     * - seat:{matchId}:sections (좌석 섹션 집합)
      *
      * 위 키들이 모두 없으면 경기가 비정상 종료된 것으로 판단
      */
@@ -128,16 +133,15 @@ public class MatchStatusSyncService {
                 // Redis 키 존재 여부 확인
                 String statusKey = "match:" + matchId + ":status";
                 String humanUsersKey = "humanusers:match:" + matchId;
-                String seatPattern = "seat:" + matchId + ":*";
 
                 Boolean statusExists = redisTemplate.hasKey(statusKey);
                 Boolean humanUsersExists = redisTemplate.hasKey(humanUsersKey);
-                Set<String> seatKeys = redisTemplate.keys(seatPattern);
+                boolean seatKeysExist = seatReservationRedisRepository.hasAnySeatKey(matchId);
 
                 // Redis 키가 하나도 없으면 경기 종료 처리
                 boolean noRedisKeys = Boolean.FALSE.equals(statusExists)
                         && Boolean.FALSE.equals(humanUsersExists)
-                        && (seatKeys == null || seatKeys.isEmpty());
+                        && !seatKeysExist;
 
                 if (noRedisKeys) {
                     log.warn("⚠️ Redis 키 없는 PLAYING 경기 발견 - 자동 종료 처리: matchId={}", matchId);
@@ -156,6 +160,10 @@ public class MatchStatusSyncService {
                     match.setUpdatedAt(LocalDateTime.now());
                     matchRepository.save(match);
 
+                    // 대기열 스케줄러 순회 대상에서 제외
+                    activeMatchRegistry.unregister(matchId);
+                    matchMetadataCache.invalidate(matchId);
+
                     // Stats 서버 알림
                     boolean statsNotificationSuccess = statsServerClient.notifyMatchEnd(matchId);
                     if (statsNotificationSuccess) {
@@ -237,6 +245,10 @@ public class MatchStatusSyncService {
                     match.setUpdatedAt(LocalDateTime.now());
                     matchRepository.save(match);
 
+                    // 대기열 스케줄러 순회 대상에서 제외
+                    activeMatchRegistry.unregister(matchId);
+                    matchMetadataCache.invalidate(matchId);
+
                     // Redis 전체 정리
                   //  cleanupAllMatchRedis(matchId);
 
@@ -308,7 +320,7 @@ public class MatchStatusSyncService {
 
     /**
      * 경기 종료 시 Redis 전체 정리
-     * - 좌석 키: seat:{matchId}:*
+     * - 좌석 키: seat:{matchId}:{sectionId}:bits|owner, seat:{matchId}:sections
      * - 상태 키: match:{matchId}:status
      * - 카운트 키: match:{matchId}:reserved_count
      * - 실제 유저 키: humanusers:match:{matchId}
@@ -318,13 +330,10 @@ public class MatchStatusSyncService {
         log.info("경기 종료 - Redis 전체 정리 시작: matchId={}", matchId);
 
         try {
-            // 1. 좌석 키 삭제
-            String seatPattern = "seat:" + matchId + ":*";
-            Set<String> seatKeys = redisTemplate.keys(seatPattern);
-            if (seatKeys != null && !seatKeys.isEmpty()) {
-                redisTemplate.delete(seatKeys);
-                log.info("좌석 키 삭제: matchId={}, count={}", matchId, seatKeys.size());
-            }
+            // 1. 좌석 키 삭제 (섹션 비트맵 / 소유자 해시 / 섹션 집합)
+            List<String> seatKeys = seatReservationRedisRepository.allSeatKeys(matchId);
+            redisTemplate.delete(seatKeys);
+            log.info("좌석 키 삭제: matchId={}, count={}", matchId, seatKeys.size());
 
             // 2. 상태 키 삭제
             String statusKey = "match:" + matchId + ":status";
@@ -357,14 +366,12 @@ public class MatchStatusSyncService {
     public boolean hasMatchRedisKeys(Long matchId) {
         String statusKey = "match:" + matchId + ":status";
         String humanUsersKey = "humanusers:match:" + matchId;
-        String seatPattern = "seat:" + matchId + ":*";
 
         Boolean statusExists = redisTemplate.hasKey(statusKey);
         Boolean humanUsersExists = redisTemplate.hasKey(humanUsersKey);
-        Set<String> seatKeys = redisTemplate.keys(seatPattern);
 
         return Boolean.TRUE.equals(statusExists)
                 || Boolean.TRUE.equals(humanUsersExists)
-                || (seatKeys != null && !seatKeys.isEmpty());
+                || seatReservationRedisRepository.hasAnySeatKey(matchId);
     }
 }
\ No newline at end of file
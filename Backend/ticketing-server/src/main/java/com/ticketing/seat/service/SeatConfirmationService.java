@@ -1,15 +1,21 @@
 package com.ticketing.seat.service;
 
+import com.ticketing.seat.concurrency.LuaConfirmExecutor;
+import com.ticketing.seat.concurrency.LuaConfirmExecutor.ConfirmResult;
 import com.ticketing.seat.dto.ConfirmedSeatDto;
 import com.ticketing.seat.dto.SeatConfirmationRequest;
 import com.ticketing.seat.dto.SeatConfirmationResponse;
 import com.ticketing.entity.Match;
 import com.ticketing.entity.UserStats;
+import com.ticketing.queue.service.ActiveMatchRegistry;
+import com.ticketing.queue.service.DequeueRateController;
 import com.ticketing.seat.event.MatchEndEvent;
 import com.ticketing.seat.exception.MatchNotFoundException;
 import com.ticketing.seat.redis.MatchStatusRepository;
+import com.ticketing.repository.MatchMetadataCache;
 import com.ticketing.repository.MatchRepository;
 import com.ticketing.repository.UserStatsRepository;
+import com.ticketing.seat.redis.SeatReservationRedisRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -21,8 +27,6 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -37,6 +41,11 @@ public class SeatConfirmationService {
     private final RoomServerClient roomServerClient;
     private final StatsServerClient statsServerClient;
     private final ApplicationEventPublisher eventPublisher;
+    private final ActiveMatchRegistry activeMatchRegistry;
+    private final DequeueRateController dequeueRateController;
+    private final MatchMetadataCache matchMetadataCache;
+    private final SeatReservationRedisRepository seatReservationRedisRepository;
+    private final LuaConfirmExecutor luaConfirmExecutor;
 
     @Transactional
     public SeatConfirmationResponse confirmSeats(Long matchId, SeatConfirmationRequest request) {
@@ -50,24 +59,31 @@ public class SeatConfirmationService {
         boolean isBot = userId < 0;  // 봇 여부 판단
 
         try {
-            // 1. Match 조회
-            Match match = matchRepository.findById(matchId)
-                    .orElseThrow(() -> new MatchNotFoundException(matchId));
+            // 1. Match 상태 조회 (매치 메타데이터 캐시, DB는 캐시 미스 / 무효화 시에만)
+            Match.MatchStatus matchStatus = matchMetadataCache.status(matchId);
+            if (matchStatus == null) {
+                throw new MatchNotFoundException(matchId);
+            }
 
             // DB 상태가 WAITING일 때만 차단 (PLAYING, FINISHED 모두 허용)
-            if (match.getStatus() == Match.MatchStatus.WAITING) {
+            if (matchStatus == Match.MatchStatus.WAITING) {
                 return buildErrorResponse("경기가 아직 시작되지 않았습니다.");
             }
 
             // ===== 봇과 실제 유저 분기 처리 =====
+            SeatConfirmationResponse response;
             if (isBot) {
                 // ========== 봇 Confirm 처리 ==========
-                return handleBotConfirm(matchId, userId, match, startTime);
+                response = handleBotConfirm(matchId, userId, matchStatus, startTime);
             } else {
                 // ========== 실제 유저 Confirm 처리 ==========
-                return handleUserConfirm(matchId, request, match, startTime);
+                response = handleUserConfirm(matchId, request, matchStatus, startTime);
             }
 
+            // 대기열 소비량 제어: Confirm 지연 신호
+            dequeueRateController.recordConfirmLatency(matchId, System.currentTimeMillis() - startTime);
+            return response;
+
         } catch (Exception e) {
             log.error("좌석 확정 중 오류 발생: {}", e.getMessage(), e);
 
@@ -80,63 +96,41 @@ public class SeatConfirmationService {
     }
 
     /**
-     * 봇 Confirm 처리
-     * - 좌석 키 조회 필요 (좌석 수 확인용)
+     * 봇 Confirm 처리 (LuaConfirmExecutor 1회 호출)
+     * - 선점 좌석 확정
      * - reserved_count 증가 (좌석 수만큼)
      * - total_rank_counter 증가
-     * - success_bot_count 증가
      * - humanusers 변경 없음
      * - user_stats 저장 안 함
      */
-
-
     private SeatConfirmationResponse handleBotConfirm(Long matchId, Long userId,
-                                                      Match match, long startTime) {
+                                                      Match.MatchStatus matchStatus, long startTime) {
         log.info("봇 Confirm 처리 시작: matchId={}, botId={}", matchId, userId);
 
-        // 1. Redis에서 봇이 선점한 좌석 조회
-        List<String> seatIds = findUserSeats(matchId, userId);
+        // 1. 선점 좌석 확정 + 카운터 갱신 + 종료 조건 판단 (원자적)
+        ConfirmResult result = luaConfirmExecutor.confirm(matchId, userId, totalSeatsOrZero(matchId));
 
-        if (seatIds.isEmpty()) {
+        if (result.status() == LuaConfirmExecutor.ALREADY_CONFIRMED) {
+            log.warn("이미 확정한 봇: matchId={}, botId={}", matchId, userId);
+            return buildErrorResponse("이미 확정된 좌석입니다.");
+        }
+        if (!result.confirmed()) {
             log.warn("봇의 선점 좌석 없음: matchId={}, botId={}", matchId, userId);
             return buildErrorResponse("선점된 좌석이 없습니다.");
         }
 
-        int seatCount = seatIds.size();
-
-        // 2. reserved_count 증가 (좌석 수만큼) + TTL 갱신
-        String reservedCountKey = "match:" + matchId + ":reserved_count";
-        Long reservedCount = redisTemplate.opsForValue().increment(reservedCountKey, seatCount);
-        redisTemplate.expire(reservedCountKey, Duration.ofSeconds(900));
-
-        // 3. total_rank_counter 증가 (봇도 전체 등수에 포함) + TTL 갱신
-        String totalRankCounterKey = "match:" + matchId + ":total_rank_counter";
-        Long totalRankLong = redisTemplate.opsForValue().increment(totalRankCounterKey);
-        redisTemplate.expire(totalRankCounterKey, Duration.ofSeconds(900));
-        Integer totalRank = (totalRankLong != null) ? totalRankLong.intValue() : null;
-
+        List<String> seatIds = result.seatIds();
         log.info("봇 Confirm 완료: matchId={}, botId={}, totalRank={}, reservedCount={}, seatCount={}",
-                matchId, userId, totalRank, reservedCount, seatCount);
-
-        // 5. 경기 종료 조건 체크 (유저와 동일한 로직)
-        Long roomId = match.getRoomId();
-        Integer totalSeats = roomServerClient.getTotalSeats(roomId);
-        boolean isFull = reservedCount != null && totalSeats != null && reservedCount >= totalSeats;
-
-        // humanusers 확인 (봇은 humanusers에 영향 안 줌)
-        String humanUsersKey = "humanusers:match:" + matchId;
-        String humanUsersValue = redisTemplate.opsForValue().get(humanUsersKey);
-        Long remainingHumanUsers = (humanUsersValue != null) ? Long.parseLong(humanUsersValue) : null;
-
-        if ((remainingHumanUsers != null && remainingHumanUsers <= 0) || isFull) {
-            if (match.getStatus() == Match.MatchStatus.PLAYING) {
-                log.info("봇 Confirm으로 경기 종료 조건 만족: matchId={}, remainingHumanUsers={}, isFull={}",
-                        matchId, remainingHumanUsers, isFull);
-                handleFullMatchAtConfirm(matchId, match);
-            }
+                matchId, userId, result.totalRank(), result.reservedCount(), seatIds.size());
+
+        // 2. 경기 종료 조건 체크 (모든 실제 유저 확정 또는 만석, 스크립트에서 판단)
+        if (result.matchEnded() && matchStatus == Match.MatchStatus.PLAYING) {
+            log.info("봇 Confirm으로 경기 종료 조건 만족: matchId={}, remainingHumanUsers={}, reservedCount={}",
+                    matchId, result.remainingHumanUsers(), result.reservedCount());
+            handleFullMatchAtConfirm(matchId);
         }
 
-        // 6. 성공 응답
+        // 3. 성공 응답
         return SeatConfirmationResponse.builder()
                 .success(true)
                 .message("봇 확정 완료")
@@ -158,95 +152,54 @@ public class SeatConfirmationService {
 
     /**
      * 실제 유저 Confirm 처리
-     * - 좌석 키 조회 (없으면 실패)
-     * - reserved_count 증가 (좌석 수만큼)
+     * - 선점 좌석 확정 + reserved_count 증가 + 등수 계산 + humanusers 감소 (LuaConfirmExecutor 1회 호출)
+     *   중복 Confirm 은 confirmed 집합으로 스크립트 안에서 걸러진다
      * - UserStats 저장 (통계 데이터 포함)
-     * - Confirm 시점에 등수 계산
-     * - humanusers 감소
+     *   저장 실패 시 확정을 되돌려(LuaConfirmExecutor.rollback) 재시도가 ALREADY_CONFIRMED 로 막히지 않게 한다
      * - 만석 또는 모든 실제 유저 Confirm 시 경기 종료
      */
     private SeatConfirmationResponse handleUserConfirm(Long matchId,
                                                        SeatConfirmationRequest request,
-                                                       Match match, long startTime) {
+                                                       Match.MatchStatus matchStatus, long startTime) {
         Long userId = request.getUserId();
 
-        // 1. 중복 Confirm 체크 (DB)
-        boolean alreadyConfirmed = !userStatsRepository
-                .findByMatchIdAndUserId(matchId, userId)
-                .isEmpty();
+        // 1. 선점 좌석 확정 + 카운터 / 등수 갱신 + 종료 조건 판단 (원자적)
+        ConfirmResult result = luaConfirmExecutor.confirm(matchId, userId, totalSeatsOrZero(matchId));
 
-        if (alreadyConfirmed) {
-            SeatConfirmationResponse response = buildErrorResponse("이미 확정된 좌석입니다.");
+        if (!result.confirmed()) {
+            String message = result.status() == LuaConfirmExecutor.ALREADY_CONFIRMED
+                    ? "이미 확정된 좌석입니다."
+                    : "선점된 좌석이 없습니다.";
+            SeatConfirmationResponse response = buildErrorResponse(message);
             publishConfirmationEvent(userId, matchId, List.of(), null,
                     false, response.getMessage(), startTime);
             return response;
         }
 
-        // 2. Redis에서 해당 유저가 선점한 좌석 조회
-        List<String> seatIds = findUserSeats(matchId, userId);
-
-        if (seatIds.isEmpty()) {
-            SeatConfirmationResponse response = buildErrorResponse("선점된 좌석이 없습니다.");
-            publishConfirmationEvent(userId, matchId, List.of(), null,
-                    false, response.getMessage(), startTime);
-            return response;
-        }
-
-        // 3. 좌석 정보 추출 및 리스트에 모으기
+        // 2. 좌석 정보 추출 및 리스트에 모으기
+        List<String> seatIds = result.seatIds();
         List<ConfirmedSeatDto> confirmedSeats = new ArrayList<>();
         List<String> sectionIds = new ArrayList<>();
-        List<String> allSectionIds = new ArrayList<>();  // 모든 sectionId 수집
-        List<String> allSeatIds = new ArrayList<>();     // 모든 seatId 수집
 
         for (String seatId : seatIds) {
             String sectionId = extractSection(seatId);
-
-            // ConfirmedSeat 리스트에 추가
             confirmedSeats.add(ConfirmedSeatDto.builder()
                     .seatId(seatId)
                     .sectionId(sectionId)
                     .build());
             sectionIds.add(sectionId);
-
-            // UserStats용 정보 수집
-            allSectionIds.add(sectionId);
-            allSeatIds.add(seatId);
         }
 
-        int seatCount = seatIds.size();
-
-        // 4. reserved_count 증가 (좌석 수만큼)
-        String reservedCountKey = "match:" + matchId + ":reserved_count";
-        Long reservedCount = redisTemplate.opsForValue().increment(reservedCountKey, seatCount);
-        redisTemplate.expire(reservedCountKey, Duration.ofSeconds(900));
-
-        // ===== Confirm 시점에 등수 계산 =====
+        Integer userRank = result.userRank();
+        Integer totalRank = result.totalRank();
+        Long remainingHumanUsers = result.remainingHumanUsers();
 
-        // 5. human_rank_counter 증가 → userRank
-        String humanRankCounterKey = "match:" + matchId + ":human_rank_counter";
-        Long userRankLong = redisTemplate.opsForValue().increment(humanRankCounterKey);
-        redisTemplate.expire(humanRankCounterKey, Duration.ofSeconds(900));
-        Integer userRank = userRankLong.intValue();
+        log.info("Confirm 시점 등수 계산: matchId={}, userId={}, userRank={}, totalRank={}, 남은 실제 유저={}",
+                matchId, userId, userRank, totalRank, remainingHumanUsers);
 
-        // 6. total_rank_counter 증가 → totalRank
-        String totalRankCounterKey = "match:" + matchId + ":total_rank_counter";
-        Long totalRankLong = redisTemplate.opsForValue().increment(totalRankCounterKey);
-        redisTemplate.expire(totalRankCounterKey, Duration.ofSeconds(900));
-        Integer totalRank = totalRankLong.intValue();
-
-        log.info("Confirm 시점 등수 계산: matchId={}, userId={}, userRank={}, totalRank={}",
-                matchId, userId, userRank, totalRank);
-
-        // 7. humanusers 감소
-        String humanUsersKey = "humanusers:match:" + matchId;
-        Long remainingHumanUsers = redisTemplate.opsForValue().decrement(humanUsersKey);
-        redisTemplate.expire(humanUsersKey, Duration.ofSeconds(900));
-        log.info("실제 유저 Confirm: matchId={}, userId={}, 남은 실제 유저={}",
-                matchId, userId, remainingHumanUsers);
-
-        // 9. UserStats 저장 (좌석 정보를 콤마로 연결하여 1개 레코드로 저장)
-        String selectedSections = String.join(",", allSectionIds);  // 예: "8,8" 또는 "8,9"
-        String selectedSeats = String.join(",", allSeatIds);        // 예: "8-9-15,8-9-16"
+        // 3. UserStats 저장 (좌석 정보를 콤마로 연결하여 1개 레코드로 저장)
+        String selectedSections = String.join(",", sectionIds);  // 예: "8,8" 또는 "8,9"
+        String selectedSeats = String.join(",", seatIds);        // 예: "8-9-15,8-9-16"
 
         UserStats userStats = UserStats.builder()
                 .userId(userId)
@@ -268,30 +221,33 @@ public class SeatConfirmationService {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        userStatsRepository.save(userStats);
+        try {
+            // flush까지 여기서 끝내야 제약 조건 위반 등이 커밋 시점이 아닌 이 블록에서 드러난다
+            userStatsRepository.saveAndFlush(userStats);
+        } catch (RuntimeException e) {
+            boolean rolledBack = luaConfirmExecutor.rollback(matchId, userId, result);
+            log.error("❌ 유저 통계 저장 실패, 좌석 확정 되돌림: matchId={}, userId={}, rolledBack={}",
+                    matchId, userId, rolledBack);
+            throw e;
+        }
         log.info("유저 통계 저장 완료: userId={}, matchId={}, 좌석수={}, selectedSeats={}, userRank={}, totalRank={}",
-                userId, matchId, allSeatIds.size(), selectedSeats, userRank, totalRank);
+                userId, matchId, seatIds.size(), selectedSeats, userRank, totalRank);
 
-        // 10. 경기 종료 조건 체크
+        // 4. 경기 종료 조건 체크 (스크립트에서 판단)
         // 조건 1: 모든 실제 유저 confirm 완료 (remainingHumanUsers <= 0)
         // 조건 2: 만석(reservedCount >= totalSeats)
-        Long roomId = match.getRoomId();
-        Integer totalSeats = roomServerClient.getTotalSeats(roomId);
-        boolean isFull = reservedCount != null && totalSeats != null && reservedCount >= totalSeats;
-
-        if ((remainingHumanUsers != null && remainingHumanUsers <= 0 || isFull)
-                && match.getStatus() == Match.MatchStatus.PLAYING) {
+        if (result.matchEnded() && matchStatus == Match.MatchStatus.PLAYING) {
 
-            log.info("경기 종료 조건 만족 (모든 유저 확정 또는 만석): matchId={}, remainingHumanUsers={}, reservedCount={}, totalSeats={}",
-                    matchId, remainingHumanUsers, reservedCount, totalSeats);
+            log.info("경기 종료 조건 만족 (모든 유저 확정 또는 만석): matchId={}, remainingHumanUsers={}, reservedCount={}",
+                    matchId, remainingHumanUsers, result.reservedCount());
 
-            handleFullMatchAtConfirm(matchId, match);
+            handleFullMatchAtConfirm(matchId);
         } else {
-            log.debug("아직 경기 계속 진행: matchId={}, remainingHumanUsers={}, reservedCount={}, totalSeats={}",
-                    matchId, remainingHumanUsers, reservedCount, totalSeats);
+            log.debug("아직 경기 계속 진행: matchId={}, remainingHumanUsers={}, reservedCount={}",
+                    matchId, remainingHumanUsers, result.reservedCount());
         }
 
-        // 11. 성공 응답 생성
+        // 5. 성공 응답 생성
         SeatConfirmationResponse response = SeatConfirmationResponse.builder()
                 .success(true)
                 .message("개인 경기 종료")
@@ -302,17 +258,23 @@ public class SeatConfirmationService {
                 .userId(userId)
                 .build();
 
-        // 12. 이벤트 발행
+        // 6. 이벤트 발행
         publishConfirmationEvent(userId, matchId, seatIds, sectionIds,
                 true, "개인 경기 종료", startTime);
 
         return response;
     }
 
+    // 만석 판단용 전체 좌석 수 (조회 실패 시 0 → 만석 판단 생략)
+    private int totalSeatsOrZero(Long matchId) {
+        Integer totalSeats = matchMetadataCache.totalSeats(matchId);
+        return totalSeats == null ? 0 : totalSeats;
+    }
+
     /**
      * Confirm 시점에서 만석 또는 모든 유저 Confirm으로 경기 종료 처리
      */
-    private void handleFullMatchAtConfirm(Long matchId, Match match) {
+    private void handleFullMatchAtConfirm(Long matchId) {
         try {
 
             // 멱등성 보장: Redis 락으로 중복 실행 방지
@@ -325,9 +287,9 @@ public class SeatConfirmationService {
                 return;
             }
 
-            // DB에서 최신 상태 재확인
-            Match freshMatch = matchRepository.findById(matchId).orElse(null);
-            if (freshMatch == null || freshMatch.getStatus() == Match.MatchStatus.FINISHED) {
+            // DB에서 최신 상태 재확인 (Confirm 경로는 캐시를 쓰므로 종료 처리는 DB 엔티티 기준)
+            Match match = matchRepository.findById(matchId).orElse(null);
+            if (match == null || match.getStatus() == Match.MatchStatus.FINISHED) {
                 log.info("이미 종료된 경기 (스킵): matchId={}", matchId);
                 return;
             }
@@ -345,6 +307,10 @@ public class SeatConfirmationService {
             redisTemplate.opsForValue().set(statusKey, "CLOSED");
             redisTemplate.expire(statusKey, Duration.ofSeconds(900));
 
+            // 3-1. 대기열 스케줄러 순회 대상에서 제외
+            activeMatchRegistry.unregister(matchId);
+            matchMetadataCache.invalidate(matchId);
+
             // 4. Redis 정리
             //  cleanupAllMatchRedis(matchId);
 
@@ -413,7 +379,7 @@ public class SeatConfirmationService {
 
     /**
      * Redis 전체 정리 (모든 키 삭제)
-     * - 좌석 키: seat:{matchId}:*
+     * - 좌석 키: seat:{matchId}:{sectionId}:bits|owner, seat:{matchId}:sections
      * - 상태 키: match:{matchId}:status
      * - 카운트 키: match:{matchId}:reserved_count
      * - 실제 유저 키: humanusers:match:{matchId}
@@ -423,13 +389,10 @@ public class SeatConfirmationService {
         log.info("경기 종료 - Redis 전체 정리 시작: matchId={}", matchId);
 
         try {
-            // 1. 좌석 키 삭제
-            String seatPattern = "seat:" + matchId + ":*";
-            Set<String> seatKeys = redisTemplate.keys(seatPattern);
-            if (seatKeys != null && !seatKeys.isEmpty()) {
-                redisTemplate.delete(seatKeys);
-                log.info("좌석 키 삭제: matchId={}, count={}", matchId, seatKeys.size());
-            }
+            // 1. 좌석 키 삭제 (섹션 비트맵 / 소유자 해시 / 섹션 집합)
+            List<String> seatKeys = seatReservationRedisRepository.allSeatKeys(matchId);
+            redisTemplate.delete(seatKeys);
+            log.info("좌석 키 삭제: matchId={}, count={}", matchId, seatKeys.size());
 
             // 2. 상태 키 삭제
             String statusKey = "match:" + matchId + ":status";
@@ -456,48 +419,6 @@ public class SeatConfirmationService {
         }
     }
 
-    /**
-     * Redis에서 해당 유저가 선점한 좌석 조회
-     * @return seatId 목록 (형식: "8-9-15")
-     */
-    private List<String> findUserSeats(Long matchId, Long userId) {
-        List<String> userSeats = new ArrayList<>();
-
-        String pattern = "seat:" + matchId + ":*";
-        Set<String> keys = redisTemplate.keys(pattern);
-
-        if (keys != null) {
-            for (String key : keys) {
-                String value = redisTemplate.opsForValue().get(key);
-                if (value != null) {
-                    String[] parts = value.split(":");
-                    if (parts.length == 2) {
-                        Long ownerId = Long.valueOf(parts[0]);
-                        if (ownerId.equals(userId)) {
-                            // key 형식: seat:100:8:9-15 -> seatId: 8-9-15
-                            String seatId = extractSeatIdFromKey(key);
-                            userSeats.add(seatId);
-                        }
-                    }
-                }
-            }
-        }
-
-        return userSeats;
-    }
-
-    /**
-     * Redis 키에서 seatId 추출
-     * 예: "seat:100:8:9-15" -> "8-9-15"
-     */
-    private String extractSeatIdFromKey(String key) {
-        String[] parts = key.split(":");
-        if (parts.length >= 4) {
-            return parts[2] + "-" + parts[3];  // sectionId-row-col
-        }
-        return "";
-    }
-
     /**
      * seatId에서 sectionId 추출
      * 예: "8-9-15" -> "8"
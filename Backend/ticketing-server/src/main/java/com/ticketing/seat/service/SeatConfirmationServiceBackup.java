@@ -9,6 +9,8 @@ import com.ticketing.seat.dto.SeatConfirmationRequest;
 import com.ticketing.seat.dto.SeatConfirmationResponse;
 import com.ticketing.seat.exception.MatchNotFoundException;
 import com.ticketing.seat.redis.MatchStatusRepository;
+import com.ticketing.seat.redis.SeatReservationRedisRepository;
+import com.ticketing.seat.redis.SeatReservationRedisRepository.SeatHolding;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -31,6 +33,7 @@ public class SeatConfirmationServiceBackup {
     private final StringRedisTemplate redisTemplate;
     private final RoomServerClient roomServerClient;
     private final StatsServerClient statsServerClient;
+    private final SeatReservationRedisRepository seatReservationRedisRepository;
 
     @Transactional
     public SeatConfirmationResponse confirmSeats(Long matchId, SeatConfirmationRequest request) {
@@ -397,21 +400,14 @@ public class SeatConfirmationServiceBackup {
                     log.info("미확정 유저 {}명 실패 통계 저장 시작: matchId={}", remaining, matchId);
 
                     // Redis에서 Hold만 하고 Confirm 안 한 유저 찾기
-                    Set<String> seatKeys = redisTemplate.keys("seat:" + matchId + ":*");
                     Set<Long> unconfirmedUsers = new HashSet<>();
 
-                    if (seatKeys != null) {
-                        for (String key : seatKeys) {
-                            String value = redisTemplate.opsForValue().get(key);
-                            if (value != null) {
-                                String[] parts = value.split(":");
-                                Long userId = Long.valueOf(parts[0]);
-
-                                // 봇이 아니고 DB에 통계 없으면 미확정 유저
-                                if (userId > 0 && !userStatsRepository.existsByUserIdAndMatchId(userId, matchId)) {
-                                    unconfirmedUsers.add(userId);
-                                }
-                            }
+                    for (SeatHolding holding : seatReservationRedisRepository.findAllSeats(matchId)) {
+                        Long userId = holding.userId();
+
+                        // 봇이 아니고 DB에 통계 없으면 미확정 유저
+                        if (userId > 0 && !userStatsRepository.existsByUserIdAndMatchId(userId, matchId)) {
+                            unconfirmedUsers.add(userId);
                         }
                     }
 
@@ -493,7 +489,7 @@ public class SeatConfirmationServiceBackup {
 
     /**
      * Redis 전체 정리 (모든 키 삭제)
-     * - 좌석 키: seat:{matchId}:*
+     * - 좌석 키: seat:{matchId}:{sectionId}:bits|owner, seat:{matchId}:sections
      * - 상태 키: match:{matchId}:status
      * - 카운트 키: match:{matchId}:reserved_count
      * - 실제 유저 키: humanusers:match:{matchId}
@@ -503,13 +499,10 @@ public class SeatConfirmationServiceBackup {
         log.info("경기 종료 - Redis 전체 정리 시작: matchId={}", matchId);
 
         try {
-            // 1. 좌석 키 삭제
-            String seatPattern = "seat:" + matchId + ":*";
-            Set<String> seatKeys = redisTemplate.keys(seatPattern);
-            if (seatKeys != null && !seatKeys.isEmpty()) {
-                redisTemplate.delete(seatKeys);
-                log.info("좌석 키 삭제: matchId={}, count={}", matchId, seatKeys.size());
-            }
+            // 1. 좌석 키 삭제 (섹션 비트맵 / 소유자 해시 / 섹션 집합)
+            List<String> seatKeys = seatReservationRedisRepository.allSeatKeys(matchId);
+            redisTemplate.delete(seatKeys);
+            log.info("좌석 키 삭제: matchId={}, count={}", matchId, seatKeys.size());
 
             // 2. 상태 키 삭제
             String statusKey = "match:" + matchId + ":status";
@@ -541,41 +534,9 @@ public class SeatConfirmationServiceBackup {
      * @return seatId 목록 (형식: "8-9-15")
      */
     private List<String> findUserSeats(Long matchId, Long userId) {
-        List<String> userSeats = new ArrayList<>();
-
-        String pattern = "seat:" + matchId + ":*";
-        Set<String> keys = redisTemplate.keys(pattern);
-
-        if (keys != null) {
-            for (String key : keys) {
-                String value = redisTemplate.opsForValue().get(key);
-                if (value != null) {
-                    String[] parts = value.split(":");
-                    if (parts.length == 2) {
-                        Long ownerId = Long.valueOf(parts[0]);
-                        if (ownerId.equals(userId)) {
-                            // key 형식: seat:100:8:9-15 -> seatId: 8-9-15
-                            String seatId = extractSeatIdFromKey(key);
-                            userSeats.add(seatId);
-                        }
-                    }
-                }
-            }
-        }
-
-        return userSeats;
-    }
-
-    /**
-     * Redis 키에서 seatId 추출
-     * 예: "seat:100:8:9-15" -> "8-9-15"
-     */
-    private String extractSeatIdFromKey(String key) {
-        String[] parts = key.split(":");
-        if (parts.length >= 4) {
-            return parts[2] + "-" + parts[3];  // sectionId-row-col
-        }
-        return "";
+        return seatReservationRedisRepository.findUserSeats(matchId, userId).stream()
+                .map(SeatHolding::seatId)
+                .toList();
     }
 
     /**
@@ -6,17 +6,15 @@ import com.ticketing.seat.dto.SeatInfo;
 import com.ticketing.seat.dto.SeatReservationRequest;
 import com.ticketing.seat.dto.SeatReservationResponse;
 import com.ticketing.entity.Match;
+import com.ticketing.queue.service.DequeueRateController;
 import com.ticketing.seat.exception.MatchClosedException;
 import com.ticketing.seat.exception.TooManySeatsRequestedException;
-import com.ticketing.seat.redis.MatchStatusRepository;
-import com.ticketing.repository.MatchRepository;
+import com.ticketing.repository.MatchMetadataCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,13 +24,10 @@ import java.util.List;
 public class SeatReservationService {
 
     private static final int MAX_SEATS_PER_REQUEST = 2;
-    private static final int MATCH_REDIS_TTL_SECONDS = 900; // 15분
-    private final StringRedisTemplate redisTemplate;
-    private final RoomServerClient roomServerClient;
 
-    private final MatchRepository matchRepository;
-    private final MatchStatusRepository matchStatusRepository;
+    private final MatchMetadataCache matchMetadataCache;
     private final LuaReservationExecutor luaReservationExecutor;
+    private final DequeueRateController dequeueRateController;
 
     @Transactional
     public SeatReservationResponse reserveSeats(Long matchId, SeatReservationRequest req) {
@@ -53,26 +48,19 @@ public class SeatReservationService {
         // 1-2. 각 좌석에 grade가 있는지 확인 (없으면 최상위 grade 사용)
         validateAndFillGrades(req);
 
-//        // 1-3. Redis 경기 상태 확인 전에 초기화 확인
-//        String statusKey = "match:" + matchId + ":status";
-//        if (Boolean.FALSE.equals(redisTemplate.hasKey(statusKey))) {
-//            // status 키가 없으면 OPEN으로 초기화
-//            redisTemplate.opsForValue().set(statusKey, "OPEN",
-//                    Duration.ofSeconds(MATCH_REDIS_TTL_SECONDS));
-//            log.info("매치 status 키 초기화: matchId={}, status=OPEN", matchId);
-//        }
-
-        // 2. DB에서 경기 정보 조회
-        Match match = matchRepository.findById(matchId)
-                .orElseThrow(() -> new IllegalArgumentException("Match not found: " + matchId));
+        // 2. 경기 정보 조회 (매치 메타데이터 캐시, 최초 1회만 DB 조회)
+        Match.MatchStatus matchStatus = matchMetadataCache.status(matchId);
+        if (matchStatus == null) {
+            throw new IllegalArgumentException("Match not found: " + matchId);
+        }
 
-        if (match.getStatus() != Match.MatchStatus.PLAYING) {
+        if (matchStatus != Match.MatchStatus.PLAYING) {
             throw new MatchClosedException(matchId);
         }
 
-        // 2-1. Room 서버에서 totalSeats 조회
-        Long roomId = match.getRoomId();
-        Integer totalSeats = roomServerClient.getTotalSeats(roomId);
+        // 2-1. totalSeats 조회 (room-server는 매치당 1회만 호출)
+        Long roomId = matchMetadataCache.roomId(matchId);
+        Integer totalSeats = matchMetadataCache.totalSeats(matchId);
 
         if (totalSeats == null || totalSeats <= 0) {
             log.error("전체 좌석 수 조회 실패: matchId={}, roomId={}", matchId, roomId);
@@ -82,12 +70,6 @@ public class SeatReservationService {
         log.info("전체 좌석 수 조회 성공: matchId={}, roomId={}, totalSeats={}",
                 matchId, roomId, totalSeats);
 
-        // 3. Redis 경기 상태 확인 (OPEN이면 예약 가능)
-        boolean redisOpen = matchStatusRepository.isOpen(matchId);
-        if (!redisOpen) {
-            throw new MatchClosedException(matchId);
-        }
-
         // 4. SeatInfo -> rowNumber, grade 변환
         String sectionId = req.extractSectionId();  // Long → String 변환 (Redis 키용)
         List<String> rowNumbers = req.getSeats().stream()
@@ -99,11 +81,13 @@ public class SeatReservationService {
                 .map(SeatInfo::getGrade)
                 .toList();
 
-        // 5. Redis 원자적 선점 시도 (각 좌석별 grade 전달)
+        // 5. Redis 원자적 선점 시도 (각 좌석별 grade 전달, 왕복 1회)
+        // 스크립트가 status OPEN 여부, 유저별 선점 한도, 좌석 점유를 함께 검사하고 매치 키 TTL까지 갱신
         // Hold 시점:
         // - 좌석 키만 저장
         // - reserved_count 변경 없음
         // - humanusers 변경 없음
+        long redisStart = System.currentTimeMillis();
         Long result = luaReservationExecutor.tryReserveSeatsAtomically(
                 matchId,
                 sectionId,  // String 타입 (Redis 키)
@@ -112,9 +96,24 @@ public class SeatReservationService {
                 grades,     // 각 좌석의 grade 리스트
                 totalSeats
         );
+        dequeueRateController.recordBackendLatency(matchId, System.currentTimeMillis() - redisStart);
+
+        // 5-1. 경기 종료 / 유저별 한도 초과 (좌석 경합이 아니므로 Hold 신호에서 제외)
+        if (result != null && result == LuaReservationExecutor.MATCH_NOT_OPEN) {
+            throw new MatchClosedException(matchId);
+        }
+        if (result != null && result == LuaReservationExecutor.USER_LIMIT_EXCEEDED) {
+            log.warn("좌석 선점 거절 (유저별 한도 초과): matchId={}, userId={}, seats={}",
+                    matchId, userId, rowNumbers);
+            throw new TooManySeatsRequestedException(userId, LuaReservationExecutor.MAX_SEATS_PER_USER);
+        }
+
+        // 대기열 소비량 제어: Hold 성공/실패 신호
+        boolean held = result != null && result == LuaReservationExecutor.HELD;
+        dequeueRateController.recordHold(matchId, held);
 
-        // 5-1. 실패 처리 (이미 선점된 좌석)
-        if (result == null || result == 0L) {
+        // 5-2. 실패 처리 (이미 선점된 좌석)
+        if (!held) {
             log.warn("좌석 선점 실패 (이미 선점됨): matchId={}, userId={}, seats={}",
                     matchId, userId, rowNumbers);
 
@@ -122,48 +121,12 @@ public class SeatReservationService {
             return buildFailureResponse(matchId, req);
         }
 
-        // 5-2. 성공 시 TTL 설정
-        setMatchRedisTTL(matchId);
-
         log.info("좌석 선점 성공: matchId={}, userId={}, seats={}",
                 matchId, userId, rowNumbers);
 
         return buildSuccessResponse(matchId, req);
     }
 
-    /**
-     * 매치 관련 Redis 키에 TTL 설정 (10분)
-     * Hold 첫 요청 시점에 호출하여 예상치 못한 종료 시 자동 정리
-     */
-    private void setMatchRedisTTL(Long matchId) {
-        try {
-            Duration ttl = Duration.ofSeconds(MATCH_REDIS_TTL_SECONDS);
-
-            // 1. 상태 키
-            String statusKey = "match:" + matchId + ":status";
-            redisTemplate.expire(statusKey, ttl);
-
-            // 2. reserved_count 키 (Confirm된 좌석 수)
-            String reservedCountKey = "match:" + matchId + ":reserved_count";
-            redisTemplate.expire(reservedCountKey, ttl);
-
-            // 3. 실제 유저 카운터
-            String humanUsersKey = "humanusers:match:" + matchId;
-            redisTemplate.expire(humanUsersKey, ttl);
-
-            // 4. 등수 카운터
-            String humanRankCounterKey = "match:" + matchId + ":human_rank_counter";
-            String totalRankCounterKey = "match:" + matchId + ":total_rank_counter";
-            redisTemplate.expire(humanRankCounterKey, ttl);
-            redisTemplate.expire(totalRankCounterKey, ttl);
-
-            log.info("매치 Redis 키 TTL 설정 완료: matchId={}, ttl={}초", matchId, MATCH_REDIS_TTL_SECONDS);
-
-        } catch (Exception e) {
-            log.error("매치 Redis TTL 설정 중 오류: matchId={}", matchId, e);
-        }
-    }
-
     /**
      * 각 좌석에 grade가 있는지 확인하고, 없으면 최상위 grade 사용 (하위 호환성)
      */
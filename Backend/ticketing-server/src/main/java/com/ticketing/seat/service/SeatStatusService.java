@@ -5,26 +5,25 @@ import com.ticketing.seat.dto.SeatStatusResponse;
 import com.ticketing.entity.Match;
 import com.ticketing.seat.exception.MatchClosedException;
 import com.ticketing.seat.exception.MatchNotFoundException;
-import com.ticketing.seat.redis.MatchStatusRepository;
-import com.ticketing.repository.MatchRepository;
+import com.ticketing.seat.redis.SeatReservationRedisRepository;
+import com.ticketing.seat.redis.SeatReservationRedisRepository.SeatOwnerInfo;
+import com.ticketing.repository.MatchMetadataCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SeatStatusService {
 
-    private final MatchRepository matchRepository;
-    private final MatchStatusRepository matchStatusRepository;
-    private final StringRedisTemplate redisTemplate;
+    private final MatchMetadataCache matchMetadataCache;
+    private final SeatReservationRedisRepository seatReservationRedisRepository;
 
     /**
      * 섹션 내 선점된 좌석 정보만 조회
@@ -35,67 +34,43 @@ public class SeatStatusService {
      */
     @Transactional(readOnly = true)
     public SeatStatusResponse getSeatStatus(Long matchId, String sectionId, Long userId) {
-        // 1. 매치 존재 확인
-        Match match = matchRepository.findById(matchId)
-                .orElseThrow(() -> new MatchNotFoundException(matchId));
+        // 1. 매치 존재 확인 (매치 메타데이터 캐시)
+        Match.MatchStatus matchStatus = matchMetadataCache.status(matchId);
+        if (matchStatus == null) {
+            throw new MatchNotFoundException(matchId);
+        }
 
         // 2. 매치 상태 확인 (PLAYING만 조회 가능)
-        if (match.getStatus() != Match.MatchStatus.PLAYING) {
+        if (matchStatus != Match.MatchStatus.PLAYING) {
             throw new MatchClosedException(matchId);
         }
 
         // 3. Redis 매치 상태 확인
-        String redisStatus = matchStatusRepository.getMatchStatus(matchId);
-        if (!"OPEN".equalsIgnoreCase(redisStatus)) {
+        if (!matchMetadataCache.isOpen(matchId)) {
             throw new MatchClosedException(matchId);
         }
 
         // 4. Redis에서 해당 섹션의 선점된 좌석만 조회
-        // 키 패턴: seat:{matchId}:{sectionId}:*
-        String pattern = "seat:" + matchId + ":" + sectionId + ":*";
-        Set<String> keys = redisTemplate.keys(pattern);
-
-        List<SeatStatusDto> seats = new ArrayList<>();
-
-        if (keys != null && !keys.isEmpty()) {
-            for (String key : keys) {
-                // seat:100:008:9-15 -> 9-15 추출
-                String rowNumber = extractRowNumberFromKey(key);
-                String seatId = sectionId + "-" + rowNumber;
-
-                // Redis 값: userId:grade
-                String value = redisTemplate.opsForValue().get(key);
-                if (value == null) continue;
-
-                String[] parts = value.split(":");
-                if (parts.length != 2) continue;
+        // 섹션 비트맵 + 소유자 해시를 한 번에 읽음 (키 스캔 없음)
+        Map<String, SeatOwnerInfo> taken = seatReservationRedisRepository.findSectionSeats(matchId, sectionId);
 
-                Long ownerId = Long.valueOf(parts[0]);
-                String seatGrade = parts[1];
+        List<SeatStatusDto> seats = new ArrayList<>(taken.size());
+        taken.forEach((rowNumber, owner) -> {
+            String seatId = sectionId + "-" + rowNumber;
 
-                // 상태 판단
-                String status = ownerId.equals(userId) ? "MY_RESERVED" : "TAKEN";
+            // 상태 판단 (소유자 정보가 없으면 다른 사람 좌석으로 취급)
+            String status = owner != null && owner.getUserId().equals(userId) ? "MY_RESERVED" : "TAKEN";
 
-                seats.add(SeatStatusDto.builder()
-                        .seatId(seatId)
-                        .grade(seatGrade)  // 각 좌석의 grade 포함
-                        .status(status)
-                        .build());
-            }
-        }
+            seats.add(SeatStatusDto.builder()
+                    .seatId(seatId)
+                    .grade(owner != null ? owner.getGrade() : null)  // 각 좌석의 grade 포함
+                    .status(status)
+                    .build());
+        });
 
         return SeatStatusResponse.builder()
                 .sectionId(sectionId)
                 .seats(seats)
                 .build();
     }
-
-    /**
-     * Redis 키에서 rowNumber 추출
-     * 예: "seat:100:008:9-15" -> "9-15"
-     */
-    private String extractRowNumberFromKey(String key) {
-        String[] parts = key.split(":");
-        return parts.length >= 4 ? parts[3] : "";
-    }
-}
\ No newline at end of file
+}
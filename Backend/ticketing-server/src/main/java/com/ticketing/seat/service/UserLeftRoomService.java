@@ -6,6 +6,8 @@ import com.ticketing.repository.UserStatsRepository;
 import com.ticketing.seat.concurrency.LuaCancelExecutor;
 import com.ticketing.seat.dto.SeatInfo;
 import com.ticketing.seat.dto.UserLeftRoomResponse;
+import com.ticketing.seat.redis.SeatReservationRedisRepository;
+import com.ticketing.seat.redis.SeatReservationRedisRepository.SeatHolding;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -40,6 +42,7 @@ public class UserLeftRoomService {
     private final UserStatsRepository userStatsRepository;
     private final StringRedisTemplate redisTemplate;
     private final LuaCancelExecutor luaCancelExecutor;
+    private final SeatReservationRedisRepository seatReservationRedisRepository;
 
     @Transactional
     public UserLeftRoomResponse handleUserLeftRoom(Long roomId, Long userId) {
@@ -279,28 +282,11 @@ public class UserLeftRoomService {
     private List<SeatInfo> findUserSeatsInfo(Long matchId, Long userId) {
         List<SeatInfo> userSeats = new ArrayList<>();
 
-        String pattern = "seat:" + matchId + ":*";
-        Set<String> keys = redisTemplate.keys(pattern);
-
-        if (keys != null) {
-            for (String key : keys) {
-                String value = redisTemplate.opsForValue().get(key);
-                if (value != null) {
-                    String[] parts = value.split(":");
-                    if (parts.length == 2) {
-                        Long ownerId = Long.valueOf(parts[0]);
-                        String grade = parts[1];
-
-                        if (ownerId.equals(userId)) {
-                            // key 형식: seat:100:8:9-15
-                            // sectionId = 8, row = 9, col = 15
-                            SeatInfo seatInfo = extractSeatInfoFromKey(key, grade);
-                            if (seatInfo != null) {
-                                userSeats.add(seatInfo);
-                            }
-                        }
-                    }
-                }
+        for (SeatHolding holding : seatReservationRedisRepository.findUserSeats(matchId, userId)) {
+            // rowNumber 형식: {row}-{col}
+            SeatInfo seatInfo = toSeatInfo(holding);
+            if (seatInfo != null) {
+                userSeats.add(seatInfo);
             }
         }
 
@@ -308,29 +294,22 @@ public class UserLeftRoomService {
     }
 
     /**
-     * Redis 키에서 SeatInfo 추출
-     * 예: "seat:100:8:9-15" + grade "R석" -> SeatInfo(8, 9, 15, "R석")
+     * 선점 좌석에서 SeatInfo 추출
+     * 예: section "8", rowNumber "9-15", grade "R석" -> SeatInfo(8, 9, 15, "R석")
      */
-    private SeatInfo extractSeatInfoFromKey(String key, String grade) {
-        String[] parts = key.split(":");
-        if (parts.length >= 4) {
-            try {
-                Long sectionId = Long.valueOf(parts[2]);
-                String[] rowCol = parts[3].split("-");
-                if (rowCol.length == 2) {
-                    Long row = Long.valueOf(rowCol[0]);
-                    Long col = Long.valueOf(rowCol[1]);
-
-                    return SeatInfo.builder()
-                            .sectionId(sectionId)
-                            .row(row)
-                            .col(col)
-                            .grade(grade)
-                            .build();
-                }
-            } catch (NumberFormatException e) {
-                log.error("좌석 정보 파싱 실패: key={}", key, e);
+    private SeatInfo toSeatInfo(SeatHolding holding) {
+        try {
+            String[] rowCol = holding.rowNumber().split("-");
+            if (rowCol.length == 2) {
+                return SeatInfo.builder()
+                        .sectionId(Long.valueOf(holding.sectionId()))
+                        .row(Long.valueOf(rowCol[0]))
+                        .col(Long.valueOf(rowCol[1]))
+                        .grade(holding.grade())
+                        .build();
             }
+        } catch (NumberFormatException e) {
+            log.error("좌석 정보 파싱 실패: seatId={}", holding.seatId(), e);
         }
         return null;
     }
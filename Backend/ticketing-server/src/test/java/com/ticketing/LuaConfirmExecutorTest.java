@@ -0,0 +1,126 @@
+package com.ticketing;
+
+import com.ticketing.seat.concurrency.LuaConfirmExecutor;
+import com.ticketing.seat.concurrency.LuaConfirmExecutor.ConfirmResult;
+import com.ticketing.seat.redis.SeatReservationRedisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LuaConfirmExecutorTest extends RedisMatchTestSupport {
+
+    @Autowired
+    LuaConfirmExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        redis.opsForValue().set("humanusers:match:" + matchId, "2");
+    }
+
+    private void hold(Long userId, String... seatIds) {
+        for (String seatId : seatIds) {
+            redis.opsForHash().put(SeatReservationRedisRepository.userKey(matchId, userId), seatId, "R석");
+        }
+    }
+
+    private String get(String key) {
+        return redis.opsForValue().get(key);
+    }
+
+    @Test
+    void 선점_좌석을_확정하고_등수와_카운터를_갱신한다() {
+        hold(1L, "8-9-15", "8-9-16");
+
+        ConfirmResult result = executor.confirm(matchId, 1L, 0);
+
+        assertThat(result.confirmed()).isTrue();
+        assertThat(result.seatIds()).containsExactlyInAnyOrder("8-9-15", "8-9-16");
+        assertThat(result.reservedCount()).isEqualTo(2L);
+        assertThat(result.userRank()).isEqualTo(1);
+        assertThat(result.totalRank()).isEqualTo(1);
+        assertThat(result.remainingHumanUsers()).isEqualTo(1L);
+        assertThat(result.matchEnded()).isFalse();
+
+        // 중복 확정은 스크립트에서 거른다
+        assertThat(executor.confirm(matchId, 1L, 0).status()).isEqualTo(LuaConfirmExecutor.ALREADY_CONFIRMED);
+    }
+
+    @Test
+    void 선점_좌석이_없으면_확정하지_않는다() {
+        assertThat(executor.confirm(matchId, 1L, 0).status()).isEqualTo(LuaConfirmExecutor.NO_HELD_SEATS);
+        assertThat(get("match:" + matchId + ":reserved_count")).isNull();
+    }
+
+    @Test
+    void 봇은_실제_유저_등수와_남은_인원을_바꾸지_않는다() {
+        hold(-1L, "8-1-1");
+
+        ConfirmResult result = executor.confirm(matchId, -1L, 0);
+
+        assertThat(result.confirmed()).isTrue();
+        assertThat(result.userRank()).isEqualTo(-1);
+        assertThat(result.totalRank()).isEqualTo(1);
+        assertThat(result.remainingHumanUsers()).isEqualTo(2L);
+        assertThat(get("match:" + matchId + ":human_rank_counter")).isNull();
+    }
+
+    @Test
+    void 모든_실제_유저가_확정하면_종료() {
+        hold(1L, "8-1-1");
+        hold(2L, "8-1-2");
+
+        assertThat(executor.confirm(matchId, 1L, 0).matchEnded()).isFalse();
+        assertThat(executor.confirm(matchId, 2L, 0).matchEnded()).isTrue();
+    }
+
+    @Test
+    void 만석이면_남은_유저가_있어도_종료() {
+        hold(1L, "8-1-1");
+
+        ConfirmResult result = executor.confirm(matchId, 1L, 1);
+
+        assertThat(result.remainingHumanUsers()).isEqualTo(1L);
+        assertThat(result.matchEnded()).isTrue();
+    }
+
+    @Test
+    void 통계_저장_실패_시_확정을_되돌리면_재확정할_수_있다() {
+        hold(1L, "8-9-15", "8-9-16");
+        ConfirmResult confirmed = executor.confirm(matchId, 1L, 0);
+
+        assertThat(executor.rollback(matchId, 1L, confirmed)).isTrue();
+
+        assertThat(redis.opsForSet().isMember(SeatReservationRedisRepository.confirmedKey(matchId), "1")).isFalse();
+        assertThat(get("match:" + matchId + ":reserved_count")).isEqualTo("0");
+        assertThat(get("match:" + matchId + ":human_rank_counter")).isEqualTo("0");
+        assertThat(get("match:" + matchId + ":total_rank_counter")).isEqualTo("0");
+        assertThat(get("humanusers:match:" + matchId)).isEqualTo("2");
+
+        // 두 번 되돌리지 않는다
+        assertThat(executor.rollback(matchId, 1L, confirmed)).isFalse();
+        assertThat(get("humanusers:match:" + matchId)).isEqualTo("2");
+
+        // 선점 좌석은 남아 있으므로 같은 요청으로 재확정
+        ConfirmResult retried = executor.confirm(matchId, 1L, 0);
+        assertThat(retried.confirmed()).isTrue();
+        assertThat(retried.userRank()).isEqualTo(1);
+        assertThat(retried.reservedCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void 그_사이_다른_확정이_있으면_등수는_되돌리지_않는다() {
+        hold(1L, "8-1-1");
+        hold(2L, "8-1-2");
+        ConfirmResult first = executor.confirm(matchId, 1L, 0);
+        executor.confirm(matchId, 2L, 0);
+
+        assertThat(executor.rollback(matchId, 1L, first)).isTrue();
+
+        // 중복 등수 방지: 2등이 이미 나갔으므로 카운터 유지 (1등 자리는 비어 있음)
+        assertThat(get("match:" + matchId + ":human_rank_counter")).isEqualTo("2");
+        assertThat(get("match:" + matchId + ":reserved_count")).isEqualTo("1");
+        assertThat(get("humanusers:match:" + matchId)).isEqualTo("1");
+    }
+}
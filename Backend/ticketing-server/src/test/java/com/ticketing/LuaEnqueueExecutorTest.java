@@ -0,0 +1,122 @@
+package com.ticketing;
+
+import com.ticketing.queue.concurrency.LuaEnqueueExecutor;
+import com.ticketing.queue.concurrency.LuaEnqueueExecutor.EnqueueResult;
+import com.ticketing.queue.domain.QueuePosition;
+import com.ticketing.queue.domain.enums.QueueKeys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LuaEnqueueExecutorTest extends RedisMatchTestSupport {
+
+    @Autowired
+    LuaEnqueueExecutor executor;
+
+    private EnqueueResult enqueue(long userId, long now) {
+        return executor.enqueue(matchId, userId, userId > 0 ? "user" : "robot", now, "ENQUEUED", "ALREADY_IN_QUEUE");
+    }
+
+    private String state(long userId) {
+        Object value = redis.opsForHash().get(QueueKeys.userStates(matchId), String.valueOf(userId));
+        return value == null ? null : value.toString();
+    }
+
+    @Test
+    void 한_번의_스크립트로_시퀀스_대기열_상태를_함께_기록한다() {
+        EnqueueResult first = enqueue(1L, 1000L);
+        EnqueueResult second = enqueue(2L, 1001L);
+
+        assertThat(first.added()).isTrue();
+        assertThat(first.rank()).isEqualTo(0L);
+        assertThat(first.total()).isEqualTo(1L);
+        assertThat(second.rank()).isEqualTo(1L);
+        assertThat(second.total()).isEqualTo(2L);
+
+        // 대기열 score = 시퀀스
+        assertThat(redis.opsForValue().get(QueueKeys.sequence(matchId))).isEqualTo("2");
+        assertThat(redis.opsForZSet().score(QueueKeys.waitingZSet(matchId), "2")).isEqualTo(2d);
+        assertThat(state(1L)).startsWith("ENQUEUED|1000|");
+        assertThat(redis.opsForSet().isMember(QueueKeys.activeMatches(), String.valueOf(matchId))).isTrue();
+        assertThat(redis.getExpire(QueueKeys.sequence(matchId))).isPositive();
+    }
+
+    @Test
+    void 재진입은_순서와_시퀀스를_바꾸지_않는다() {
+        enqueue(1L, 1000L);
+        enqueue(2L, 1001L);
+
+        EnqueueResult again = enqueue(1L, 2000L);
+
+        assertThat(again.added()).isFalse();
+        assertThat(again.rank()).isEqualTo(0L);
+        assertThat(again.total()).isEqualTo(2L);
+        assertThat(redis.opsForValue().get(QueueKeys.sequence(matchId))).isEqualTo("2");
+        assertThat(redis.opsForZSet().score(QueueKeys.waitingZSet(matchId), "1")).isEqualTo(1d);
+        assertThat(state(1L)).startsWith("ALREADY_IN_QUEUE|2000|0|");
+    }
+
+    @Test
+    void 진입은_생존_신호로_기록한다() {
+        enqueue(1L, 1000L);
+
+        assertThat(redis.opsForZSet().score(QueueKeys.heartbeat(matchId), "1")).isEqualTo(1000d);
+    }
+
+    @Test
+    void 진입_시점에_이미_이탈한_앞_사용자는_따로_기록한다() {
+        enqueue(1L, 1000L);
+        enqueue(2L, 1001L);
+        // 1번이 이탈 정리됨 (pruned score = seq)
+        redis.opsForZSet().remove(QueueKeys.waitingZSet(matchId), "1");
+        redis.opsForZSet().add(QueueKeys.pruned(matchId), "1", 1d);
+
+        enqueue(3L, 1002L);
+
+        // rawRank 1 (2번), prunedAtJoin 1
+        String[] state = QueuePosition.parse(state(3L));
+        assertThat(state[2]).isEqualTo("1");
+        assertThat(state[7]).isEqualTo("1");
+        // 진입 이후 추가 이탈 없음 → ahead = rawRank
+        assertThat(QueuePosition.ahead(state, 0, 0, 1)).isEqualTo(1L);
+    }
+
+    @Test
+    void 봇은_봇_레인에만_넣고_순번은_두_레인을_합산한다() {
+        enqueue(1L, 1000L);
+
+        EnqueueResult bot = enqueue(-1L, 1001L);
+        assertThat(bot.added()).isTrue();
+        assertThat(bot.rank()).isEqualTo(1L);
+        assertThat(bot.total()).isEqualTo(2L);
+        assertThat(state(-1L)).isNull();
+        assertThat(redis.opsForZSet().score(QueueKeys.botZSet(matchId), "-1")).isEqualTo(2d);
+        assertThat(redis.opsForZSet().score(QueueKeys.waitingZSet(matchId), "-1")).isNull();
+
+        EnqueueResult user = enqueue(2L, 1002L);
+        assertThat(user.rank()).isEqualTo(2L);
+        assertThat(user.total()).isEqualTo(3L);
+        // rawRank 1 (사람 레인), botRank 1 (봇 레인)
+        assertThat(state(2L)).isEqualTo("ENQUEUED|1002|1|0|1|0|3|0");
+    }
+
+    @Test
+    void 봇_일괄_진입은_이미_대기_중인_봇을_건너뛰고_들어간_봇만_돌려준다() {
+        enqueue(1L, 1000L);
+        enqueue(-1L, 1001L);
+
+        var result = executor.enqueueBots(matchId, List.of(-3L, -1L, -2L));
+
+        assertThat(result.added()).isEqualTo(2L);
+        assertThat(result.total()).isEqualTo(4L);
+        // 로그에 남길 봇 ID (요청 순서 = 진입 순서)
+        assertThat(result.addedIds()).containsExactly(-3L, -2L);
+        assertThat(redis.opsForZSet().score(QueueKeys.botZSet(matchId), "-1")).isEqualTo(2d);
+        assertThat(redis.opsForZSet().score(QueueKeys.botZSet(matchId), "-3")).isEqualTo(3d);
+        assertThat(redis.opsForZSet().score(QueueKeys.botZSet(matchId), "-2")).isEqualTo(4d);
+        assertThat(redis.opsForValue().get(QueueKeys.sequence(matchId))).isEqualTo("4");
+    }
+}
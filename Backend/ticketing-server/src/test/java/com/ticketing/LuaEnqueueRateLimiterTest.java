@@ -0,0 +1,96 @@
+package com.ticketing;
+
+import com.ticketing.queue.concurrency.LuaEnqueueRateLimiter;
+import com.ticketing.queue.concurrency.LuaEnqueueRateLimiter.RateLimitResult;
+import com.ticketing.queue.domain.enums.QueueKeys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LuaEnqueueRateLimiterTest extends RedisMatchTestSupport {
+
+    // 사용자: 3개 / 초당 0.5개, IP: 5개 / 초당 1개 (application.yaml 값과 무관하게 고정)
+    LuaEnqueueRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new LuaEnqueueRateLimiter(redis, 3, 0.5, 5, 1);
+    }
+
+    @Test
+    void 사용자_버킷을_다_쓰면_재시도_시간을_알려준다() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(matchId, 1L, "10.0.0.1").allowed()).isTrue();
+        }
+
+        RateLimitResult limited = limiter.tryAcquire(matchId, 1L, "10.0.0.1");
+
+        assertThat(limited.allowed()).isFalse();
+        assertThat(limited.limitedBy()).isEqualTo("user");
+        // 토큰 1개 보충에 2초
+        assertThat(limited.retryAfterMs()).isBetween(1L, 2000L);
+    }
+
+    @Test
+    void 같은_IP의_여러_사용자는_IP_버킷을_나눠_쓴다() {
+        for (long userId = 1; userId <= 5; userId++) {
+            assertThat(limiter.tryAcquire(matchId, userId, "10.0.0.2").allowed()).isTrue();
+        }
+
+        RateLimitResult limited = limiter.tryAcquire(matchId, 6L, "10.0.0.2");
+        assertThat(limited.allowed()).isFalse();
+        assertThat(limited.limitedBy()).isEqualTo("ip");
+
+        // IP에서 막힌 요청은 사용자 토큰을 차감하지 않는다
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(matchId, 6L, "10.0.0.3").allowed()).isTrue();
+        }
+    }
+
+    @Test
+    void IP가_없으면_사용자_버킷만_확인한다() {
+        for (long userId = 1; userId <= 6; userId++) {
+            assertThat(limiter.tryAcquire(matchId, userId, null).allowed()).isTrue();
+        }
+        assertThat(limiter.tryAcquire(matchId, 1L, " ").allowed()).isTrue();
+    }
+
+    @Test
+    void 매치별_설정으로_기본값을_덮어쓴다() {
+        redis.opsForHash().put(QueueKeys.rateLimitConfig(matchId), "userCapacity", "1");
+
+        assertThat(limiter.tryAcquire(matchId, 1L, "10.0.0.4").allowed()).isTrue();
+        assertThat(limiter.tryAcquire(matchId, 1L, "10.0.0.4").allowed()).isFalse();
+    }
+
+    @Test
+    void 잘못된_매치별_설정은_무시하고_기본값을_쓴다() {
+        redis.opsForHash().putAll(QueueKeys.rateLimitConfig(matchId), Map.of(
+                "userCapacity", "0",
+                "userRefillPerSec", "-1",
+                "ipCapacity", "abc",
+                "ipRefillPerSec", "0"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(matchId, 1L, "10.0.0.5").allowed()).isTrue();
+        }
+
+        // 보충 속도 0 / 음수였다면 재시도 시간이 무한대 또는 음수가 된다
+        RateLimitResult limited = limiter.tryAcquire(matchId, 1L, "10.0.0.5");
+        assertThat(limited.allowed()).isFalse();
+        assertThat(limited.retryAfterMs()).isBetween(1L, 2000L);
+        assertThat(redis.getExpire(QueueKeys.userRateLimit(matchId, 1L))).isPositive();
+    }
+
+    @Test
+    void 기본_용량이나_보충_속도가_0_이하면_시작하지_않는다() {
+        assertThatThrownBy(() -> new LuaEnqueueRateLimiter(redis, 3, 0, 5, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LuaEnqueueRateLimiter(redis, 3, 0.5, -1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,97 @@
+package com.ticketing;
+
+import com.ticketing.seat.concurrency.LuaReservationExecutor;
+import com.ticketing.seat.redis.SeatReservationRedisRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static com.ticketing.seat.redis.SeatReservationRedisRepository.bitsKey;
+import static com.ticketing.seat.redis.SeatReservationRedisRepository.ownerKey;
+import static com.ticketing.seat.redis.SeatReservationRedisRepository.sectionsKey;
+import static com.ticketing.seat.redis.SeatReservationRedisRepository.userKey;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LuaReservationExecutorTest extends RedisMatchTestSupport {
+
+    @Autowired
+    LuaReservationExecutor executor;
+
+    final String sectionId = "1";
+
+    private String statusKey() {
+        return "match:" + matchId + ":status";
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.opsForValue().set(statusKey(), "OPEN");
+    }
+
+    private Long hold(long userId, String... rowNumbers) {
+        List<String> seats = List.of(rowNumbers);
+        return executor.tryReserveSeatsAtomically(matchId, sectionId, seats, userId,
+                seats.stream().map(r -> "R석").toList(), 0);
+    }
+
+    private boolean bit(String rowNumber) {
+        return Boolean.TRUE.equals(redis.opsForValue()
+                .getBit(bitsKey(matchId, sectionId), SeatReservationRedisRepository.seatIndex(rowNumber)));
+    }
+
+    @Test
+    void 경기가_OPEN이_아니면_선점하지_않는다() {
+        redis.opsForValue().set(statusKey(), "CLOSED");
+
+        assertThat(hold(1L, "9-15")).isEqualTo(LuaReservationExecutor.MATCH_NOT_OPEN);
+        assertThat(bit("9-15")).isFalse();
+        assertThat(redis.hasKey(ownerKey(matchId, sectionId))).isFalse();
+    }
+
+    @Test
+    void 좌석_비트와_소유자_유저_인덱스를_함께_기록한다() {
+        assertThat(hold(1L, "9-15", "9-16")).isEqualTo(LuaReservationExecutor.HELD);
+
+        assertThat(bit("9-15")).isTrue();
+        assertThat(bit("9-16")).isTrue();
+        assertThat(bit("9-17")).isFalse();
+        assertThat(redis.opsForHash().get(ownerKey(matchId, sectionId), "9-15")).isEqualTo("1:R석");
+        assertThat(redis.opsForHash().get(ownerKey(matchId, sectionId), "9-16")).isEqualTo("1:R석");
+        assertThat(redis.opsForHash().entries(userKey(matchId, 1L)))
+                .containsOnlyKeys("1-9-15", "1-9-16");
+        assertThat(redis.opsForSet().isMember(sectionsKey(matchId), sectionId)).isTrue();
+        assertThat(redis.getExpire(bitsKey(matchId, sectionId))).isPositive();
+    }
+
+    @Test
+    void 이미_선점한_좌석을_포함해_한도를_넘으면_거부한다() {
+        assertThat(hold(1L, "9-15", "9-16")).isEqualTo(LuaReservationExecutor.HELD);
+
+        assertThat(hold(1L, "9-17")).isEqualTo(LuaReservationExecutor.USER_LIMIT_EXCEEDED);
+        assertThat(bit("9-17")).isFalse();
+        assertThat(redis.opsForHash().size(userKey(matchId, 1L))).isEqualTo(2L);
+    }
+
+    @Test
+    void 좌석_하나라도_선점돼_있으면_아무것도_기록하지_않는다() {
+        assertThat(hold(1L, "9-15")).isEqualTo(LuaReservationExecutor.HELD);
+
+        assertThat(hold(2L, "9-14", "9-15")).isEqualTo(LuaReservationExecutor.SEAT_TAKEN);
+
+        assertThat(bit("9-14")).isFalse();
+        assertThat(redis.opsForHash().get(ownerKey(matchId, sectionId), "9-14")).isNull();
+        assertThat(redis.opsForHash().get(ownerKey(matchId, sectionId), "9-15")).isEqualTo("1:R석");
+        assertThat(redis.hasKey(userKey(matchId, 2L))).isFalse();
+    }
+
+    @Test
+    void 좌석과_등급_개수가_다르면_호출하지_않는다() {
+        assertThatThrownBy(() -> executor.tryReserveSeatsAtomically(matchId, sectionId,
+                List.of("9-15", "9-16"), 1L, List.of("R석"), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(redis.hasKey(bitsKey(matchId, sectionId))).isFalse();
+    }
+}
@@ -0,0 +1,77 @@
+package com.ticketing;
+
+import com.ticketing.queue.domain.enums.QueueKeys;
+import com.ticketing.queue.service.QueueAbandonSweeper;
+import com.ticketing.queue.service.QueueOwnershipManager;
+import com.ticketing.queue.service.QueueTickExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueueAbandonSweeperTest extends RedisMatchTestSupport {
+
+    QueueAbandonSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        QueueOwnershipManager ownership = mock(QueueOwnershipManager.class);
+        when(ownership.ownedMatchIds()).thenReturn(Set.of(matchId));
+
+        // 틱 작업은 바로 실행
+        QueueTickExecutor tickExecutor = mock(QueueTickExecutor.class);
+        doAnswer(inv -> {
+            inv.<Runnable>getArgument(2).run();
+            return null;
+        }).when(tickExecutor).submit(anyString(), anyLong(), any(Runnable.class));
+
+        sweeper = new QueueAbandonSweeper(redis, ownership, tickExecutor, new SimpleMeterRegistry(), 30_000L);
+    }
+
+    private void waiting(String userId, long seq, long lastSeen) {
+        redis.opsForZSet().add(QueueKeys.waitingZSet(matchId), userId, seq);
+        redis.opsForHash().put(QueueKeys.userStates(matchId), userId, "ENQUEUED|" + lastSeen + "|0|0|0|0|" + seq + "|0");
+        redis.opsForZSet().add(QueueKeys.heartbeat(matchId), userId, lastSeen);
+    }
+
+    @Test
+    void 오래된_대기자를_pruned로_옮긴다() {
+        long now = System.currentTimeMillis();
+        waiting("1", 1, now - 60_000);
+        waiting("2", 2, now);
+
+        sweeper.sweep();
+
+        assertThat(redis.opsForZSet().score(QueueKeys.waitingZSet(matchId), "1")).isNull();
+        assertThat(redis.opsForZSet().score(QueueKeys.pruned(matchId), "1")).isEqualTo(1d);
+        assertThat(redis.opsForHash().hasKey(QueueKeys.userStates(matchId), "1")).isFalse();
+        assertThat(redis.opsForZSet().score(QueueKeys.waitingZSet(matchId), "2")).isEqualTo(2d);
+        assertThat(redis.opsForZSet().score(QueueKeys.heartbeat(matchId), "2")).isNotNull();
+    }
+
+    @Test
+    void 대기열에_없는_오래된_항목이_한_배치를_채워도_뒤의_대기자까지_정리한다() {
+        long now = System.currentTimeMillis();
+        // 대기열을 이미 빠져나간 사용자의 heartbeat 600개 (가장 오래됨)
+        for (int i = 0; i < 600; i++) {
+            redis.opsForZSet().add(QueueKeys.heartbeat(matchId), String.valueOf(10_000 + i), now - 120_000 + i);
+        }
+        waiting("1", 1, now - 60_000);
+
+        sweeper.sweep();
+
+        assertThat(redis.opsForZSet().score(QueueKeys.pruned(matchId), "1")).isEqualTo(1d);
+        assertThat(redis.opsForZSet().zCard(QueueKeys.heartbeat(matchId))).isZero();
+        // 빠져나간 사용자는 pruned에 기록하지 않는다 (순번 보정 대상 아님)
+        assertThat(redis.opsForZSet().zCard(QueueKeys.pruned(matchId))).isEqualTo(1L);
+    }
+}
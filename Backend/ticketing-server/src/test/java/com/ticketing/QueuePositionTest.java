@@ -0,0 +1,66 @@
+package com.ticketing;
+
+import com.ticketing.queue.domain.QueuePosition;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class QueuePositionTest {
+
+    // state|joinedAt|rawRank|joinOffset|botRank|botJoinOffset|seq|prunedAtJoin
+    private static final String[] WAITING = QueuePosition.parse("WAITING|1000|10|5|4|2|42|3");
+
+    @Test
+    void 진입_이후_소비된_인원만큼_순번이_줄어든다() {
+        // 사람 레인: 10 - (8 - 5) = 7, 봇 레인: 4 - (3 - 2) = 3
+        assertThat(QueuePosition.ahead(WAITING, 8, 3, 3)).isEqualTo(10L);
+    }
+
+    @Test
+    void 진입_이후_내_앞_이탈_인원은_사람_레인에서만_뺀다() {
+        // prunedBefore 6 - prunedAtJoin 3 = 3명 이탈 → 사람 레인 7 - 3 = 4, 봇 레인 3
+        assertThat(QueuePosition.ahead(WAITING, 8, 3, 6)).isEqualTo(7L);
+        // 진입 전 이탈 인원(prunedAtJoin)보다 적게 세어져도 음수로 보정하지 않는다
+        assertThat(QueuePosition.ahead(WAITING, 8, 3, 1)).isEqualTo(10L);
+    }
+
+    @Test
+    void 레인별_순번은_0_아래로_내려가지_않는다() {
+        assertThat(QueuePosition.ahead(WAITING, 100, 100, 0)).isEqualTo(0L);
+        assertThat(QueuePosition.ahead(WAITING, 8, 3, 100)).isEqualTo(3L);
+    }
+
+    @Test
+    void 이탈_정리_이전_형식은_이탈_보정_없이_계산한다() {
+        String[] legacy = QueuePosition.parse("WAITING|1000|10|5|4|2");
+        assertThat(QueuePosition.seq(legacy)).isEqualTo(-1L);
+        assertThat(QueuePosition.ahead(legacy, 8, 3, 100)).isEqualTo(10L);
+    }
+
+    @Test
+    void 대기열을_빠져나간_사용자는_앞_인원이_0이다() {
+        String[] dequeued = QueuePosition.parse("DEQUEUED|2000");
+        assertThat(QueuePosition.isDequeued(dequeued)).isTrue();
+        assertThat(QueuePosition.seq(dequeued)).isEqualTo(-1L);
+        assertThat(QueuePosition.ahead(dequeued, 8, 3, 6)).isEqualTo(0L);
+    }
+
+    @Test
+    void 뒤_인원과_예상_대기_시간() {
+        assertThat(QueuePosition.seq(WAITING)).isEqualTo(42L);
+        assertThat(QueuePosition.behind(20, 7)).isEqualTo(12L);
+        assertThat(QueuePosition.behind(5, 7)).isEqualTo(0L);
+
+        assertThat(QueuePosition.etaSeconds(0, 0d)).isEqualTo(0L);
+        assertThat(QueuePosition.etaSeconds(7, 0d)).isEqualTo(-1L);
+        assertThat(QueuePosition.etaSeconds(7, 2d)).isEqualTo(4L);
+        assertThat(QueuePosition.etaSeconds(10, 2.5d)).isEqualTo(4L);
+    }
+
+    @Test
+    void 숫자가_아닌_값은_0으로_읽는다() {
+        assertThat(QueuePosition.parseOrZero(null)).isEqualTo(0L);
+        assertThat(QueuePosition.parseOrZero("abc")).isEqualTo(0L);
+        assertThat(QueuePosition.ahead(QueuePosition.parse("WAITING|1000|x|5|4|2"), 8, 3, 0)).isEqualTo(3L);
+    }
+}
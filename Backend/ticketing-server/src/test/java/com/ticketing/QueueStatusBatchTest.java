@@ -0,0 +1,49 @@
+package com.ticketing;
+
+import com.ticketing.queue.DTO.response.QueueStatusResponseDTO;
+import com.ticketing.queue.concurrency.LuaEnqueueExecutor;
+import com.ticketing.queue.domain.enums.QueueKeys;
+import com.ticketing.queue.service.QueueService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// room-server 방 알림이 쓰는 일괄 조회는 단건 조회와 같은 순번을 돌려준다
+class QueueStatusBatchTest extends RedisMatchTestSupport {
+
+    @Autowired
+    LuaEnqueueExecutor executor;
+
+    @Autowired
+    QueueService queueService;
+
+    private void enqueue(long userId, long now) {
+        executor.enqueue(matchId, userId, userId > 0 ? "user" : "robot", now, "ENQUEUED", "ALREADY_IN_QUEUE");
+    }
+
+    @Test
+    void 일괄_조회는_대기열에_없는_사용자를_빼고_단건_조회와_같은_순번을_준다() {
+        enqueue(1L, 1000L);
+        enqueue(-1L, 1001L);
+        enqueue(2L, 1002L);
+        enqueue(3L, 1003L);
+        // 1번 소비, 2번 이탈 정리
+        redis.opsForValue().set(QueueKeys.roomOffset(matchId), "1");
+        redis.opsForZSet().remove(QueueKeys.waitingZSet(matchId), "1", "2");
+        redis.opsForZSet().add(QueueKeys.pruned(matchId), "2", 3d);
+
+        List<QueueStatusResponseDTO> statuses = queueService.getQueueStatuses(matchId, List.of(3L, 99L));
+
+        assertThat(statuses).hasSize(1);
+        QueueStatusResponseDTO batch = statuses.get(0);
+        QueueStatusResponseDTO single = queueService.getQueueStatus(matchId, 3L);
+        assertThat(batch.getUserId()).isEqualTo(3L);
+        // 앞: 봇 1명 (사람 레인 2명 중 1명 소비, 1명 이탈)
+        assertThat(batch.getPositionAhead()).isEqualTo(1L).isEqualTo(single.getPositionAhead());
+        assertThat(batch.getTotalNum()).isEqualTo(single.getTotalNum());
+        assertThat(batch.getOffset()).isEqualTo(single.getOffset());
+    }
+}
@@ -0,0 +1,63 @@
+package com.ticketing;
+
+import com.ticketing.queue.DTO.response.QueueStatusResponseDTO;
+import com.ticketing.queue.concurrency.LuaEnqueueExecutor;
+import com.ticketing.queue.domain.enums.QueueKeys;
+import com.ticketing.queue.service.QueueService;
+import com.ticketing.queue.service.QueueStatusLongPoller;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueueStatusLongPollerTest extends RedisMatchTestSupport {
+
+    @Autowired
+    QueueStatusLongPoller poller;
+
+    @Autowired
+    QueueService queueService;
+
+    @Autowired
+    LuaEnqueueExecutor enqueueExecutor;
+
+    private long enqueueAndGetOffset() {
+        enqueueExecutor.enqueue(matchId, 1L, "user", System.currentTimeMillis(), "ENQUEUED", "ALREADY_IN_QUEUE");
+        return queueService.getQueueStatus(matchId, 1L).getOffset();
+    }
+
+    private static ResponseEntity<?> await(DeferredResult<ResponseEntity<?>> result) throws InterruptedException {
+        for (int i = 0; i < 50 && !result.hasResult(); i++) {
+            Thread.sleep(20);
+        }
+        return (ResponseEntity<?>) result.getResult();
+    }
+
+    @Test
+    void 변화가_없으면_보류한다() {
+        long offset = enqueueAndGetOffset();
+
+        DeferredResult<ResponseEntity<?>> result = poller.poll(matchId, 1L, offset, 5_000L);
+        poller.check();
+
+        assertThat(result.hasResult()).isFalse();
+    }
+
+    @Test
+    void 소비_없이_이탈_정리만_있어도_깨운다() throws InterruptedException {
+        long offset = enqueueAndGetOffset();
+        DeferredResult<ResponseEntity<?>> result = poller.poll(matchId, 1L, offset, 5_000L);
+
+        // 이탈 정리 스크립트가 올리는 버전
+        redis.opsForValue().increment(QueueKeys.prunedVersion(matchId));
+        poller.check();
+
+        ResponseEntity<?> response = await(result);
+        assertThat(response).isNotNull();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((QueueStatusResponseDTO) response.getBody()).getOffset()).isEqualTo(offset + 1);
+    }
+}
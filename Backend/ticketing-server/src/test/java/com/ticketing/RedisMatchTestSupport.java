@@ -0,0 +1,46 @@
+package com.ticketing;
+
+import com.ticketing.queue.domain.enums.QueueKeys;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis 연동 테스트 공통 설정
+ * 테스트마다 로컬 데이터와 겹치지 않는 매치 ID를 받고, 끝나면 그 매치의 키를 모두 지운다.
+ * (queue:{matchId}:*, q:{matchId}:*, seat:{matchId}:*, match:{matchId}:*, humanusers:match:{matchId}, queue:active 항목)
+ */
+@SpringBootTest
+public abstract class RedisMatchTestSupport {
+
+    // 실제 매치 ID(DB auto increment)와 겹치지 않는 대역에서 테스트 실행마다 다른 값으로 시작
+    private static final AtomicLong NEXT_MATCH_ID = new AtomicLong(
+            900_000_000L + (System.currentTimeMillis() % 1_000_000L) * 100);
+
+    @Autowired
+    protected StringRedisTemplate redis;
+
+    protected final Long matchId = NEXT_MATCH_ID.incrementAndGet();
+
+    @AfterEach
+    void deleteMatchKeys() {
+        Set<String> keys = new HashSet<>();
+        for (String pattern : List.of(
+                "queue:" + matchId + ":*",
+                "q:" + matchId + ":*",
+                "seat:" + matchId + ":*",
+                "match:" + matchId + ":*")) {
+            Set<String> found = redis.keys(pattern);
+            if (found != null) keys.addAll(found);
+        }
+        keys.add("humanusers:match:" + matchId);
+        redis.delete(keys);
+        redis.opsForSet().remove(QueueKeys.activeMatches(), String.valueOf(matchId));
+    }
+}
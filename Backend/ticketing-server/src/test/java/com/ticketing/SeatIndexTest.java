@@ -0,0 +1,57 @@
+package com.ticketing;
+
+import com.ticketing.seat.redis.SeatReservationRedisRepository;
+import org.junit.jupiter.api.Test;
+
+import static com.ticketing.seat.redis.SeatReservationRedisRepository.ROW_STRIDE;
+import static com.ticketing.seat.redis.SeatReservationRedisRepository.rowNumber;
+import static com.ticketing.seat.redis.SeatReservationRedisRepository.seatIndex;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 좌석 비트맵 위치 = (row - 1) * ROW_STRIDE + (col - 1)
+class SeatIndexTest {
+
+    @Test
+    void 행_번호를_비트_위치로_바꾼다() {
+        assertThat(seatIndex("1-1")).isEqualTo(0L);
+        assertThat(seatIndex("1-" + ROW_STRIDE)).isEqualTo(ROW_STRIDE - 1L);
+        assertThat(seatIndex("2-1")).isEqualTo((long) ROW_STRIDE);
+        assertThat(seatIndex("9-15")).isEqualTo(8L * ROW_STRIDE + 14);
+    }
+
+    @Test
+    void 비트_위치와_행_번호는_서로_되돌릴_수_있다() {
+        for (int row = 1; row <= 100; row++) {
+            for (int col = 1; col <= ROW_STRIDE; col++) {
+                String rowNumber = row + "-" + col;
+                long index = seatIndex(rowNumber);
+                assertThat(rowNumber(index)).isEqualTo(rowNumber);
+                assertThat(seatIndex(rowNumber(index))).isEqualTo(index);
+            }
+        }
+    }
+
+    @Test
+    void 서로_다른_좌석은_같은_비트를_쓰지_않는다() {
+        // 열이 ROW_STRIDE 를 넘으면 다음 행 좌석과 겹치므로 거부
+        assertThat(seatIndex("1-" + ROW_STRIDE)).isNotEqualTo(seatIndex("2-1"));
+        assertThatThrownBy(() -> seatIndex("1-" + (ROW_STRIDE + 1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void 열이_64를_넘는_넓은_섹션도_받는다() {
+        assertThat(seatIndex("1-65")).isEqualTo(64L);
+        assertThat(seatIndex("3-120")).isEqualTo(2L * ROW_STRIDE + 119);
+        assertThat(rowNumber(seatIndex("3-120"))).isEqualTo("3-120");
+    }
+
+    @Test
+    void 범위를_벗어나거나_형식이_틀리면_거부한다() {
+        for (String invalid : new String[]{"0-1", "1-0", "-1-3", "3--1", "1-" + (ROW_STRIDE + 1), "a-1", "1-b", "1", "1-2-3", "", null}) {
+            assertThatThrownBy(() -> SeatReservationRedisRepository.seatIndex(invalid))
+                    .as(String.valueOf(invalid))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -21,7 +21,7 @@ class SeatReservationRedisRepositoryTest {
         Long userId = 1L;
         String grade = "R석";
 
-        // 선점 (키 생성): seat:100:008:9-15 → "1:R석"
+        // 선점: seat:100:008:bits 비트 + seat:100:008:owner 해시 {9-15 → "1:R석"}
         boolean ok = repo.tryReserveSingleSeat(matchId, sectionId, rowNumber, userId, grade);
         assertThat(ok).isTrue();
 
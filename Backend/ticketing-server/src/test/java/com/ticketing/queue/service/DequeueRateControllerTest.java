@@ -0,0 +1,116 @@
+package com.ticketing.queue.service;
+
+import com.ticketing.queue.service.DequeueRateController.Decision;
+import com.ticketing.queue.service.DequeueRateController.Signals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class DequeueRateControllerTest {
+
+    DequeueRateController controller;
+
+    int consumeRate;
+    int emitMs;
+    int commitMs;
+
+    @BeforeEach
+    void setUp() {
+        // 설정 소비량: 600 x 100 / 2000 = 틱당 30 (소비량 상한)
+        consumeRate = QueueConsumer.CONSUME_RATE_PER_2S;
+        emitMs = QueueConsumer.EMIT_MS;
+        commitMs = QueueConsumer.COMMIT_MS;
+        QueueConsumer.CONSUME_RATE_PER_2S = 600;
+        QueueConsumer.EMIT_MS = 100;
+        QueueConsumer.COMMIT_MS = 2000;
+
+        // min 1, max 50, +1, x0.5, 목표 hold 성공률 0.3, confirm 500ms, backend 100ms, 최소 hold 표본 10
+        controller = new DequeueRateController(mock(StringRedisTemplate.class), mock(ActiveMatchRegistry.class),
+                mock(QueueOwnershipManager.class), true, 1, 50, 1, 0.5, 0.3, 500, 100, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueueConsumer.CONSUME_RATE_PER_2S = consumeRate;
+        QueueConsumer.EMIT_MS = emitMs;
+        QueueConsumer.COMMIT_MS = commitMs;
+    }
+
+    private static Signals holds(long attempts, long successes) {
+        return new Signals(attempts, successes, 0, 0, 0, 0);
+    }
+
+    @Test
+    void 표본이_없으면_소비량을_올리지_않는다() {
+        Decision decision = controller.decide(10, Signals.EMPTY);
+
+        assertThat(decision.reason()).isEqualTo("insufficient-samples");
+        assertThat(decision.perTick()).isEqualTo(10d);
+    }
+
+    @Test
+    void 최소_표본_미만이면_성공률이_높아도_유지한다() {
+        Decision decision = controller.decide(10, holds(9, 9));
+
+        assertThat(decision.reason()).isEqualTo("insufficient-samples");
+        assertThat(decision.perTick()).isEqualTo(10d);
+    }
+
+    @Test
+    void 표본이_충분하고_건강하면_한_단계씩_올린다() {
+        Decision decision = controller.decide(10, holds(20, 10));
+
+        assertThat(decision.reason()).isEqualTo("healthy");
+        assertThat(decision.perTick()).isEqualTo(11d);
+    }
+
+    @Test
+    void 설정_소비량을_넘어_올리지_않는다() {
+        assertThat(controller.ceiling()).isEqualTo(30);
+        assertThat(controller.decide(30, holds(20, 20)).perTick()).isEqualTo(30d);
+    }
+
+    @Test
+    void 좌석_경합이면_줄인다() {
+        Decision decision = controller.decide(10, holds(20, 2));
+
+        assertThat(decision.reason()).isEqualTo("hold-contention");
+        assertThat(decision.holdSuccessRate()).isEqualTo(0.1);
+        assertThat(decision.perTick()).isEqualTo(5d);
+    }
+
+    @Test
+    void 지연이_길면_표본과_무관하게_줄인다() {
+        // confirm 평균 1000ms > 500ms
+        Decision confirm = controller.decide(10, new Signals(0, 0, 2, 2000, 0, 0));
+        assertThat(confirm.reason()).isEqualTo("confirm-latency");
+        assertThat(confirm.perTick()).isEqualTo(5d);
+
+        // backend 평균 200ms > 100ms (confirm 지연보다 먼저 판단)
+        Decision backend = controller.decide(10, new Signals(20, 20, 2, 2000, 1, 200));
+        assertThat(backend.reason()).isEqualTo("backend-latency");
+        assertThat(backend.perTick()).isEqualTo(5d);
+    }
+
+    @Test
+    void 줄여도_최소_소비량_아래로_내려가지_않는다() {
+        assertThat(controller.decide(1, holds(20, 0)).perTick()).isEqualTo(1d);
+    }
+
+    @Test
+    void Redis_집계_해시를_읽는다() {
+        Signals s = Signals.fromHash(List.of(
+                "holdAttempts", "12", "holdSuccesses", "3",
+                "confirmCount", "2", "confirmLatencySum", "900",
+                "backendLatencySum", "x"));
+
+        assertThat(s).isEqualTo(new Signals(12, 3, 2, 900, 0, 0));
+        assertThat(Signals.fromHash(List.of()).isEmpty()).isTrue();
+    }
+}
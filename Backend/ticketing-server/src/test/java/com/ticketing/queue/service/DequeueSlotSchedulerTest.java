@@ -0,0 +1,117 @@
+package com.ticketing.queue.service;
+
+import com.ticketing.repository.MatchMetadataCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DequeueSlotSchedulerTest {
+
+    StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    DequeueRateController rateController = mock(DequeueRateController.class);
+    MatchMetadataCache matchMetadataCache = mock(MatchMetadataCache.class);
+    QueueOwnershipManager ownershipManager = mock(QueueOwnershipManager.class);
+
+    @BeforeEach
+    void setUp() {
+        when(rateController.permitsPerTick(anyLong())).thenReturn(1000);
+    }
+
+    private DequeueSlotScheduler scheduler(int budget) {
+        return new DequeueSlotScheduler(redis, rateController, matchMetadataCache, ownershipManager, budget, 2.0);
+    }
+
+    // refresh 파이프라인 결과: 매치마다 [사람 ZCARD, 봇 ZCARD, reserved_count]
+    @SuppressWarnings("unchecked")
+    private void refresh(DequeueSlotScheduler scheduler, Set<Long> matchIds, Object... results) {
+        when(ownershipManager.ownedMatchIds()).thenReturn(new LinkedHashSet<>(matchIds));
+        when(redis.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.asList(results));
+        scheduler.refresh();
+    }
+
+    @Test
+    void 예산이_없으면_매치별_틱당_소비량을_그대로_쓴다() {
+        when(rateController.permitsPerTick(1L)).thenReturn(40);
+
+        Map<Long, Integer> grants = scheduler(0).allocate(Set.of(1L));
+
+        assertThat(grants).containsEntry(1L, 40);
+    }
+
+    @Test
+    void 대기_인원_비율로_예산을_나눈다() {
+        DequeueSlotScheduler scheduler = scheduler(60);
+        // 매치 1: 사람 20 + 봇 10 = 30, 매치 2: 90 (좌석 수 모름)
+        refresh(scheduler, new LinkedHashSet<>(List.of(1L, 2L)), 20L, 10L, null, 90L, 0L, null);
+
+        Map<Long, Integer> grants = scheduler.allocate(Set.of(1L, 2L));
+
+        assertThat(grants).containsEntry(1L, 15).containsEntry(2L, 45);
+    }
+
+    @Test
+    void 잔여_좌석으로_가중치_상한을_둔다() {
+        when(matchMetadataCache.totalSeats(1L)).thenReturn(10);
+        DequeueSlotScheduler scheduler = scheduler(30);
+        // 매치 1: 대기 1000명이지만 잔여 좌석 5 → 가중치 5 x 2.0 = 10, 매치 2: 대기 20
+        refresh(scheduler, new LinkedHashSet<>(List.of(1L, 2L)), 1000L, 0L, "5", 20L, 0L, null);
+
+        Map<Long, Integer> grants = scheduler.allocate(Set.of(1L, 2L));
+
+        assertThat(grants).containsEntry(1L, 10).containsEntry(2L, 20);
+    }
+
+    @Test
+    void 소수_부분은_다음_틱으로_이월된다() {
+        DequeueSlotScheduler scheduler = scheduler(10);
+        Set<Long> matchIds = Set.of(1L, 2L, 3L);
+
+        // 10 / 3 = 3.33.. → 매 틱 3씩, 세 번째 틱에 이월분이 쌓여 4
+        assertThat(scheduler.allocate(matchIds).values()).containsOnly(3);
+        assertThat(scheduler.allocate(matchIds).values()).containsOnly(3);
+        assertThat(scheduler.allocate(matchIds).values()).containsOnly(4);
+    }
+
+    @Test
+    void 틱당_소비량과_대기_인원을_넘지_않는다() {
+        when(rateController.permitsPerTick(1L)).thenReturn(5);
+        DequeueSlotScheduler scheduler = scheduler(100);
+        // 매치 1: 대기 50명이지만 틱당 5, 매치 2: 대기 3명, 매치 3: 빈 대기열
+        refresh(scheduler, new LinkedHashSet<>(List.of(1L, 2L, 3L)),
+                40L, 10L, null, 2L, 1L, null, 0L, 0L, null);
+
+        Map<Long, Integer> grants = scheduler.allocate(Set.of(1L, 2L, 3L));
+
+        assertThat(grants).containsEntry(1L, 5).containsEntry(2L, 3).doesNotContainKey(3L);
+
+        // 상한에 막힌 몫이 쌓여 다음 틱에 한꺼번에 나가지 않는다
+        assertThat(scheduler.allocate(Set.of(1L, 2L, 3L))).containsEntry(1L, 5);
+    }
+
+    @Test
+    void 배정량을_사람과_봇_레인이_나눠_쓴다() {
+        // 사람 = ceil(배정량 / (1 + ratio)), 봇 = 나머지
+        assertThat(QueueConsumer.splitGrant(10, 1.0)).isEqualTo(5);
+        assertThat(QueueConsumer.splitGrant(10, 0.5)).isEqualTo(7);
+        assertThat(QueueConsumer.splitGrant(10, 3.0)).isEqualTo(3);
+        assertThat(QueueConsumer.splitGrant(1, 1.0)).isEqualTo(1);
+
+        // 봇 레인 비활성 / 배정 없음
+        assertThat(QueueConsumer.splitGrant(10, 0d)).isEqualTo(10);
+        assertThat(QueueConsumer.splitGrant(10, Double.NaN)).isEqualTo(10);
+        assertThat(QueueConsumer.splitGrant(0, 1.0)).isEqualTo(0);
+    }
+}
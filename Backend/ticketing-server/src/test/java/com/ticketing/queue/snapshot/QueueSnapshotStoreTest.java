@@ -0,0 +1,200 @@
+package com.ticketing.queue.snapshot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueueSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    QueueSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new QueueSnapshotStore(dir.toString());
+    }
+
+    // {id, seq, id, seq, ...}
+    private static SnapshotLane lane(long... idSeq) {
+        SnapshotLane lane = new SnapshotLane(2);
+        for (int i = 0; i < idSeq.length; i += 2) {
+            lane.add(idSeq[i], idSeq[i + 1]);
+        }
+        return lane;
+    }
+
+    private static List<Long> ids(SnapshotLane lane) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < lane.size(); i++) ids.add(lane.id(i));
+        return ids;
+    }
+
+    private static List<Long> seqs(SnapshotLane lane) {
+        List<Long> seqs = new ArrayList<>();
+        for (int i = 0; i < lane.size(); i++) seqs.add(lane.seq(i));
+        return seqs;
+    }
+
+    private QueueSnapshot base() {
+        return new QueueSnapshot(7L, 42L, 5L, 1L, 0L, 4L, 1_700_000_000_000L,
+                lane(10L, 2L, 11L, 4L, 12L, 5L),
+                lane(-1L, 3L));
+    }
+
+    @Test
+    void 전체_스냅샷을_그대로_복원한다() throws IOException {
+        store.writeBase(base());
+
+        QueueSnapshot loaded = store.load(7L).orElseThrow();
+
+        assertThat(loaded.matchId()).isEqualTo(7L);
+        assertThat(loaded.roomId()).isEqualTo(42L);
+        assertThat(loaded.seq()).isEqualTo(5L);
+        assertThat(loaded.offset()).isEqualTo(1L);
+        assertThat(loaded.total()).isEqualTo(4L);
+        assertThat(loaded.takenAt()).isEqualTo(1_700_000_000_000L);
+        assertThat(ids(loaded.humans())).containsExactly(10L, 11L, 12L);
+        assertThat(seqs(loaded.humans())).containsExactly(2L, 4L, 5L);
+        // 봇 ID는 음수 (zigzag)
+        assertThat(ids(loaded.bots())).containsExactly(-1L);
+        assertThat(store.storedMatchIds()).containsExactly(7L);
+    }
+
+    @Test
+    void roomId가_없으면_null로_복원한다() throws IOException {
+        store.writeBase(new QueueSnapshot(8L, null, 0L, 0L, 0L, 0L, 0L, lane(), lane()));
+
+        QueueSnapshot loaded = store.load(8L).orElseThrow();
+
+        assertThat(loaded.roomId()).isNull();
+        assertThat(loaded.humans().size()).isZero();
+    }
+
+    @Test
+    void 증분은_앞부분을_잘라내고_새_항목을_이어_붙인다() throws IOException {
+        store.writeBase(base());
+
+        // 사람 10, 11 빠짐 (맨 앞 seq 5), 새로 13(seq 6), 봇 레인 비움
+        store.appendDelta(7L, new QueueSnapshotDelta(6L, 3L, 1L, 2L, 1_700_000_001_000L,
+                5L, Long.MAX_VALUE, lane(12L, 5L, 13L, 6L), lane(), lane()));
+        // 사람 14(seq 8), 봇 -2(seq 7)
+        store.appendDelta(7L, new QueueSnapshotDelta(8L, 3L, 1L, 4L, 1_700_000_002_000L,
+                5L, 7L, lane(14L, 8L), lane(-2L, 7L), lane()));
+
+        QueueSnapshot loaded = store.load(7L).orElseThrow();
+
+        assertThat(loaded.seq()).isEqualTo(8L);
+        assertThat(loaded.offset()).isEqualTo(3L);
+        assertThat(loaded.takenAt()).isEqualTo(1_700_000_002_000L);
+        assertThat(ids(loaded.humans())).containsExactly(12L, 13L, 14L);
+        assertThat(ids(loaded.bots())).containsExactly(-2L);
+    }
+
+    @Test
+    void 끝이_잘린_증분_레코드는_무시한다() throws IOException {
+        store.writeBase(base());
+        store.appendDelta(7L, new QueueSnapshotDelta(6L, 1L, 0L, 5L, 1L,
+                2L, 3L, lane(13L, 6L), lane(), lane()));
+        store.appendDelta(7L, new QueueSnapshotDelta(7L, 1L, 0L, 6L, 2L,
+                2L, 3L, lane(14L, 7L), lane(), lane()));
+
+        // 두 번째 레코드 쓰기 도중 종료된 상황
+        Path delta = dir.resolve("match-7.delta");
+        byte[] bytes = Files.readAllBytes(delta);
+        Files.write(delta, Arrays.copyOf(bytes, bytes.length - 2), StandardOpenOption.TRUNCATE_EXISTING);
+
+        QueueSnapshot loaded = store.load(7L).orElseThrow();
+
+        assertThat(loaded.seq()).isEqualTo(6L);
+        assertThat(ids(loaded.humans())).containsExactly(10L, 11L, 12L, 13L);
+    }
+
+    @Test
+    void 손상된_전체_스냅샷은_무시한다() throws IOException {
+        store.writeBase(base());
+        Path base = dir.resolve("match-7.base");
+        byte[] bytes = Files.readAllBytes(base);
+        bytes[6] ^= 0x01;
+        Files.write(base, bytes);
+
+        assertThat(store.load(7L)).isEmpty();
+    }
+
+    @Test
+    void 새_전체_스냅샷을_쓰면_증분은_지운다() throws IOException {
+        store.writeBase(base());
+        store.appendDelta(7L, new QueueSnapshotDelta(6L, 1L, 0L, 5L, 1L,
+                2L, 3L, lane(13L, 6L), lane(), lane()));
+
+        store.writeBase(base());
+
+        assertThat(ids(store.load(7L).orElseThrow().humans())).containsExactly(10L, 11L, 12L);
+
+        store.delete(7L);
+        assertThat(store.load(7L)).isEmpty();
+        assertThat(store.storedMatchIds()).isEmpty();
+    }
+
+    @Test
+    void 중간에서_이탈_정리된_사람은_복원하지_않는다() throws IOException {
+        store.writeBase(base());
+
+        // 11(seq 4) 이탈 정리 + 새로 13(seq 6)
+        store.appendDelta(7L, new QueueSnapshotDelta(6L, 1L, 0L, 4L, 1L,
+                2L, 3L, lane(13L, 6L), lane(), lane(11L, 4L)));
+        // 같은 이탈이 다음 증분에 다시 실려도 (범위 재조회) 문제없다, 13도 이탈
+        store.appendDelta(7L, new QueueSnapshotDelta(6L, 1L, 0L, 3L, 2L,
+                2L, 3L, lane(), lane(), lane(11L, 4L, 13L, 6L)));
+
+        QueueSnapshot loaded = store.load(7L).orElseThrow();
+
+        assertThat(ids(loaded.humans())).containsExactly(10L, 12L);
+        assertThat(seqs(loaded.humans())).containsExactly(2L, 5L);
+    }
+
+    @Test
+    void 레인에서_seq로_중간_항목을_지운다() {
+        SnapshotLane lane = lane(1L, 1L, 2L, 2L, 3L, 3L, 4L, 4L);
+        lane.trimBefore(2L);
+
+        // 없는 seq(9)와 이미 잘린 seq(1)는 무시
+        lane.removeAll(lane(1L, 1L, 3L, 3L, 9L, 9L));
+
+        assertThat(seqs(lane)).containsExactly(2L, 4L);
+        lane.add(5L, 5L);
+        assertThat(ids(lane)).containsExactly(2L, 4L, 5L);
+    }
+
+    @Test
+    void 레인은_앞에서_빠지고_뒤에_붙어도_순서를_유지한다() {
+        SnapshotLane lane = new SnapshotLane(4);
+        long seq = 0;
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 7; i++) {
+                seq++;
+                lane.add(seq, seq);
+            }
+            lane.trimBefore(seq - 4);
+        }
+
+        assertThat(lane.size()).isEqualTo(5);
+        assertThat(seqs(lane)).containsExactly(seq - 4, seq - 3, seq - 2, seq - 1, seq);
+
+        // 이미 있는 seq는 다시 붙이지 않는다
+        lane.appendAfter(lane(seq, seq, seq + 1, seq + 1));
+        assertThat(lane.maxSeq()).isEqualTo(seq + 1);
+        assertThat(lane.size()).isEqualTo(6);
+    }
+}